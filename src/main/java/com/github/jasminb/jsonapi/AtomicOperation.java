@@ -0,0 +1,135 @@
+package com.github.jasminb.jsonapi;
+
+/**
+ * Single operation of a JSON API <a href="https://jsonapi.org/ext/atomic/">Atomic Operations</a> request.
+ *
+ * <p>
+ *     Operations are created using static factory methods and serialized using
+ *     {@link ResourceConverter#writeAtomicOperations(java.util.List)}. Resources that are created by an
+ *     <code>add</code> operation can be referenced by later operations using their local id
+ *     ({@link com.github.jasminb.jsonapi.annotations.LocalId}).
+ * </p>
+ *
+ * @author jbegic
+ */
+public class AtomicOperation {
+
+	/**
+	 * Atomic Operations extension URI.
+	 */
+	public static final String EXTENSION = "https://jsonapi.org/ext/atomic";
+
+	/**
+	 * Media type of Atomic Operations requests and responses.
+	 */
+	public static final String MEDIA_TYPE = "application/vnd.api+json; ext=\"" + EXTENSION + "\"";
+
+	/**
+	 * Supported operation codes.
+	 */
+	public enum Op {
+		ADD("add"),
+		UPDATE("update"),
+		REMOVE("remove");
+
+		private final String name;
+
+		Op(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Returns operation code, as used in serialized JSON.
+		 *
+		 * @return {@link String} operation code
+		 */
+		public String getName() {
+			return name;
+		}
+	}
+
+	private final Op op;
+	private final Object resource;
+	private final String relationship;
+
+	private AtomicOperation(Op op, Object resource, String relationship) {
+		if (resource == null) {
+			throw new IllegalArgumentException("Operation resource must not be null");
+		}
+
+		this.op = op;
+		this.resource = resource;
+		this.relationship = relationship;
+	}
+
+	/**
+	 * Creates operation that adds provided resource.
+	 *
+	 * @param resource resource to add, usually having a local id instead of an id
+	 * @return {@link AtomicOperation}
+	 */
+	public static AtomicOperation add(Object resource) {
+		return new AtomicOperation(Op.ADD, resource, null);
+	}
+
+	/**
+	 * Creates operation that updates provided resource.
+	 *
+	 * @param resource resource to update, must have either an id or a local id
+	 * @return {@link AtomicOperation}
+	 */
+	public static AtomicOperation update(Object resource) {
+		return new AtomicOperation(Op.UPDATE, resource, null);
+	}
+
+	/**
+	 * Creates operation that removes provided resource.
+	 *
+	 * @param resource resource to remove, must have either an id or a local id
+	 * @return {@link AtomicOperation}
+	 */
+	public static AtomicOperation remove(Object resource) {
+		return new AtomicOperation(Op.REMOVE, resource, null);
+	}
+
+	/**
+	 * Creates operation that replaces relationship of provided resource with its current value.
+	 *
+	 * @param resource resource owning the relationship, must have either an id or a local id
+	 * @param relationship {@link String} relationship name
+	 * @return {@link AtomicOperation}
+	 */
+	public static AtomicOperation updateRelationship(Object resource, String relationship) {
+		if (relationship == null) {
+			throw new IllegalArgumentException("Relationship name must not be null");
+		}
+		return new AtomicOperation(Op.UPDATE, resource, relationship);
+	}
+
+	/**
+	 * Returns operation code.
+	 *
+	 * @return {@link Op}
+	 */
+	public Op getOp() {
+		return op;
+	}
+
+	/**
+	 * Returns resource operation is targeting.
+	 *
+	 * @return resource
+	 */
+	public Object getResource() {
+		return resource;
+	}
+
+	/**
+	 * Returns name of the relationship operation is targeting.
+	 *
+	 * @return {@link String} relationship name or <code>null</code> in case operation targets the resource itself
+	 */
+	public String getRelationship() {
+		return relationship;
+	}
+}
@@ -0,0 +1,137 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.github.jasminb.jsonapi.annotations.Relationship;
+
+import java.io.IOException;
+
+/**
+ * Converts resources into attribute nodes, skipping fields annotated with {@link Relationship}.
+ *
+ * <p>
+ *     Relationships are serialized by the converter, letting the mapper serialize them too would walk the whole
+ *     resource graph for every resource only to remove the result afterwards. Resources are serialized using the
+ *     current configuration of provided mapper (features, modules, mix-ins, inclusion), with relationship fields
+ *     marked as ignored. Mapper itself is not modified or copied: configuration is derived again when mapper's
+ *     configuration changes and serializers built for attributes are cached separately from mapper's serializers.
+ * </p>
+ *
+ * @author jbegic
+ */
+class AttributeSerializer {
+	private static final AnnotationIntrospector RELATIONSHIP_IGNORING_INTROSPECTOR =
+			new RelationshipIgnoringIntrospector();
+
+	private final ObjectMapper mapper;
+	private volatile State state;
+
+	AttributeSerializer(ObjectMapper mapper) {
+		this.mapper = mapper;
+	}
+
+	/**
+	 * Converts resource into a node holding its attributes.
+	 *
+	 * @param resource resource
+	 * @return {@link ObjectNode} attributes node
+	 * @throws IllegalArgumentException in case resource cannot be serialized
+	 */
+	ObjectNode toAttributes(Object resource) {
+		State current = getState();
+		TokenBuffer buffer = new TokenBuffer(mapper, false);
+
+		if (mapper.isEnabled(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)) {
+			buffer = buffer.forceUseOfBigDecimal(true);
+		}
+
+		try {
+			current.serializers.createInstance(current.config, current.factory).serializeValue(buffer, resource);
+
+			try (JsonParser parser = buffer.asParser()) {
+				return mapper.readTree(parser);
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Creates and caches serializer for provided type.
+	 *
+	 * @param type {@link Class} resource type
+	 * @throws JsonMappingException in case serializer cannot be created
+	 */
+	void prepare(Class<?> type) throws JsonMappingException {
+		State current = getState();
+		current.serializers.createInstance(current.config, current.factory).findTypedValueSerializer(type, true, null);
+	}
+
+	/**
+	 * Returns state derived from current mapper configuration. Mapper's configuration objects are immutable and
+	 * replaced on every change (eg. enabling a feature or registering a module), so identity check is enough to
+	 * detect changes.
+	 */
+	private State getState() {
+		State current = state;
+		SerializationConfig mapperConfig = mapper.getSerializationConfig();
+		SerializerFactory factory = mapper.getSerializerFactory();
+		DefaultSerializerProvider provider = (DefaultSerializerProvider) mapper.getSerializerProvider();
+
+		if (current == null || current.mapperConfig != mapperConfig || current.factory != factory ||
+				current.provider != provider) {
+			current = new State(mapperConfig, factory, provider);
+			state = current;
+		}
+
+		return current;
+	}
+
+	/**
+	 * Configuration derived from a single mapper configuration.
+	 */
+	private static class State {
+		private final SerializationConfig mapperConfig;
+		private final SerializerFactory factory;
+		private final DefaultSerializerProvider provider;
+
+		private final SerializationConfig config;
+		private final DefaultSerializerProvider serializers;
+
+		State(SerializationConfig mapperConfig, SerializerFactory factory, DefaultSerializerProvider provider) {
+			this.mapperConfig = mapperConfig;
+			this.factory = factory;
+			this.provider = provider;
+
+			// Shares mix-ins, config overrides and subtypes with the mapper, only annotation handling differs
+			this.config = mapperConfig.without(SerializationFeature.WRAP_ROOT_VALUE).with(AnnotationIntrospector.pair(
+					mapperConfig.getAnnotationIntrospector(), RELATIONSHIP_IGNORING_INTROSPECTOR));
+
+			// Copy has its own serializer cache, serializers that skip relationships are not visible to the mapper
+			this.serializers = provider.copy();
+		}
+	}
+
+	/**
+	 * Annotation introspector that marks fields annotated with {@link Relationship} as ignored.
+	 */
+	private static class RelationshipIgnoringIntrospector extends NopAnnotationIntrospector {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public boolean hasIgnoreMarker(AnnotatedMember member) {
+			return member.hasAnnotation(Relationship.class);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Tracks size of the compound document being serialized against limits defined in {@link SerializationSettings}.
+ *
+ * <p>
+ *     Instance is created for each serialization call. Size of the document is approximated by summing up lengths of
+ *     field names and scalar values of the resource nodes that were created, which is considerably cheaper than
+ *     serializing them.
+ * </p>
+ *
+ * @author jbegic
+ */
+class CompoundDocumentBudget {
+	private final Integer maxIncludedResources;
+	private final Integer maxRelationshipLinkage;
+	private final Long maxOutputBytes;
+
+	private long estimatedBytes;
+
+	private CompoundDocumentBudget(Integer maxIncludedResources, Integer maxRelationshipLinkage, Long maxOutputBytes) {
+		this.maxIncludedResources = maxIncludedResources;
+		this.maxRelationshipLinkage = maxRelationshipLinkage;
+		this.maxOutputBytes = maxOutputBytes;
+	}
+
+	/**
+	 * Creates budget using limits from provided settings.
+	 *
+	 * @param settings {@link SerializationSettings} settings, can be <code>null</code>
+	 * @return {@link CompoundDocumentBudget} or <code>null</code> in case no limits are defined
+	 */
+	static CompoundDocumentBudget create(SerializationSettings settings) {
+		if (settings == null || (settings.getMaxIncludedResources() == null &&
+				settings.getMaxRelationshipLinkage() == null && settings.getMaxOutputBytes() == null)) {
+			return null;
+		}
+
+		return new CompoundDocumentBudget(settings.getMaxIncludedResources(), settings.getMaxRelationshipLinkage(),
+				settings.getMaxOutputBytes());
+	}
+
+	/**
+	 * Checks if relationship with given number of linkage entries can be serialized with its data.
+	 *
+	 * @param linkageSize number of resource identifiers in relationship data
+	 * @return {@link Boolean}
+	 */
+	boolean allowsLinkage(int linkageSize) {
+		return maxRelationshipLinkage == null || linkageSize <= maxRelationshipLinkage;
+	}
+
+	/**
+	 * Checks if given number of resources can be added to the included section.
+	 *
+	 * @param includedCount number of resources in the included section
+	 * @param newResources number of resources that would be added
+	 * @return {@link Boolean}
+	 */
+	boolean allowsInclusion(int includedCount, int newResources) {
+		if (newResources == 0) {
+			return true;
+		}
+
+		if (maxIncludedResources != null && includedCount + newResources > maxIncludedResources) {
+			return false;
+		}
+
+		return maxOutputBytes == null || estimatedBytes < maxOutputBytes;
+	}
+
+	/**
+	 * Adds approximate serialized size of given node to the budget.
+	 *
+	 * @param node {@link JsonNode} serialized resource
+	 */
+	void record(JsonNode node) {
+		if (maxOutputBytes != null) {
+			estimatedBytes += estimateSize(node);
+		}
+	}
+
+	private static long estimateSize(JsonNode node) {
+		if (node.isObject()) {
+			long size = 2;
+			Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				size += field.getKey().length() + 4 + estimateSize(field.getValue());
+			}
+			return size;
+		} else if (node.isArray()) {
+			long size = 2;
+
+			for (JsonNode element : node) {
+				size += estimateSize(element) + 1;
+			}
+			return size;
+		} else if (node.isTextual()) {
+			return node.textValue().length() + 2;
+		}
+
+		return node.asText().length();
+	}
+}
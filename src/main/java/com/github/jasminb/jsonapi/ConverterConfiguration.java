@@ -1,14 +1,12 @@
 package com.github.jasminb.jsonapi;
 
 import com.github.jasminb.jsonapi.annotations.Id;
-import com.github.jasminb.jsonapi.annotations.LocalId;
-import com.github.jasminb.jsonapi.annotations.Meta;
 import com.github.jasminb.jsonapi.annotations.Relationship;
-import com.github.jasminb.jsonapi.annotations.RelationshipLinks;
-import com.github.jasminb.jsonapi.annotations.RelationshipMeta;
 import com.github.jasminb.jsonapi.annotations.Type;
 
 import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -19,34 +17,24 @@ import java.util.Map;
  * <p>
  *     This class exposes contracts needed to handle JSON API spec serialization/deserialization.
  * </p>
+ * <p>
+ *     Registered types are held in an immutable registry that is replaced as a whole when new types are registered.
+ *     Lookups do not lock and always see either none or all of the classes registered by a single
+ *     {@link #registerType(Class)} call, so types can be registered while other threads are using the configuration.
+ * </p>
  *
  * @author jbegic
  */
 public class ConverterConfiguration {
 
-	private final Map<String, Class<?>> typeToClassMapping = new HashMap<>();
-	private final Map<Class<?>, Type> typeAnnotations = new HashMap<>();
-	private final Map<Class<?>, Field> idMap = new HashMap<>();
-	private final Map<Class<?>, Field> localIdMap = new HashMap<>();
-	private final Map<Class<?>, ResourceIdHandler> idHandlerMap = new HashMap<>();
-	private final Map<Class<?>, ResourceIdHandler> localIdHandlerMap = new HashMap<>();
-
-	private final Map<Class<?>, List<Field>> relationshipMap = new HashMap<>();
-	private final Map<Class<?>, Map<String, Class<?>>> relationshipTypeMap = new HashMap<>();
-	private final Map<Class<?>, Map<String, Field>> relationshipFieldMap = new HashMap<>();
-	private final Map<Field, Relationship> fieldRelationshipMap = new HashMap<>();
-	private final Map<Field, RelationshipMeta> fieldRelationshipMetaMap = new HashMap<>();
-	private final Map<Class<?>, Map<String, Class<?>>> relationshipMetaTypeMap = new HashMap<>();
-	private final Map<Class<?>, Map<String, Field>> relationshipMetaFieldMap = new HashMap<>();
-	private final Map<Class<?>, Class<?>> metaTypeMap = new HashMap<>();
-	private final Map<Class<?>, Field> metaFieldMap = new HashMap<>();
-	private final Map<Class<?>, Field> linkFieldMap = new HashMap<>();
-
-	// Relationship links lookups
-	private final Map<Class<?>, Map<String, Field>> relationshipLinksFieldMap = new HashMap<>();
+	private volatile Registry registry = new Registry();
 
 	/**
 	 * Creates new ConverterConfiguration.
+	 * <p>
+	 *     Class metadata is resolved once per class and shared between configurations, registering classes that were
+	 *     already registered with another configuration does not repeat reflection.
+	 * </p>
 	 * @param classes list of mapped classes
 	 */
 	public ConverterConfiguration(Class<?>... classes) {
@@ -55,133 +43,19 @@ public class ConverterConfiguration {
 		}
 	}
 
-	private void processClass(Class<?> clazz) {
+	private void processClass(Class<?> clazz, Registry target) {
 		if (clazz.isAnnotationPresent(Type.class)) {
-			Type annotation = clazz.getAnnotation(Type.class);
-			typeToClassMapping.put(annotation.value(), clazz);
-			typeAnnotations.put(clazz, annotation);
-			relationshipTypeMap.put(clazz, new HashMap<String, Class<?>>());
-			relationshipFieldMap.put(clazz, new HashMap<String, Field>());
-			relationshipMetaFieldMap.put(clazz, new HashMap<String, Field>());
-			relationshipMetaTypeMap.put(clazz, new HashMap<String, Class<?>>());
-			relationshipLinksFieldMap.put(clazz, new HashMap<String, Field>());
-
-			// collecting Relationship fields
-			List<Field> relationshipFields = ReflectionUtils.getAnnotatedFields(clazz, Relationship.class, true);
-
-			for (Field relationshipField : relationshipFields) {
-				relationshipField.setAccessible(true);
-
-				Relationship relationship = relationshipField.getAnnotation(Relationship.class);
-				Class<?> targetType = ReflectionUtils.getFieldType(relationshipField);
-				relationshipTypeMap.get(clazz).put(relationship.value(), targetType);
-				relationshipFieldMap.get(clazz).put(relationship.value(), relationshipField);
-				fieldRelationshipMap.put(relationshipField, relationship);
-
-				if (relationship.resolve() && relationship.relType() == null) {
-					throw new IllegalArgumentException("@Relationship on " + clazz.getName() + "#" +
-							relationshipField.getName() + " with 'resolve = true' must have a relType attribute " +
-							"set." );
-				}
-
-				registerType(targetType);
-			}
-
-			relationshipMap.put(clazz, relationshipFields);
-
-			// collecting RelationshipMeta fields
-			List<Field> relMetaFields = ReflectionUtils.getAnnotatedFields(clazz, RelationshipMeta.class, true);
-
-			for (Field relMetaField : relMetaFields) {
-				relMetaField.setAccessible(true);
-
-				RelationshipMeta relationshipMeta = relMetaField.getAnnotation(RelationshipMeta.class);
-				Class<?> targetType = ReflectionUtils.getFieldType(relMetaField);
-				relationshipMetaTypeMap.get(clazz).put(relationshipMeta.value(), targetType);
-				fieldRelationshipMetaMap.put(relMetaField, relationshipMeta);
-				relationshipMetaFieldMap.get(clazz).put(relationshipMeta.value(), relMetaField);
-			}
-
-			// Collecting RelationshipLink fields
-			List<Field> relLinkFields = ReflectionUtils.getAnnotatedFields(clazz, RelationshipLinks.class, true);
-
-			for (Field relLinkField : relLinkFields) {
-				relLinkField.setAccessible(true);
-
-				RelationshipLinks links = relLinkField.getAnnotation(RelationshipLinks.class);
-				relationshipLinksFieldMap.get(clazz).put(links.value(), relLinkField);
-			}
-
-			// collecting Id fields
-			List<Field> idAnnotatedFields = ReflectionUtils.getAnnotatedFields(clazz, Id.class, true);
-
-			if (!idAnnotatedFields.isEmpty() && idAnnotatedFields.size() == 1) {
-				Field idField = idAnnotatedFields.get(0);
-				idField.setAccessible(true);
-				idMap.put(clazz, idField);
-				try {
-					idHandlerMap.put(clazz, idField.getAnnotation(Id.class).value().newInstance());
-				} catch (InstantiationException | IllegalAccessException e) {
-					throw new IllegalArgumentException("Unable to construct handler instance by using no-arg constructor", e);
-				}
-			} else {
-				if (idAnnotatedFields.isEmpty()) {
-					throw new IllegalArgumentException("All resource classes must have a field annotated with the " +
-							"@Id annotation");
-				} else {
-					throw new IllegalArgumentException("Only single @Id annotation is allowed per defined type!");
-				}
-			}
-
-			// Collecting local id fields
-			List<Field> localIdFields = ReflectionUtils.getAnnotatedFields(clazz, LocalId.class, true);
-
-			if (localIdFields.size() == 1) {
-				Field localIdField = localIdFields.get(0);
-				localIdField.setAccessible(true);
-				localIdMap.put(clazz, localIdField);
-				try {
-					localIdHandlerMap.put(clazz, localIdField.getAnnotation(LocalId.class).value().newInstance());
-				} catch (InstantiationException | IllegalAccessException e) {
-					throw new IllegalArgumentException("Unable to construct handler instance by using no-arg constructor", e);
-				}
-			} else if (localIdFields.size() > 1) {
-				throw new IllegalArgumentException("Only single @LocalId annotation is allowed per defined type!");
-			}
-
-			// Collecting Meta fields
-			List<Field> metaFields = ReflectionUtils.getAnnotatedFields(clazz, Meta.class, true);
-			if (metaFields.size() == 1) {
-				Field metaField = metaFields.get(0);
-				metaField.setAccessible(true);
-				Class<?> metaType = ReflectionUtils.getFieldType(metaField);
-				metaTypeMap.put(clazz, metaType);
-				metaFieldMap.put(clazz, metaField);
-			} else if (metaFields.size() > 1) {
-				throw new IllegalArgumentException(String.format("Only one meta field is allowed for type '%s'",
-						clazz.getCanonicalName()));
-			}
-
-			// Collect and handle 'Link' field
-			List<Field> linkFields = ReflectionUtils.getAnnotatedFields(clazz,
-					com.github.jasminb.jsonapi.annotations.Links.class, true);
-
-			if (linkFields.size() == 1) {
-				Field linkField = linkFields.get(0);
-				linkField.setAccessible(true);
+			TypeMetadata metadata = TypeMetadata.get(clazz);
 
-				Class<?> metaType = ReflectionUtils.getFieldType(linkField);
+			target.typeToClassMapping.put(metadata.type.value(), clazz);
+			target.typeMetadata.put(clazz, metadata);
+			target.fieldRelationshipMap.putAll(metadata.fieldRelationships);
 
-				if (!Links.class.isAssignableFrom(metaType)) {
-					throw new IllegalArgumentException(String.format("%s is not allowed to be used as @Links " +
-							"attribute. Only com.github.jasminb.jsonapi.Links or its derivatives" +
-							" can be annotated as @Links", metaType.getCanonicalName()));
-				} else {
-					linkFieldMap.put(clazz, linkField);
+			// Register relationship types
+			for (Class<?> relationshipType : metadata.relationshipTypes.values()) {
+				if (!target.typeMetadata.containsKey(relationshipType)) {
+					processClass(relationshipType, target);
 				}
-			} else if (linkFields.size() > 1) {
-				throw new IllegalArgumentException(String.format("Only one links field is allowed for type '%s'",
-						clazz.getCanonicalName()));
 			}
 		} else if (!clazz.isInterface()) {
 			throw new IllegalArgumentException(String.format(
@@ -196,7 +70,8 @@ public class ConverterConfiguration {
 	 * @return {@link Field} meta field or <code>null</code>
 	 */
 	public Field getMetaField(Class<?> clazz) {
-		return metaFieldMap.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.metaField : null;
 	}
 
 	/**
@@ -205,7 +80,8 @@ public class ConverterConfiguration {
 	 * @return {@link Class} type or <code>null</code> if no field with meta annotaiton is found on given type
 	 */
 	public Class<?> getMetaType(Class<?> clazz) {
-		return metaTypeMap.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.metaType : null;
 	}
 
 	/**
@@ -214,7 +90,8 @@ public class ConverterConfiguration {
 	 * @return {@link Field} or <code>null</code>
 	 */
 	public Field getLinksField(Class<?> clazz) {
-		return linkFieldMap.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.linksField : null;
 	}
 
 	/**
@@ -223,7 +100,7 @@ public class ConverterConfiguration {
 	 * @return {@link Class} resolved type
 	 */
 	public Class<?> getTypeClass(String typeName) {
-		return typeToClassMapping.get(typeName);
+		return registry.typeToClassMapping.get(typeName);
 	}
 
 	/**
@@ -232,7 +109,8 @@ public class ConverterConfiguration {
 	 * @return {@link Field} id field
 	 */
 	public Field getIdField(Class<?> clazz) {
-		return idMap.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.idField : null;
 	}
 
 	/**
@@ -241,7 +119,8 @@ public class ConverterConfiguration {
 	 * @return {@link Field} id field
 	 */
 	public Field getLocalIdField(Class<?> clazz) {
-		return localIdMap.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.localIdField : null;
 	}
 
 	/**
@@ -251,7 +130,8 @@ public class ConverterConfiguration {
 	 * @return handler
 	 */
 	public ResourceIdHandler getIdHandler(Class<?> clazz) {
-		return idHandlerMap.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.idHandler : null;
 	}
 
 	/**
@@ -261,7 +141,8 @@ public class ConverterConfiguration {
 	 * @return handler
 	 */
 	public ResourceIdHandler getLocalIdHandler(Class<?> clazz) {
-		return localIdHandlerMap.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.localIdHandler : null;
 	}
 
 	/**
@@ -271,7 +152,7 @@ public class ConverterConfiguration {
 	 * @return {@link Field} field
 	 */
 	public Field getRelationshipField(Class<?> clazz, String fieldName) {
-		return relationshipFieldMap.get(clazz).get(fieldName);
+		return registry.typeMetadata.get(clazz).relationshipFieldsByName.get(fieldName);
 	}
 
 	/**
@@ -281,7 +162,7 @@ public class ConverterConfiguration {
 	 * @return {@link Class} field type
 	 */
 	public Class<?> getRelationshipType(Class<?> clazz, String fieldName) {
-		return relationshipTypeMap.get(clazz).get(fieldName);
+		return registry.typeMetadata.get(clazz).relationshipTypes.get(fieldName);
 	}
 
 	/**
@@ -294,7 +175,7 @@ public class ConverterConfiguration {
 	 * @return {@link Relationship} anotation or <code>null</code>
 	 */
 	public Relationship getFieldRelationship(Field field) {
-		return fieldRelationshipMap.get(field);
+		return registry.fieldRelationshipMap.get(field);
 	}
 
 	/**
@@ -303,7 +184,8 @@ public class ConverterConfiguration {
 	 * @return list of relationship fields
 	 */
 	public List<Field> getRelationshipFields(Class<?> clazz) {
-		return relationshipMap.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.relationshipFields : null;
 	}
 
 	/**
@@ -312,7 +194,15 @@ public class ConverterConfiguration {
 	 * @return <code>true</code> if class was registed else <code>false</code>
 	 */
 	public boolean isRegisteredType(Class<?> clazz) {
-		return typeAnnotations.containsKey(clazz);
+		return registry.typeMetadata.containsKey(clazz);
+	}
+
+	/**
+	 * Returns all classes registered with this configuration instance, including relationship types.
+	 * @return unmodifiable {@link Collection} of registered classes
+	 */
+	public Collection<Class<?>> getRegisteredTypes() {
+		return registry.typeMetadata.keySet();
 	}
 
 	/**
@@ -321,10 +211,10 @@ public class ConverterConfiguration {
 	 * @return type name or <code>null</code> if type was not registered
 	 */
 	public String getTypeName(Class<?> clazz) {
-		Type type = typeAnnotations.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
 
-		if (type != null) {
-			return type.value();
+		if (metadata != null) {
+			return metadata.type.value();
 		}
 		return null;
 	}
@@ -335,21 +225,34 @@ public class ConverterConfiguration {
 	 * @return type or <code>null</code> if type was not registered
 	 */
 	public Type getType(Class<?> clazz) {
-		return typeAnnotations.get(clazz);
+		TypeMetadata metadata = registry.typeMetadata.get(clazz);
+		return metadata != null ? metadata.type : null;
 	}
 
 	/**
 	 * Registers new type with this configuration instance.
+	 * <p>
+	 *     Type and types of its relationships are published at once, after all of them were processed. In case
+	 *     processing fails, no types are registered.
+	 * </p>
 	 * @param type {@link Class} type to register
 	 * @return <code>true</code> in case type was registered, <code>false</code> in case type was registered already
 	 */
-	public synchronized boolean registerType(Class<?> type) {
-		if (!isRegisteredType(type)) {
-			processClass(type);
-			return true;
+	public boolean registerType(Class<?> type) {
+		if (isRegisteredType(type)) {
+			return false;
 		}
 
-		return false;
+		synchronized (this) {
+			if (isRegisteredType(type)) {
+				return false;
+			}
+
+			Registry updated = new Registry(registry);
+			processClass(type, updated);
+			registry = updated.freeze();
+			return true;
+		}
 	}
 
 	/**
@@ -370,7 +273,7 @@ public class ConverterConfiguration {
 	 * @return {@link Field} field
 	 */
 	public Field getRelationshipMetaField(Class<?> clazz, String relationshipName) {
-		return relationshipMetaFieldMap.get(clazz).get(relationshipName);
+		return registry.typeMetadata.get(clazz).relationshipMetaFields.get(relationshipName);
 	}
 
 	/**
@@ -380,7 +283,7 @@ public class ConverterConfiguration {
 	 * @return {@link Class} meta field type
 	 */
 	public Class<?> getRelationshipMetaType(Class<?> clazz, String relationshipName) {
-		return relationshipMetaTypeMap.get(clazz).get(relationshipName);
+		return registry.typeMetadata.get(clazz).relationshipMetaTypes.get(relationshipName);
 	}
 
 	/**
@@ -390,7 +293,37 @@ public class ConverterConfiguration {
 	 * @return {@link Field} field
 	 */
 	public Field getRelationshipLinksField(Class<?> clazz, String relationshipName) {
-		return relationshipLinksFieldMap.get(clazz).get(relationshipName);
+		return registry.typeMetadata.get(clazz).relationshipLinksFields.get(relationshipName);
 	}
 
+	/**
+	 * Registered types. Registry is populated by the registering thread and made unmodifiable before it is published.
+	 */
+	private static class Registry {
+		private final Map<String, Class<?>> typeToClassMapping;
+		private final Map<Class<?>, TypeMetadata> typeMetadata;
+		private final Map<Field, Relationship> fieldRelationshipMap;
+
+		private Registry() {
+			this(Collections.<String, Class<?>>emptyMap(), Collections.<Class<?>, TypeMetadata>emptyMap(),
+					Collections.<Field, Relationship>emptyMap());
+		}
+
+		private Registry(Registry source) {
+			this(new HashMap<>(source.typeToClassMapping), new HashMap<>(source.typeMetadata),
+					new HashMap<>(source.fieldRelationshipMap));
+		}
+
+		private Registry(Map<String, Class<?>> typeToClassMapping, Map<Class<?>, TypeMetadata> typeMetadata,
+						 Map<Field, Relationship> fieldRelationshipMap) {
+			this.typeToClassMapping = typeToClassMapping;
+			this.typeMetadata = typeMetadata;
+			this.fieldRelationshipMap = fieldRelationshipMap;
+		}
+
+		private Registry freeze() {
+			return new Registry(Collections.unmodifiableMap(typeToClassMapping),
+					Collections.unmodifiableMap(typeMetadata), Collections.unmodifiableMap(fieldRelationshipMap));
+		}
+	}
 }
@@ -0,0 +1,113 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of a single read call, resolved from converter configuration and {@link DeserializationSettings}.
+ *
+ * <p>
+ *     Settings are resolved once when the call starts, so that checks done for every resource do not need to merge
+ *     converter and call configuration. Instances are immutable.
+ * </p>
+ *
+ * @author jbegic
+ */
+class DeserializationContext {
+	private final Set<DeserializationFeature> features;
+	private final boolean resolveRelationships;
+	private final Map<String, Set<String>> fields;
+	private final Integer maxResources;
+
+	DeserializationContext(Set<DeserializationFeature> converterFeatures, DeserializationSettings settings) {
+		Set<DeserializationFeature> resolved = EnumSet.noneOf(DeserializationFeature.class);
+		resolved.addAll(converterFeatures);
+
+		if (settings != null) {
+			resolved.addAll(settings.getEnabledFeatures());
+			resolved.removeAll(settings.getDisabledFeatures());
+		}
+
+		this.features = resolved;
+		this.resolveRelationships = settings == null || settings.resolveRelationships() == null ||
+				settings.resolveRelationships();
+		this.fields = settings != null ? settings.getFields() : Collections.<String, Set<String>>emptyMap();
+		this.maxResources = settings != null ? settings.getMaxResources() : null;
+	}
+
+	/**
+	 * Checks if feature is enabled.
+	 *
+	 * @param feature {@link DeserializationFeature} feature
+	 * @return {@link Boolean}
+	 */
+	boolean isEnabled(DeserializationFeature feature) {
+		return features.contains(feature);
+	}
+
+	/**
+	 * Returns <code>true</code> if relationships should be resolved using registered resolvers.
+	 */
+	boolean shouldResolveRelationships() {
+		return resolveRelationships;
+	}
+
+	/**
+	 * Checks if attribute or relationship of given resource type should be read.
+	 *
+	 * @param type {@link String} resource type
+	 * @param name {@link String} attribute or relationship name
+	 * @return {@link Boolean}
+	 */
+	boolean isFieldIncluded(String type, String name) {
+		Set<String> typeFields = fields.get(type);
+		return typeFields == null || typeFields.contains(name);
+	}
+
+	/**
+	 * Returns attributes that should be read for given resource type.
+	 *
+	 * @param type {@link String} resource type
+	 * @param attributes attributes node
+	 * @return provided node in case all attributes are read, otherwise a new node with included attributes only
+	 */
+	JsonNode project(String type, JsonNode attributes) {
+		Set<String> typeFields = fields.get(type);
+
+		if (typeFields == null || !attributes.isObject()) {
+			return attributes;
+		}
+
+		ObjectNode result = ((ObjectNode) attributes).objectNode();
+		Iterator<Map.Entry<String, JsonNode>> iterator = attributes.fields();
+
+		while (iterator.hasNext()) {
+			Map.Entry<String, JsonNode> field = iterator.next();
+
+			if (typeFields.contains(field.getKey())) {
+				result.set(field.getKey(), field.getValue());
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Ensures that document does not contain more resources than allowed.
+	 *
+	 * @param resourceCount number of primary and included resources
+	 * @throws IllegalArgumentException in case limit is exceeded
+	 */
+	void ensureWithinLimits(int resourceCount) {
+		if (maxResources != null && resourceCount > maxResources) {
+			throw new IllegalArgumentException(String.format("Document contains %d resources, maximum is %d",
+					resourceCount, maxResources));
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.github.jasminb.jsonapi;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Deserialization settings, used to override converter configuration for a single read call.
+ *
+ * @author jbegic
+ */
+public class DeserializationSettings {
+	private Set<DeserializationFeature> enabledFeatures;
+	private Set<DeserializationFeature> disabledFeatures;
+	private Boolean resolveRelationships;
+	private Map<String, Set<String>> fields;
+	private Integer maxResources;
+
+	private DeserializationSettings() {
+		// Hide CTOR
+	}
+
+	/**
+	 * Returns features enabled for the call, in addition to features enabled on the converter.
+	 *
+	 * @return {@link Set} of features
+	 */
+	public Set<DeserializationFeature> getEnabledFeatures() {
+		return enabledFeatures;
+	}
+
+	/**
+	 * Returns features disabled for the call.
+	 *
+	 * @return {@link Set} of features
+	 */
+	public Set<DeserializationFeature> getDisabledFeatures() {
+		return disabledFeatures;
+	}
+
+	/**
+	 * Returns relationship resolving flag.
+	 *
+	 * @return {@link Boolean}
+	 */
+	public Boolean resolveRelationships() {
+		return resolveRelationships;
+	}
+
+	/**
+	 * Returns names of attributes and relationships that are read, by resource type.
+	 *
+	 * @return {@link Map} of field names by resource type, types that are not present are read fully
+	 */
+	public Map<String, Set<String>> getFields() {
+		return fields;
+	}
+
+	/**
+	 * Returns maximum number of resources (primary and included) in a document.
+	 *
+	 * @return {@link Integer} limit or <code>null</code> if not limited
+	 */
+	public Integer getMaxResources() {
+		return maxResources;
+	}
+
+	/**
+	 * Deserialization settings builder.
+	 */
+	public static class Builder {
+		private final Set<DeserializationFeature> enabledFeatures = EnumSet.noneOf(DeserializationFeature.class);
+		private final Set<DeserializationFeature> disabledFeatures = EnumSet.noneOf(DeserializationFeature.class);
+		private final Map<String, Set<String>> fields = new HashMap<>();
+		private Boolean resolveRelationships;
+		private Integer maxResources;
+
+		/**
+		 * Enables deserialization feature.
+		 *
+		 * @param feature {@link DeserializationFeature} feature
+		 * @return {@link Builder}
+		 */
+		public Builder enableFeature(DeserializationFeature feature) {
+			enabledFeatures.add(feature);
+			disabledFeatures.remove(feature);
+			return this;
+		}
+
+		/**
+		 * Disables deserialization feature.
+		 *
+		 * @param feature {@link DeserializationFeature} feature
+		 * @return {@link Builder}
+		 */
+		public Builder disableFeature(DeserializationFeature feature) {
+			disabledFeatures.add(feature);
+			enabledFeatures.remove(feature);
+			return this;
+		}
+
+		/**
+		 * Enable or disable resolving of relationships using registered {@link RelationshipResolver}s.
+		 *
+		 * @param flag {@link Boolean} resolving flag
+		 * @return {@link Builder}
+		 */
+		public Builder resolveRelationships(Boolean flag) {
+			resolveRelationships = flag;
+			return this;
+		}
+
+		/**
+		 * Reads only provided attributes and relationships of given resource type, other members present in the
+		 * document are ignored. Works the same way as JSON API sparse fieldsets.
+		 *
+		 * @param type {@link String} resource type
+		 * @param names {@link String} attribute and relationship names
+		 * @return {@link Builder}
+		 */
+		public Builder fields(String type, String... names) {
+			Set<String> typeFields = fields.get(type);
+
+			if (typeFields == null) {
+				typeFields = new LinkedHashSet<>();
+				fields.put(type, typeFields);
+			}
+
+			typeFields.addAll(Arrays.asList(names));
+			return this;
+		}
+
+		/**
+		 * Sets maximum number of resources (primary and included) in a document, documents that contain more
+		 * resources are rejected before they are read.
+		 *
+		 * @param limit {@link Integer} limit, <code>null</code> to remove the limit
+		 * @return {@link Builder}
+		 */
+		public Builder maxResources(Integer limit) {
+			maxResources = limit;
+			return this;
+		}
+
+		public DeserializationSettings build() {
+			DeserializationSettings result = new DeserializationSettings();
+			result.enabledFeatures = Collections.unmodifiableSet(EnumSet.copyOf(enabledFeatures));
+			result.disabledFeatures = Collections.unmodifiableSet(EnumSet.copyOf(disabledFeatures));
+			result.resolveRelationships = resolveRelationships;
+
+			Map<String, Set<String>> resultFields = new HashMap<>();
+			for (Map.Entry<String, Set<String>> entry : fields.entrySet()) {
+				resultFields.put(entry.getKey(), Collections.unmodifiableSet(new LinkedHashSet<>(entry.getValue())));
+			}
+			result.fields = Collections.unmodifiableMap(resultFields);
+			result.maxResources = maxResources;
+			return result;
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package com.github.jasminb.jsonapi;
+
+/**
+ * Receives documents read from JSON Lines input, see
+ * {@link ResourceConverter#readDocumentLines(java.io.InputStream, Class, DocumentLineHandler)}.
+ * <p>
+ *     Handler is invoked for every non-empty line, in input order, on the thread that reads the input.
+ * </p>
+ *
+ * @param <T> resource type
+ * @author jbegic
+ */
+public interface DocumentLineHandler<T> {
+
+	/**
+	 * Handles document read from a line.
+	 * @param line line number, starting with 1
+	 * @param document {@link JSONAPIDocument} document
+	 */
+	void onDocument(long line, JSONAPIDocument<T> document);
+
+	/**
+	 * Handles line that could not be read, reading continues with the following line.
+	 * @param line line number, starting with 1
+	 * @param error {@link RuntimeException} parse or conversion error
+	 */
+	void onFailure(long line, RuntimeException error);
+}
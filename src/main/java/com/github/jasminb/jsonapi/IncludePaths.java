@@ -0,0 +1,157 @@
+package com.github.jasminb.jsonapi;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiled representation of JSON API <code>include</code> paths (eg. <code>author,comments.author</code>).
+ *
+ * <p>
+ *     Dotted include paths are compiled into a prefix tree. Each node of the tree represents a relationship on the
+ *     path, which allows serializer to check if a relationship should be included by doing a single map lookup on the
+ *     node that corresponds to the current depth.
+ * </p>
+ * <p>
+ *     Compiled instances are immutable and are cached by their include string, so compiling the same
+ *     <code>include</code> query parameter value repeatedly is cheap.
+ * </p>
+ *
+ * @author jbegic
+ */
+public final class IncludePaths {
+	private static final int MAX_CACHE_SIZE = 512;
+	private static final ConcurrentMap<String, IncludePaths> CACHE = new ConcurrentHashMap<>();
+
+	private final Map<String, IncludePaths> children;
+	private final int index;
+
+	private IncludePaths(Map<String, IncludePaths> children, int index) {
+		this.children = children;
+		this.index = index;
+	}
+
+	/**
+	 * Compiles comma separated list of dotted include paths into a prefix tree.
+	 *
+	 * @param include {@link String} include paths, eg. <code>author,comments.author</code>
+	 * @return {@link IncludePaths} compiled paths
+	 */
+	public static IncludePaths compile(String include) {
+		if (include == null) {
+			throw new IllegalArgumentException("Include paths must not be null");
+		}
+
+		IncludePaths result = CACHE.get(include);
+
+		if (result == null) {
+			result = new Compiler().compile(include);
+
+			if (CACHE.size() >= MAX_CACHE_SIZE) {
+				CACHE.clear();
+			}
+
+			IncludePaths existing = CACHE.putIfAbsent(include, result);
+			if (existing != null) {
+				result = existing;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns node representing given relationship at this level of the tree.
+	 *
+	 * @param relationshipName {@link String} relationship name
+	 * @return {@link IncludePaths} child node or <code>null</code> if relationship is not included
+	 */
+	public IncludePaths get(String relationshipName) {
+		return children.get(relationshipName);
+	}
+
+	/**
+	 * Checks if relationship with given name is included at this level of the tree.
+	 *
+	 * @param relationshipName {@link String} relationship name
+	 * @return {@link Boolean}
+	 */
+	public boolean contains(String relationshipName) {
+		return children.containsKey(relationshipName);
+	}
+
+	/**
+	 * Returns <code>true</code> if there are no relationships included bellow this node.
+	 *
+	 * @return {@link Boolean}
+	 */
+	public boolean isEmpty() {
+		return children.isEmpty();
+	}
+
+	/**
+	 * Returns position of this node in the tree (pre-order). Index is unique within single compiled tree.
+	 *
+	 * @return {@link Integer} node index
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * Builds prefix tree from mutable nodes and freezes it.
+	 */
+	private static class Compiler {
+		private int nextIndex;
+
+		IncludePaths compile(String include) {
+			MutableNode root = new MutableNode();
+
+			if (include.trim().isEmpty()) {
+				return freeze(root);
+			}
+
+			for (String path : include.split(",")) {
+				MutableNode current = root;
+
+				for (String segment : path.split("\\.")) {
+					String name = segment.trim();
+
+					if (name.isEmpty()) {
+						throw new IllegalArgumentException("Invalid include path: '" + path + "'");
+					}
+
+					MutableNode child = current.children.get(name);
+					if (child == null) {
+						child = new MutableNode();
+						current.children.put(name, child);
+					}
+					current = child;
+				}
+			}
+
+			return freeze(root);
+		}
+
+		private IncludePaths freeze(MutableNode node) {
+			int index = nextIndex++;
+
+			if (node.children.isEmpty()) {
+				return new IncludePaths(Collections.<String, IncludePaths>emptyMap(), index);
+			}
+
+			Map<String, IncludePaths> children = new HashMap<>();
+			for (Map.Entry<String, MutableNode> entry : node.children.entrySet()) {
+				children.put(entry.getKey(), freeze(entry.getValue()));
+			}
+
+			return new IncludePaths(Collections.unmodifiableMap(children), index);
+		}
+	}
+
+	private static class MutableNode {
+		private final Map<String, MutableNode> children = new HashMap<>();
+	}
+}
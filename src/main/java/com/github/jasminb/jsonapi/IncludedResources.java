@@ -0,0 +1,273 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Resources collected for the <code>included</code> section of a document, de-duplicated by resource identifier.
+ *
+ * <p>
+ *     Resources are kept in memory until the spill threshold is reached. After that, resources are serialized and
+ *     appended to a temporary file, only their identifiers and positions in the file are kept in memory. When the
+ *     <code>included</code> section is written, spilled fragments are transferred from the file to the output using
+ *     {@link FileChannel#transferTo(long, long, WritableByteChannel)}.
+ * </p>
+ * <p>
+ *     Resources are written in insertion order, or ordered by their identifiers if sorting is enabled.
+ * </p>
+ * <p>
+ *     Temporary file is deleted when the instance is closed.
+ * </p>
+ *
+ * @author jbegic
+ */
+class IncludedResources implements Closeable {
+	private static final byte SEPARATOR = ',';
+
+	private final Map<String, JsonNode> resources = new LinkedHashMap<>();
+	private final Map<String, Fragment> spilled = new LinkedHashMap<>();
+	private final ObjectMapper mapper;
+	private final Integer spillThreshold;
+	private final File spillDirectory;
+	private final boolean sorted;
+
+	private File spillFile;
+	private FileChannel spillChannel;
+	private long spillPosition;
+
+	/**
+	 * Creates new instance that keeps all resources in memory.
+	 *
+	 * @param mapper {@link ObjectMapper} mapper
+	 */
+	IncludedResources(ObjectMapper mapper) {
+		this(mapper, null, null, false);
+	}
+
+	/**
+	 * Creates new instance.
+	 *
+	 * @param mapper {@link ObjectMapper} mapper used to serialize spilled resources
+	 * @param spillThreshold number of resources kept in memory, <code>null</code> disables spilling
+	 * @param spillDirectory directory for the temporary file, <code>null</code> for default temporary directory
+	 * @param sorted <code>true</code> if resources should be ordered by their identifiers
+	 */
+	IncludedResources(ObjectMapper mapper, Integer spillThreshold, File spillDirectory, boolean sorted) {
+		this.mapper = mapper;
+		this.spillThreshold = spillThreshold;
+		this.spillDirectory = spillDirectory;
+		this.sorted = sorted;
+	}
+
+	boolean contains(String identifier) {
+		return resources.containsKey(identifier) || spilled.containsKey(identifier);
+	}
+
+	int size() {
+		return resources.size() + spilled.size();
+	}
+
+	boolean isEmpty() {
+		return resources.isEmpty() && spilled.isEmpty();
+	}
+
+	/**
+	 * Adds resource, replacing the resource with the same identifier if present.
+	 *
+	 * @param identifier resource identifier
+	 * @param resource serialized resource
+	 * @throws IOException in case resource cannot be written to temporary file
+	 */
+	void put(String identifier, JsonNode resource) throws IOException {
+		if (resources.containsKey(identifier) || spillThreshold == null || resources.size() < spillThreshold) {
+			resources.put(identifier, resource);
+		} else {
+			spill(identifier, resource);
+		}
+	}
+
+	/**
+	 * Removes in-memory resource with given identifier.
+	 *
+	 * @param identifier resource identifier
+	 */
+	void remove(String identifier) {
+		resources.remove(identifier);
+	}
+
+	/**
+	 * Returns resources kept in memory.
+	 *
+	 * @return resources
+	 * @throws IllegalStateException in case some of the resources were spilled to disk
+	 */
+	Collection<JsonNode> values() {
+		if (!spilled.isEmpty()) {
+			throw new IllegalStateException("Included resources were spilled to disk, use writeTo() instead");
+		}
+		return sorted ? new TreeMap<>(resources).values() : resources.values();
+	}
+
+	/**
+	 * Writes resources as JSON array.
+	 * <p>
+	 *     In-memory resources are written using provided generator, spilled fragments are transferred directly to the
+	 *     output stream that generator writes to.
+	 * </p>
+	 *
+	 * @param generator {@link JsonGenerator} generator
+	 * @param outputStream {@link OutputStream} stream generator is writing to
+	 * @throws IOException
+	 */
+	void writeTo(JsonGenerator generator, OutputStream outputStream) throws IOException {
+		generator.writeStartArray();
+
+		if (sorted && !spilled.isEmpty()) {
+			writeSorted(generator, outputStream);
+			generator.writeEndArray();
+			return;
+		}
+
+		for (JsonNode resource : sorted ? new TreeMap<>(resources).values() : resources.values()) {
+			mapper.writeTree(generator, resource);
+		}
+
+		if (!spilled.isEmpty()) {
+			generator.flush();
+
+			WritableByteChannel target = createTarget(outputStream);
+
+			// Every fragment starts with a separator, first one is skipped if there are no in-memory resources
+			long start = -1;
+			long end = -1;
+			boolean skipSeparator = resources.isEmpty();
+
+			for (Fragment fragment : spilled.values()) {
+				if (fragment.position != end) {
+					if (start >= 0) {
+						transfer(start, end - start, target);
+					}
+					start = fragment.position;
+				}
+				end = fragment.position + fragment.length;
+
+				if (skipSeparator) {
+					start++;
+					skipSeparator = false;
+				}
+			}
+			transfer(start, end - start, target);
+
+			if (!(target instanceof FileChannel)) {
+				outputStream.flush();
+			}
+		}
+
+		generator.writeEndArray();
+	}
+
+	/**
+	 * Writes in-memory and spilled resources ordered by their identifiers, directly to the output stream.
+	 */
+	private void writeSorted(JsonGenerator generator, OutputStream outputStream) throws IOException {
+		generator.flush();
+
+		WritableByteChannel target = createTarget(outputStream);
+		Set<String> identifiers = new TreeSet<>(resources.keySet());
+		identifiers.addAll(spilled.keySet());
+
+		boolean first = true;
+		for (String identifier : identifiers) {
+			JsonNode resource = resources.get(identifier);
+
+			if (resource != null) {
+				if (!first) {
+					outputStream.write(SEPARATOR);
+				}
+				outputStream.write(mapper.writeValueAsBytes(resource));
+			} else {
+				Fragment fragment = spilled.get(identifier);
+				int skip = first ? 1 : 0;
+				transfer(fragment.position + skip, fragment.length - skip, target);
+			}
+			first = false;
+		}
+
+		outputStream.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (spillChannel != null) {
+				spillChannel.close();
+			}
+		} finally {
+			if (spillFile != null && !spillFile.delete()) {
+				spillFile.deleteOnExit();
+			}
+		}
+	}
+
+	private void spill(String identifier, JsonNode resource) throws IOException {
+		if (spillChannel == null) {
+			spillFile = File.createTempFile("jsonapi-included", ".tmp", spillDirectory);
+			spillChannel = new RandomAccessFile(spillFile, "rw").getChannel();
+		}
+
+		byte[] data = mapper.writeValueAsBytes(resource);
+		ByteBuffer buffer = ByteBuffer.allocate(data.length + 1);
+		buffer.put(SEPARATOR).put(data).flip();
+
+		long position = spillPosition;
+		while (buffer.hasRemaining()) {
+			spillPosition += spillChannel.write(buffer, spillPosition);
+		}
+
+		spilled.put(identifier, new Fragment(position, data.length + 1));
+	}
+
+	private static WritableByteChannel createTarget(OutputStream outputStream) {
+		return outputStream instanceof FileOutputStream ? ((FileOutputStream) outputStream).getChannel() :
+				Channels.newChannel(outputStream);
+	}
+
+	private void transfer(long position, long count, WritableByteChannel target) throws IOException {
+		while (count > 0) {
+			long transferred = spillChannel.transferTo(position, count, target);
+			position += transferred;
+			count -= transferred;
+		}
+	}
+
+	/**
+	 * Location of a spilled resource in the temporary file.
+	 */
+	private static class Fragment {
+		final long position;
+		final long length;
+
+		Fragment(long position, long length) {
+			this.position = position;
+			this.length = length;
+		}
+	}
+}
@@ -24,4 +24,13 @@ public interface JSONAPISpecConstants {
 	String FIRST = "first";
 	String LAST = "last";
 	String JSON_API = "jsonapi";
+	String ATOMIC_OPERATIONS = "atomic:operations";
+	String ATOMIC_RESULTS = "atomic:results";
+	String OP = "op";
+	String REF = "ref";
+	String RELATIONSHIP = "relationship";
+
+	String MEDIA_TYPE = "application/vnd.api+json";
+	String SMILE_MEDIA_TYPE = "application/x-jackson-smile";
+	String CBOR_MEDIA_TYPE = "application/cbor";
 }
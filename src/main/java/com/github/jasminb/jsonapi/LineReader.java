@@ -0,0 +1,158 @@
+package com.github.jasminb.jsonapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits input into lines, without decoding or copying them.
+ *
+ * <p>
+ *     Lines are terminated by <code>\n</code>, optionally preceded by <code>\r</code>. Input is read into a single
+ *     buffer and lines are returned as ranges of that buffer, in batches. Lines of a batch stay valid until the next
+ *     batch is read, after which their bytes are discarded and the buffer space is reused. Buffer grows only in case
+ *     a batch does not fit into it. Blank lines are skipped, but counted for line numbers.
+ * </p>
+ *
+ * @author jbegic
+ */
+class LineReader {
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final InputStream inputStream;
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private int retained;
+	private int position;
+	private int limit;
+	private boolean endOfInput;
+	private long lineNumber;
+
+	private int[] starts = new int[0];
+	private int[] lengths = new int[0];
+	private long[] lineNumbers = new long[0];
+	private int count;
+
+	LineReader(InputStream inputStream) {
+		this.inputStream = inputStream;
+	}
+
+	/**
+	 * Reads next batch of non-blank lines, discarding lines of the previous batch.
+	 *
+	 * @param max maximum number of lines in the batch
+	 * @return number of lines read, <code>0</code> in case end of input was reached
+	 * @throws IOException
+	 */
+	int next(int max) throws IOException {
+		if (starts.length < max) {
+			starts = new int[max];
+			lengths = new int[max];
+			lineNumbers = new long[max];
+		}
+
+		count = 0;
+		retained = position;
+		int scanned = position;
+
+		while (count < max) {
+			int end = scanned;
+			while (end < limit && buffer[end] != '\n') {
+				end++;
+			}
+
+			if (end == limit) {
+				if (!endOfInput) {
+					int shift = fill();
+					scanned = end - shift;
+					continue;
+				}
+
+				if (position == limit) {
+					break;
+				}
+			}
+
+			int start = position;
+			int length = end - start;
+			position = end < limit ? end + 1 : end;
+			scanned = position;
+			lineNumber++;
+
+			if (length > 0 && buffer[start + length - 1] == '\r') {
+				length--;
+			}
+
+			if (!isBlank(start, length)) {
+				starts[count] = start;
+				lengths[count] = length;
+				lineNumbers[count] = lineNumber;
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Returns buffer holding lines of the current batch, it is overwritten once the next batch is read.
+	 */
+	byte[] getBuffer() {
+		return buffer;
+	}
+
+	int getStart(int line) {
+		return starts[line];
+	}
+
+	int getLength(int line) {
+		return lengths[line];
+	}
+
+	long getLineNumber(int line) {
+		return lineNumbers[line];
+	}
+
+	/**
+	 * Reads more input, after moving lines of the current batch to the beginning of the buffer (or growing the
+	 * buffer, in case they fill it).
+	 *
+	 * @return number of bytes lines were moved by
+	 * @throws IOException
+	 */
+	private int fill() throws IOException {
+		int shift = retained;
+
+		if (shift > 0) {
+			System.arraycopy(buffer, shift, buffer, 0, limit - shift);
+			retained = 0;
+			position -= shift;
+			limit -= shift;
+
+			for (int i = 0; i < count; i++) {
+				starts[i] -= shift;
+			}
+		}
+
+		if (limit == buffer.length) {
+			buffer = Arrays.copyOf(buffer, buffer.length * 2);
+		}
+
+		int read = inputStream.read(buffer, limit, buffer.length - limit);
+		if (read < 0) {
+			endOfInput = true;
+		} else {
+			limit += read;
+		}
+
+		return shift;
+	}
+
+	private boolean isBlank(int start, int length) {
+		for (int i = start; i < start + length; i++) {
+			if (buffer[i] != ' ' && buffer[i] != '\t' && buffer[i] != '\r') {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,116 @@
+package com.github.jasminb.jsonapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input stream that reads a file trough read-only memory mapped segments.
+ *
+ * <p>
+ *     File is mapped one segment at a time, in order, so files larger than a single mapping (2GB) can be read and
+ *     only the segment being read needs to be mapped. Reading copies bytes from mapped memory, without system calls
+ *     or intermediate buffers. Pages are loaded by the operating system on access, sequential access allows it to
+ *     read ahead.
+ * </p>
+ * <p>
+ *     Mapped segments are released when they are garbage collected, mapping cannot be released explicitly.
+ * </p>
+ *
+ * @author jbegic
+ */
+class MappedFileInputStream extends InputStream {
+	static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+	private final FileChannel channel;
+	private final long size;
+	private final long segmentSize;
+
+	private long position;
+	private MappedByteBuffer segment;
+
+	/**
+	 * Creates new stream.
+	 *
+	 * @param path {@link Path} file to read
+	 * @param segmentSize size of mapped segments, in bytes
+	 * @throws IOException in case file cannot be opened
+	 */
+	MappedFileInputStream(Path path, long segmentSize) throws IOException {
+		if (segmentSize <= 0 || segmentSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Segment size must be positive and smaller than 2GB");
+		}
+
+		this.channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.size = channel.size();
+		this.segmentSize = segmentSize;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return nextSegment() ? segment.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (length == 0) {
+			return 0;
+		}
+
+		if (!nextSegment()) {
+			return -1;
+		}
+
+		int count = Math.min(length, segment.remaining());
+		segment.get(buffer, offset, count);
+		return count;
+	}
+
+	@Override
+	public long skip(long count) throws IOException {
+		long skipped = 0;
+
+		while (skipped < count && nextSegment()) {
+			int step = (int) Math.min(count - skipped, segment.remaining());
+			segment.position(segment.position() + step);
+			skipped += step;
+		}
+
+		return skipped;
+	}
+
+	@Override
+	public int available() {
+		return segment != null ? segment.remaining() : 0;
+	}
+
+	@Override
+	public void close() throws IOException {
+		segment = null;
+		channel.close();
+	}
+
+	/**
+	 * Maps next segment once the current one is read.
+	 *
+	 * @return <code>false</code> in case whole file was read
+	 */
+	private boolean nextSegment() throws IOException {
+		if (segment != null && segment.hasRemaining()) {
+			return true;
+		}
+
+		if (position >= size) {
+			return false;
+		}
+
+		long length = Math.min(segmentSize, size - position);
+		segment = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+		position += length;
+
+		return true;
+	}
+}
@@ -0,0 +1,267 @@
+package com.github.jasminb.jsonapi;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Iterator over resources of a paginated collection.
+ *
+ * <p>
+ *     Pages are fetched by following <code>links.next</code> of each page, using provided
+ *     {@link RelationshipResolver}. Fetching and parsing of pages is done in the background: while resources of one
+ *     page are consumed, up to <code>prefetchDepth</code> following pages are fetched, so that network latency
+ *     overlaps with processing.
+ * </p>
+ * <p>
+ *     Every page is fetched by a separate task submitted to provided executor. Once <code>prefetchDepth</code> pages
+ *     are waiting to be consumed no further task is submitted until the iterator advances, so executor threads are
+ *     never blocked waiting for the consumer and an iterator that is abandoned before reaching the last page does not
+ *     hold any thread. Closing such iterator releases fetched pages right away. Errors that occur while fetching or
+ *     parsing pages are re-thrown by {@link #hasNext()}.
+ * </p>
+ * <p>
+ *     Iterator is not thread-safe, it should be consumed by a single thread.
+ * </p>
+ *
+ * @param <T> resource type
+ * @author jbegic
+ */
+public class PageIterator<T> implements Iterator<T>, Closeable {
+	private final BlockingQueue<Page<T>> pages = new LinkedBlockingQueue<>();
+	private final ResourceConverter converter;
+	private final RelationshipResolver resolver;
+	private final Class<T> clazz;
+	private final int prefetchDepth;
+	private final Executor executor;
+
+	// Fetching state, guarded by the queue
+	private String nextUrl;
+	private boolean fetching;
+	private boolean closed;
+
+	private JSONAPIDocument<List<T>> currentPage;
+	private Iterator<T> current = Collections.<T>emptyList().iterator();
+	private boolean finished;
+
+	/**
+	 * Creates new iterator and starts fetching the first page.
+	 *
+	 * @param converter {@link ResourceConverter} converter used to parse pages
+	 * @param url {@link String} URL of the first page
+	 * @param clazz {@link Class} resource type
+	 * @param resolver {@link RelationshipResolver} used to fetch pages
+	 * @param prefetchDepth number of pages that are fetched ahead of the page being consumed
+	 * @param executor {@link Executor} used to fetch pages
+	 */
+	PageIterator(ResourceConverter converter, String url, Class<T> clazz, RelationshipResolver resolver,
+				 int prefetchDepth, Executor executor) {
+		if (prefetchDepth < 1) {
+			throw new IllegalArgumentException("Prefetch depth must be at least 1");
+		}
+
+		this.converter = converter;
+		this.resolver = resolver;
+		this.clazz = clazz;
+		this.prefetchDepth = prefetchDepth;
+		this.executor = executor;
+
+		synchronized (pages) {
+			nextUrl = url;
+			scheduleFetch();
+		}
+	}
+
+	/**
+	 * Returns executor shared by iterators that are created without one. Threads are created on demand, reused by
+	 * following fetches and stopped once they are idle for a minute.
+	 *
+	 * @return {@link Executor}
+	 */
+	static Executor getDefaultExecutor() {
+		return DefaultExecutorHolder.EXECUTOR;
+	}
+
+	@Override
+	public boolean hasNext() {
+		while (!current.hasNext()) {
+			if (finished || isClosed()) {
+				return false;
+			}
+
+			Page<T> page;
+			try {
+				page = pages.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+
+			synchronized (pages) {
+				scheduleFetch();
+			}
+
+			if (page.error != null) {
+				finished = true;
+
+				if (page.error instanceof RuntimeException) {
+					throw (RuntimeException) page.error;
+				}
+				if (page.error instanceof Error) {
+					throw (Error) page.error;
+				}
+				throw new RuntimeException(page.error);
+			}
+
+			if (page.document == null) {
+				finished = true;
+			} else {
+				currentPage = page.document;
+				current = page.document.get() != null ? page.document.get().iterator() :
+						Collections.<T>emptyList().iterator();
+			}
+		}
+
+		return true;
+	}
+
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		return current.next();
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Returns page that resources are currently read from, eg. for accessing its meta.
+	 *
+	 * @return {@link JSONAPIDocument} page or <code>null</code> if no page was consumed yet
+	 */
+	public JSONAPIDocument<List<T>> getCurrentPage() {
+		return currentPage;
+	}
+
+	/**
+	 * Stops background fetching. Fetched pages, and the page that is being fetched, are discarded.
+	 */
+	@Override
+	public void close() {
+		synchronized (pages) {
+			closed = true;
+			nextUrl = null;
+			pages.clear();
+		}
+	}
+
+	private boolean isClosed() {
+		synchronized (pages) {
+			return closed;
+		}
+	}
+
+	/**
+	 * Submits task fetching the next page, unless one is already running, there is no next page or enough pages are
+	 * waiting to be consumed. Must be called while holding the queue lock.
+	 */
+	private void scheduleFetch() {
+		if (fetching || closed || nextUrl == null || pages.size() >= prefetchDepth) {
+			return;
+		}
+
+		final String url = nextUrl;
+		nextUrl = null;
+		fetching = true;
+
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					fetchPage(url);
+				}
+			});
+		} catch (RuntimeException e) {
+			fetching = false;
+			pages.add(new Page<T>(null, e));
+		}
+	}
+
+	private void fetchPage(String url) {
+		Page<T> page;
+		String next = null;
+
+		try {
+			JSONAPIDocument<List<T>> document = converter.readDocumentCollection(resolver.resolve(url), clazz);
+
+			Links links = document.getLinks();
+			next = links != null && links.getNext() != null ? links.getNext().getHref() : null;
+			page = new Page<>(document, null);
+		} catch (Throwable e) {
+			page = new Page<>(null, e);
+		}
+
+		synchronized (pages) {
+			fetching = false;
+
+			if (closed) {
+				return;
+			}
+
+			pages.add(page);
+
+			if (page.document != null) {
+				if (next != null) {
+					nextUrl = next;
+					scheduleFetch();
+				} else {
+					pages.add(new Page<T>(null, null));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fetched page, last page is followed by a page that has neither document nor error.
+	 */
+	private static class Page<T> {
+		final JSONAPIDocument<List<T>> document;
+		final Throwable error;
+
+		Page(JSONAPIDocument<List<T>> document, Throwable error) {
+			this.document = document;
+			this.error = error;
+		}
+	}
+
+	/**
+	 * Holder of the shared executor, created on first use.
+	 */
+	private static class DefaultExecutorHolder {
+		private static final Executor EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), new ThreadFactory() {
+					private final AtomicInteger count = new AtomicInteger();
+
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread thread = new Thread(runnable, "jsonapi-page-prefetch-" + count.incrementAndGet());
+						thread.setDaemon(true);
+						return thread;
+					}
+				});
+	}
+}
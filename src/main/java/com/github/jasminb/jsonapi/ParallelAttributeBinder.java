@@ -0,0 +1,143 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jasminb.jsonapi.exceptions.UnregisteredTypeException;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static com.github.jasminb.jsonapi.JSONAPISpecConstants.*;
+
+/**
+ * Binds attributes of primary and included resources of large documents concurrently.
+ *
+ * <p>
+ *     Binding attributes of a resource does not depend on other resources, so attributes of all resources in a
+ *     document are bound upfront, split between executor threads. Resulting instances are then used by the converter
+ *     when reading the document sequentially, which handles ids, meta, links and relationships.
+ * </p>
+ *
+ * @author jbegic
+ */
+class ParallelAttributeBinder {
+	private final ResourceConverter converter;
+	private final ObjectMapper mapper;
+	private final ConverterConfiguration configuration;
+	private final int threshold;
+	private final Executor executor;
+
+	/**
+	 * Creates new binder.
+	 *
+	 * @param converter {@link ResourceConverter} converter used to resolve resource types
+	 * @param mapper {@link ObjectMapper} mapper used to bind attributes
+	 * @param configuration {@link ConverterConfiguration} converter configuration
+	 * @param threshold minimum number of resources in a document for parallel binding to be used
+	 * @param executor {@link Executor} used to bind attributes
+	 */
+	ParallelAttributeBinder(ResourceConverter converter, ObjectMapper mapper, ConverterConfiguration configuration,
+							int threshold, Executor executor) {
+		if (threshold < 1) {
+			throw new IllegalArgumentException("Threshold must be positive");
+		}
+
+		this.converter = converter;
+		this.mapper = mapper;
+		this.configuration = configuration;
+		this.threshold = threshold;
+		this.executor = executor;
+	}
+
+	/**
+	 * Binds attributes of primary and included resources in parallel, in case document is large enough.
+	 *
+	 * @param rootNode document root
+	 * @param clazz primary resource type
+	 * @param context {@link DeserializationContext} settings of the read call
+	 * @return bound resources by their nodes or <code>null</code> in case attributes were not bound
+	 * @throws Exception exception thrown while binding attributes, same as when binding them sequentially
+	 */
+	Map<JsonNode, Object> bind(JsonNode rootNode, Class<?> clazz, DeserializationContext context) throws Exception {
+		final List<JsonNode> nodes = new ArrayList<>();
+		final List<JsonNode> attributes = new ArrayList<>();
+		final List<Class<?>> types = new ArrayList<>();
+
+		JsonNode dataNode = rootNode.get(DATA);
+		if (dataNode != null && dataNode.isArray()) {
+			for (JsonNode element : dataNode) {
+				addBindableNode(element, clazz, context, nodes, attributes, types);
+			}
+		} else if (dataNode != null) {
+			addBindableNode(dataNode, clazz, context, nodes, attributes, types);
+		}
+
+		JsonNode includedNode = rootNode.get(INCLUDED);
+		if (includedNode != null && includedNode.isArray()) {
+			for (JsonNode element : includedNode) {
+				addBindableNode(element, null, context, nodes, attributes, types);
+			}
+		}
+
+		if (nodes.isEmpty() || nodes.size() < threshold) {
+			return null;
+		}
+
+		final Object[] results = new Object[nodes.size()];
+
+		ParallelTasks.runPartitioned(nodes.size(), new ParallelTasks.RangeTask() {
+			@Override
+			public void run(int from, int to) throws Exception {
+				for (int i = from; i < to; i++) {
+					results[i] = mapper.treeToValue(attributes.get(i), types.get(i));
+				}
+			}
+		}, executor);
+
+		Map<JsonNode, Object> result = new IdentityHashMap<>(nodes.size());
+		for (int i = 0; i < results.length; i++) {
+			if (results[i] != null) {
+				result.put(nodes.get(i), results[i]);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Adds resource node to the list of nodes to bind in parallel, in case its attributes can be bound.
+	 * @param node resource node
+	 * @param clazz requested type for primary resources, <code>null</code> for included resources
+	 * @param context {@link DeserializationContext} settings of the read call
+	 * @param nodes nodes to bind
+	 * @param attributes attributes of nodes to bind
+	 * @param types types of nodes to bind
+	 */
+	private void addBindableNode(JsonNode node, Class<?> clazz, DeserializationContext context, List<JsonNode> nodes,
+								 List<JsonNode> attributes, List<Class<?>> types) {
+		if (!node.isObject() || !node.hasNonNull(TYPE) || !node.has(ATTRIBUTES)) {
+			return;
+		}
+
+		Class<?> type;
+		if (clazz != null) {
+			try {
+				type = converter.getActualType(node, clazz);
+			} catch (UnregisteredTypeException e) {
+				// Reported when the node is read
+				return;
+			}
+		} else {
+			type = configuration.getTypeClass(node.get(TYPE).asText());
+		}
+
+		if (type != null && !type.isInterface()) {
+			nodes.add(node);
+			attributes.add(context.project(node.get(TYPE).asText(), node.get(ATTRIBUTES)));
+			types.add(type);
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes primary resources of large collection documents, encoding them in parallel batches.
+ *
+ * <p>
+ *     Encoded resource does not depend on serialization state, so batches are encoded using a separate context per
+ *     partition. Resources are then written in order and their relationships are traversed using the shared
+ *     context, same as for cached fragments, which keeps <code>included</code> section identical to sequential
+ *     serialization.
+ * </p>
+ *
+ * @author jbegic
+ */
+class ParallelResourceWriter {
+	private final ResourceConverter converter;
+	private final ObjectMapper mapper;
+	private final boolean textFormat;
+	private final int batchSize;
+	private final Executor executor;
+
+	/**
+	 * Creates new writer.
+	 *
+	 * @param converter {@link ResourceConverter} converter used to serialize resources
+	 * @param mapper {@link ObjectMapper} mapper used to write resources
+	 * @param textFormat <code>true</code> in case mapper writes JSON, encoded resources are embedded as raw values
+	 * @param batchSize minimum number of resources in a collection for parallel serialization to be used, also the
+	 *                  number of resources encoded at once
+	 * @param executor {@link Executor} used to encode resources
+	 */
+	ParallelResourceWriter(ResourceConverter converter, ObjectMapper mapper, boolean textFormat, int batchSize,
+						   Executor executor) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Threshold must be positive");
+		}
+
+		this.converter = converter;
+		this.mapper = mapper;
+		this.textFormat = textFormat;
+		this.batchSize = batchSize;
+		this.executor = executor;
+	}
+
+	/**
+	 * Writes primary resources, followed by serialization of their included resources. Collections below threshold
+	 * are serialized sequentially.
+	 *
+	 * @param resources {@link Iterator} primary resources
+	 * @param generator {@link JsonGenerator} document generator
+	 * @param context {@link SerializationContext} serialization state
+	 * @throws Exception exception thrown while serializing resources
+	 */
+	void write(Iterator<?> resources, JsonGenerator generator, SerializationContext context) throws Exception {
+		List<Object> batch = nextBatch(resources);
+
+		if (batch.size() < batchSize) {
+			for (Object resource : batch) {
+				converter.writeData(resource, generator, context);
+			}
+			return;
+		}
+
+		while (!batch.isEmpty()) {
+			JsonNode[] encoded = encodeBatch(batch, context.getSettings());
+
+			for (int i = 0; i < batch.size(); i++) {
+				Object resource = batch.get(i);
+				mapper.writeTree(generator, encoded[i]);
+
+				context.visit(resource);
+				converter.includeRelationships(resource, context.getIncludePaths(), context);
+				context.release(resource, converter.getIdentifier(resource));
+				converter.serializeIncluded(context);
+			}
+
+			batch = nextBatch(resources);
+		}
+	}
+
+	private List<Object> nextBatch(Iterator<?> resources) {
+		List<Object> batch = new ArrayList<>(batchSize);
+
+		while (batch.size() < batchSize && resources.hasNext()) {
+			batch.add(resources.next());
+		}
+
+		return batch;
+	}
+
+	/**
+	 * Encodes resources concurrently, one partition per available processor.
+	 * <p>
+	 *     For JSON, resources are encoded to text and returned as raw value nodes. Binary formats cannot embed encoded
+	 *     values, resource nodes are returned instead.
+	 * </p>
+	 * @param batch resources to encode
+	 * @param settings {@link SerializationSettings} settings, can be <code>null</code>
+	 * @return encoded resources, in batch order
+	 * @throws Exception exception thrown by the first resource that failed to encode
+	 */
+	private JsonNode[] encodeBatch(final List<Object> batch, final SerializationSettings settings) throws Exception {
+		final JsonNode[] result = new JsonNode[batch.size()];
+
+		ParallelTasks.runPartitioned(batch.size(), new ParallelTasks.RangeTask() {
+			@Override
+			public void run(int from, int to) throws Exception {
+				// Relationships queued by this context are discarded, they are traversed when writing
+				SerializationContext partitionContext = new SerializationContext(new IncludedResources(mapper),
+						settings);
+
+				for (int i = from; i < to; i++) {
+					JsonNode dataNode = converter.getDataNode(batch.get(i), partitionContext.getIncludePaths(),
+							partitionContext);
+
+					result[i] = textFormat ? mapper.getNodeFactory().rawValueNode(
+							new RawValue(mapper.writeValueAsString(dataNode))) : dataNode;
+				}
+			}
+		}, executor);
+
+		return result;
+	}
+}
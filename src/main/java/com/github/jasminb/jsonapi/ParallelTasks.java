@@ -0,0 +1,119 @@
+package com.github.jasminb.jsonapi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Runs work concurrently using a provided executor and waits for its completion.
+ *
+ * @author jbegic
+ */
+final class ParallelTasks {
+
+	private ParallelTasks() {
+		// Private CTOR
+	}
+
+	/**
+	 * Task processing a range of items.
+	 */
+	interface RangeTask {
+
+		/**
+		 * Processes items in provided range.
+		 * @param from first item, inclusive
+		 * @param to last item, exclusive
+		 * @throws Exception in case processing fails
+		 */
+		void run(int from, int to) throws Exception;
+	}
+
+	/**
+	 * Splits items into one contiguous range per available processor and processes ranges concurrently.
+	 *
+	 * @param size number of items
+	 * @param task {@link RangeTask} processing a range
+	 * @param executor {@link Executor} used to process ranges
+	 * @throws Exception exception thrown by the first failed range, see {@link #run(List, Executor)}
+	 */
+	static void runPartitioned(int size, final RangeTask task, Executor executor) throws Exception {
+		int partitions = Math.min(size, Runtime.getRuntime().availableProcessors());
+		List<Callable<Void>> tasks = new ArrayList<>(partitions);
+
+		for (int i = 0; i < partitions; i++) {
+			final int from = (int) ((long) size * i / partitions);
+			final int to = (int) ((long) size * (i + 1) / partitions);
+
+			tasks.add(new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					task.run(from, to);
+					return null;
+				}
+			});
+		}
+
+		run(tasks, executor);
+	}
+
+	/**
+	 * Runs tasks concurrently and waits until all of them complete.
+	 * <p>
+	 *     In case tasks fail, exception thrown by the first failed task (in task order) is re-thrown as is, once all
+	 *     tasks completed. In case waiting thread is interrupted, tasks that did not start yet are cancelled and
+	 *     {@link InterruptedException} is thrown.
+	 * </p>
+	 *
+	 * @param tasks {@link List} of tasks
+	 * @param executor {@link Executor} used to run tasks
+	 * @param <T> task result type
+	 * @return {@link List} of task results, in task order
+	 * @throws Exception exception thrown by the first failed task
+	 */
+	static <T> List<T> run(List<? extends Callable<T>> tasks, Executor executor) throws Exception {
+		List<FutureTask<T>> futures = new ArrayList<>(tasks.size());
+
+		for (Callable<T> task : tasks) {
+			FutureTask<T> future = new FutureTask<>(task);
+			futures.add(future);
+			executor.execute(future);
+		}
+
+		List<T> results = new ArrayList<>(futures.size());
+		Throwable failure = null;
+
+		for (FutureTask<T> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				for (FutureTask<T> pending : futures) {
+					pending.cancel(false);
+				}
+
+				Thread.currentThread().interrupt();
+				throw e;
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+				results.add(null);
+			}
+		}
+
+		if (failure instanceof Exception) {
+			throw (Exception) failure;
+		}
+		if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		if (failure != null) {
+			throw new RuntimeException(failure);
+		}
+
+		return results;
+	}
+}
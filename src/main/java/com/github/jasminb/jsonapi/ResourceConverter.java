@@ -1,36 +1,65 @@
 package com.github.jasminb.jsonapi;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import com.fasterxml.jackson.databind.type.MapType;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.github.jasminb.jsonapi.annotations.Relationship;
 import com.github.jasminb.jsonapi.annotations.Type;
 import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import com.github.jasminb.jsonapi.exceptions.InvalidJsonApiResourceException;
 import com.github.jasminb.jsonapi.exceptions.UnregisteredTypeException;
 import com.github.jasminb.jsonapi.models.errors.Error;
+import com.github.jasminb.jsonapi.models.errors.Errors;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.jasminb.jsonapi.JSONAPISpecConstants.*;
 
@@ -42,15 +71,45 @@ import static com.github.jasminb.jsonapi.JSONAPISpecConstants.*;
  * @author jbegic
  */
 public class ResourceConverter {
+	private static final String RELATIONSHIP_COUNT = "count";
+	private static final String SMILE_FORMAT = "Smile";
+	private static final String CBOR_FORMAT = "CBOR";
+	private static final int LINE_BATCH_SIZE = 256;
+	static final DeserializationSettings RESOURCE_ONLY_SETTINGS = new DeserializationSettings.Builder()
+			.resolveRelationships(false)
+			.build();
+
 	private final ConverterConfiguration configuration;
 	private final ObjectMapper objectMapper;
+	private final AttributeSerializer attributeSerializer;
+	private final boolean textFormat;
+	private final String mediaType;
 	private final PropertyNamingStrategy namingStrategy;
-	private final Map<Class<?>, RelationshipResolver> typedResolvers = new HashMap<>();
 	private final ResourceCache resourceCache;
-	private final Set<DeserializationFeature> deserializationFeatures = DeserializationFeature.getDefaultFeatures();
-	private final Set<SerializationFeature> serializationFeatures = SerializationFeature.getDefaultFeatures();
+	private final boolean immutable;
+	private final ThreadLocal<Deque<PendingRelationship>> pendingRelationships = new ThreadLocal<>();
+	private final ThreadLocal<Map<String, Object>> mergeTargets = new ThreadLocal<>();
+	private final ThreadLocal<DeserializationContext> deserializationContext = new ThreadLocal<>();
+
+	// Configuration is replaced as a whole (copy-on-write), readers never observe a partially updated value
+	private volatile Map<Class<?>, RelationshipResolver> typedResolvers =
+			Collections.<Class<?>, RelationshipResolver>emptyMap();
+
+	private volatile Set<DeserializationFeature> deserializationFeatures =
+			snapshot(DeserializationFeature.getDefaultFeatures(), DeserializationFeature.class);
+
+	private volatile Set<SerializationFeature> serializationFeatures =
+			snapshot(SerializationFeature.getDefaultFeatures(), SerializationFeature.class);
+
+	private volatile RelationshipResolver globalResolver;
+
+	private volatile ResourceFragmentCache fragmentCache;
+
+	private volatile ResourceStore resourceStore;
+
+	private volatile ParallelAttributeBinder parallelAttributeBinder;
 
-	private RelationshipResolver globalResolver;
+	private volatile ParallelResourceWriter parallelResourceWriter;
 
 	private String baseURL;
 
@@ -90,6 +149,11 @@ public class ResourceConverter {
 	 * @param classes {@link Class} array of classes to be handled by this resource converter instance
 	 */
 	public ResourceConverter(ObjectMapper mapper, String baseURL, Class<?>... classes) {
+		this(mapper, baseURL, classes, false);
+	}
+
+	private ResourceConverter(ObjectMapper mapper, String baseURL, Class<?>[] classes, boolean immutable) {
+		this.immutable = immutable;
 		this.configuration = new ConverterConfiguration(classes);
 		this.baseURL = baseURL != null ? baseURL : "";
 
@@ -108,7 +172,40 @@ public class ResourceConverter {
 			namingStrategy = new PropertyNamingStrategy();
 		}
 
+		attributeSerializer = new AttributeSerializer(objectMapper);
 		resourceCache = new ResourceCache();
+
+		// Binary formats (eg. Smile, CBOR) cannot embed pre-encoded fragments
+		String format = objectMapper.getFactory().getFormatName();
+		textFormat = JsonFactory.FORMAT_NAME_JSON.equals(format);
+		mediaType = resolveMediaType(format);
+	}
+
+	private static String resolveMediaType(String format) {
+		if (SMILE_FORMAT.equals(format)) {
+			return SMILE_MEDIA_TYPE;
+		} else if (CBOR_FORMAT.equals(format)) {
+			return CBOR_MEDIA_TYPE;
+		}
+		return MEDIA_TYPE;
+	}
+
+	/**
+	 * Returns media type of documents produced by this converter, resolved from the format of object mapper's
+	 * factory. Converters using a Jackson Smile or CBOR mapper read and write binary documents.
+	 * @return {@link String} media type, one of {@link JSONAPISpecConstants#MEDIA_TYPE},
+	 * {@link JSONAPISpecConstants#SMILE_MEDIA_TYPE} or {@link JSONAPISpecConstants#CBOR_MEDIA_TYPE}
+	 */
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	/**
+	 * Creates new builder, used to create converters whose configuration cannot be changed once they are built.
+	 * @return {@link Builder}
+	 */
+	public static Builder builder() {
+		return new Builder();
 	}
 
 	/**
@@ -119,6 +216,7 @@ public class ResourceConverter {
 	 * @param resolver resolver instance
 	 */
 	public void setGlobalResolver(RelationshipResolver resolver) {
+		ensureMutable();
 		this.globalResolver = resolver;
 	}
 
@@ -128,15 +226,83 @@ public class ResourceConverter {
 	 * @param resolver resolver instance
 	 * @param type type
 	 */
-	public void setTypeResolver(RelationshipResolver resolver, Class<?> type) {
+	public synchronized void setTypeResolver(RelationshipResolver resolver, Class<?> type) {
+		ensureMutable();
+
 		if (resolver != null) {
 			String typeName = ReflectionUtils.getTypeName(type);
 
 			if (typeName != null) {
-				typedResolvers.put(type, resolver);
+				Map<Class<?>, RelationshipResolver> resolvers = new HashMap<>(typedResolvers);
+				resolvers.put(type, resolver);
+				typedResolvers = Collections.unmodifiableMap(resolvers);
 			}
 		}
 	}
+
+	/**
+	 * Sets cache used to store serialized resources, <code>null</code> disables caching. Cache is not used while the
+	 * object mapper indents output.
+	 * @param cache {@link ResourceFragmentCache} cache instance
+	 */
+	public void setFragmentCache(ResourceFragmentCache cache) {
+		ensureMutable();
+		this.fragmentCache = cache;
+	}
+
+	/**
+	 * Sets store used to share resource instances across read documents, <code>null</code> disables the store.
+	 * @param store {@link ResourceStore} store instance
+	 */
+	public void setResourceStore(ResourceStore store) {
+		ensureMutable();
+		this.resourceStore = store;
+	}
+
+	/**
+	 * Enables parallel binding of resource attributes for large documents.
+	 * <p>
+	 *     When a document contains at least <code>threshold</code> resources (primary and included), their attributes
+	 *     are bound to resource instances concurrently using provided executor. Ids, meta, links and relationships
+	 *     are handled afterwards on the calling thread, so resulting resources are the same as when reading
+	 *     sequentially. Executor can be eg. a {@link java.util.concurrent.ForkJoinPool}.
+	 * </p>
+	 * @param threshold minimum number of resources in a document for parallel binding to be used
+	 * @param executor {@link Executor} used to bind attributes, <code>null</code> disables parallel binding
+	 */
+	public void setParallelDeserialization(int threshold, Executor executor) {
+		ensureMutable();
+		this.parallelAttributeBinder = createAttributeBinder(threshold, executor);
+	}
+
+	/**
+	 * Enables parallel serialization of large collections.
+	 * <p>
+	 *     When a collection contains at least <code>threshold</code> resources, primary resources are serialized in
+	 *     batches of <code>threshold</code> resources, each batch is encoded concurrently using provided executor and
+	 *     written in the original order. Included resources are collected and serialized on the calling thread, so
+	 *     the output is identical to sequential serialization. Parallel serialization is not used when compound
+	 *     document limits are set or when output is indented.
+	 * </p>
+	 * @param threshold minimum number of resources in a collection for parallel serialization to be used, also the
+	 *                  number of resources encoded at once
+	 * @param executor {@link Executor} used to encode resources, <code>null</code> disables parallel serialization
+	 */
+	public void setParallelSerialization(int threshold, Executor executor) {
+		ensureMutable();
+		this.parallelResourceWriter = createResourceWriter(threshold, executor);
+	}
+
+	private ParallelAttributeBinder createAttributeBinder(int threshold, Executor executor) {
+		return executor != null ? new ParallelAttributeBinder(this, objectMapper, configuration, threshold, executor) :
+				null;
+	}
+
+	private ParallelResourceWriter createResourceWriter(int threshold, Executor executor) {
+		return executor != null ? new ParallelResourceWriter(this, objectMapper, textFormat, threshold, executor) :
+				null;
+	}
+
 	/**
 	* Converts raw data input into requested target type.
 	* @param data raw data
@@ -171,7 +337,7 @@ public class ResourceConverter {
 	 * @return {@link JSONAPIDocument}
 	 */
 	public <T> JSONAPIDocument<T> readDocument(byte[] data, Class<T> clazz) {
-		return readDocument(new ByteArrayInputStream(data), clazz);
+		return readDocument(data, clazz, null);
 	}
 
 	/**
@@ -182,117 +348,331 @@ public class ResourceConverter {
 	 * @return {@link JSONAPIDocument}
 	 */
 	public <T> JSONAPIDocument<T> readDocument(InputStream dataStream, Class<T> clazz) {
+		return readDocument(dataStream, clazz, null);
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into target type.
+	 * @param data {@link byte} raw data (server response)
+	 * @param clazz {@link Class} target type
+	 * @param settings {@link DeserializationSettings} settings that override converter configuration
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<T> readDocument(byte[] data, Class<T> clazz, DeserializationSettings settings) {
+		return readDocument(readTree(data, 0, data.length), clazz, settings);
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into target type.
+	 * @param dataStream {@link InputStream} input stream
+	 * @param clazz {@link Class} target type
+	 * @param settings {@link DeserializationSettings} settings that override converter configuration
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<T> readDocument(InputStream dataStream, Class<T> clazz,
+											   DeserializationSettings settings) {
 		try {
-			resourceCache.init();
+			return readDocument(objectMapper.readTree(dataStream), clazz, settings);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
 
-			JsonNode rootNode = objectMapper.readTree(dataStream);
+	/**
+	 * Reads JSON API spec document and converts it into target type.
+	 * @param data {@link byte} array holding the document
+	 * @param offset document start
+	 * @param length document length
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<T> readDocument(byte[] data, int offset, int length, Class<T> clazz) {
+		return readDocument(readTree(data, offset, length), clazz, null);
+	}
 
-			// Validate
-			ValidationUtils.ensureValidDocument(objectMapper, rootNode);
+	/**
+	 * Reads JSON API spec document and converts it into target type.
+	 * <p>
+	 *     Document is read from the remaining bytes of the buffer, buffer's position is not changed.
+	 * </p>
+	 * @param buffer {@link ByteBuffer} heap or direct buffer holding the document
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<T> readDocument(ByteBuffer buffer, Class<T> clazz) {
+		return readDocument(readTree(buffer), clazz, null);
+	}
 
-			JsonNode dataNode = rootNode.get(DATA);
+	/**
+	 * Reads JSON API spec document and converts it into target type.
+	 * @param reader {@link Reader} document reader, it is not closed
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<T> readDocument(Reader reader, Class<T> clazz) {
+		return readDocument(readTree(reader), clazz, null);
+	}
 
-			ValidationUtils.ensurePrimaryDataValidObjectOrNull(dataNode);
+	/**
+	 * Reads JSON API spec document and converts it into target type.
+	 * @param data {@link CharSequence} document text
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<T> readDocument(CharSequence data, Class<T> clazz) {
+		return readDocument(readTree(data), clazz, null);
+	}
 
-			// Parse data node without handling relationships
-			T resourceObject = null;
-			boolean cached = false;
+	/**
+	 * Reads JSON API spec document from a file and converts it into target type. File is read trough memory mapped
+	 * segments, see {@link #readDocumentCollection(Path, Class)}.
+	 * @param path {@link Path} document file
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<T> readDocument(Path path, Class<T> clazz) {
+		try (InputStream dataStream = new MappedFileInputStream(path, MappedFileInputStream.DEFAULT_SEGMENT_SIZE)) {
+			return readDocument(dataStream, clazz);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
 
-			if (ValidationUtils.isNotNullNode(dataNode)) {
-				String identifier = createIdentifier(dataNode);
-				cached = resourceCache.contains(identifier);
+	/**
+	 * Reads JSON Lines input, where every line holds a separate JSON API spec document, and converts each document
+	 * into target type.
+	 * <p>
+	 *     Input is read in chunks into a single reused buffer and split into lines without decoding them. Each line
+	 *     is parsed in place, from its range of the buffer, so line content is never copied. Documents are passed to
+	 *     the handler in input order. Lines that cannot be read are reported to the handler and reading continues
+	 *     with the following line. Empty lines are skipped. Supported for JSON only, as binary formats have no line
+	 *     representation.
+	 * </p>
+	 * @param dataStream {@link InputStream} input stream, it is not closed
+	 * @param clazz {@link Class} target type
+	 * @param handler {@link DocumentLineHandler} document handler
+	 * @param <T> type
+	 * @return number of documents read, including the ones that failed
+	 */
+	public <T> long readDocumentLines(InputStream dataStream, Class<T> clazz, DocumentLineHandler<T> handler) {
+		ensureJsonLinesSupported();
 
-				if (cached) {
-					resourceObject = (T) resourceCache.get(identifier);
-				} else {
-					resourceObject = readObject(dataNode, clazz, false);
-				}
-			}
+		LineReader reader = new LineReader(dataStream);
+		long count = 0;
 
-			// Parse all included resources
-			resourceCache.cache(parseIncluded(rootNode));
+		try {
+			while (reader.next(1) > 0) {
+				count++;
 
-			// Connect data node's relationships now that all resources have been parsed
-			if (resourceObject != null && !cached) {
-				handleRelationships(dataNode, resourceObject);
+				JSONAPIDocument<T> document;
+				try {
+					document = readDocument(readTree(reader.getBuffer(), reader.getStart(0), reader.getLength(0)),
+							clazz, null);
+				} catch (RuntimeException e) {
+					handler.onFailure(reader.getLineNumber(0), e);
+					continue;
+				}
+
+				handler.onDocument(reader.getLineNumber(0), document);
 			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
 
-			JSONAPIDocument<T> result = new JSONAPIDocument<>(resourceObject, rootNode, objectMapper);
+		return count;
+	}
 
-			// Handle top-level meta
-			if (rootNode.has(META)) {
-				result.setMeta(mapMeta(rootNode.get(META)));
-			}
+	/**
+	 * Reads JSON Lines input, converting documents concurrently using provided executor.
+	 * <p>
+	 *     Lines are read in batches, documents of each batch are converted in parallel, directly from the input
+	 *     buffer, and passed to the handler in input order, on the calling thread. Relationship resolvers are called from executor threads and must be
+	 *     thread safe. See {@link #readDocumentLines(InputStream, Class, DocumentLineHandler)} for details.
+	 * </p>
+	 * @param dataStream {@link InputStream} input stream, it is not closed
+	 * @param clazz {@link Class} target type
+	 * @param handler {@link DocumentLineHandler} document handler
+	 * @param executor {@link Executor} used to convert documents
+	 * @param <T> type
+	 * @return number of documents read, including the ones that failed
+	 */
+	public <T> long readDocumentLines(InputStream dataStream, Class<T> clazz, DocumentLineHandler<T> handler,
+									  Executor executor) {
+		ensureJsonLinesSupported();
 
-			// Handle top-level links
-			if (rootNode.has(LINKS)) {
-				result.setLinks(new Links(mapLinks(rootNode.get(LINKS))));
-			}
+		LineReader reader = new LineReader(dataStream);
+		int batchSize = Runtime.getRuntime().availableProcessors() * LINE_BATCH_SIZE;
+		long count = 0;
 
-      // Handle server version/meta (JSON API DOC)
-      if (rootNode.has(JSON_API)) {
-        result.setJsonApi(objectMapper.treeToValue(rootNode.get(JSON_API), JsonApi.class));
-      }
+		try {
+			int lines;
 
-			return result;
+			while ((lines = reader.next(batchSize)) > 0) {
+				Object[] results = readLineBatch(reader, lines, clazz, executor);
+				count += lines;
+
+				for (int i = 0; i < lines; i++) {
+					if (results[i] instanceof RuntimeException) {
+						handler.onFailure(reader.getLineNumber(i), (RuntimeException) results[i]);
+					} else {
+						@SuppressWarnings("unchecked")
+						JSONAPIDocument<T> document = (JSONAPIDocument<T>) results[i];
+						handler.onDocument(reader.getLineNumber(i), document);
+					}
+				}
+			}
 		} catch (RuntimeException e) {
 			throw e;
 		} catch (Exception e) {
 			throw new RuntimeException(e);
-		} finally {
-			resourceCache.clear();
 		}
+
+		return count;
 	}
 
 	/**
-	 * Reads JSON API spec document and converts it into collection of target type objects.
-	 * @param data {@link byte} raw data (server response)
+	 * Converts batch of JSON Lines documents concurrently.
+	 * @param reader {@link LineReader} reader holding the batch
+	 * @param lines number of lines in the batch
 	 * @param clazz {@link Class} target type
+	 * @param executor {@link Executor} used to convert documents
+	 * @return {@link JSONAPIDocument} or {@link RuntimeException} for each line, in batch order
+	 * @throws Exception in case converting thread is interrupted or conversion fails with an error
+	 */
+	private Object[] readLineBatch(final LineReader reader, int lines, final Class<?> clazz, Executor executor)
+			throws Exception {
+		final byte[] buffer = reader.getBuffer();
+		final Object[] result = new Object[lines];
+
+		ParallelTasks.runPartitioned(lines, new ParallelTasks.RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++) {
+					try {
+						result[i] = readDocument(readTree(buffer, reader.getStart(i), reader.getLength(i)), clazz,
+								null);
+					} catch (RuntimeException e) {
+						result[i] = e;
+					}
+				}
+			}
+		}, executor);
+
+		return result;
+	}
+
+	private void ensureJsonLinesSupported() {
+		if (!textFormat) {
+			throw new IllegalStateException("JSON Lines are supported for JSON format only");
+		}
+	}
+
+	/**
+	 * Reads JSON API spec document and applies it onto provided target instance.
+	 * <p>
+	 *     Attributes, meta, links and relationships present in the document are set on the existing instances instead
+	 *     of creating new ones. Resources are matched by type and id against the target and against all resources
+	 *     reachable from it through relationships. Primary resource is also matched when target has no id yet (eg.
+	 *     response to a create request), in which case id assigned by the server is set on the target. Fields that
+	 *     are not present in the document keep their values.
+	 * </p>
+	 * @param data {@link byte} raw data (server response)
+	 * @param target existing resource instance
 	 * @param <T> type
-	 * @return {@link JSONAPIDocument}
+	 * @return {@link JSONAPIDocument} holding the target in case it matched the primary resource
 	 */
-	public <T> JSONAPIDocument<List<T>> readDocumentCollection(byte[] data, Class<T> clazz) {
-		return readDocumentCollection(new ByteArrayInputStream(data), clazz);
+	public <T> JSONAPIDocument<T> mergeDocument(byte[] data, T target) {
+		return mergeDocument(new ByteArrayInputStream(data), target);
 	}
+
 	/**
-	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * Reads JSON API spec document and applies it onto provided target instance.
+	 * See {@link #mergeDocument(byte[], Object)} for details.
 	 * @param dataStream {@link InputStream} input stream
+	 * @param target existing resource instance
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument} holding the target in case it matched the primary resource
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> JSONAPIDocument<T> mergeDocument(InputStream dataStream, T target) {
+		try {
+			JsonNode rootNode = objectMapper.readTree(dataStream);
+			Map<String, Object> targets = collectMergeTargets(Collections.singletonList(target));
+
+			JsonNode dataNode = rootNode != null ? rootNode.get(DATA) : null;
+			if (dataNode != null && dataNode.isObject()) {
+				addUnidentifiedMergeTarget(dataNode, target, targets);
+			}
+
+			Map<String, Object> previous = mergeTargets.get();
+			mergeTargets.set(targets);
+			try {
+				return readDocument(rootNode, (Class<T>) target.getClass(), null);
+			} finally {
+				restoreMergeTargets(previous);
+			}
+		} catch (IOException | IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts JSON API spec document tree into target type.
+	 * @param rootNode {@link JsonNode} document root
 	 * @param clazz {@link Class} target type
+	 * @param settings {@link DeserializationSettings} call settings, <code>null</code> to use settings of the
+	 *                 enclosing call or converter configuration
 	 * @param <T> type
 	 * @return {@link JSONAPIDocument}
 	 */
-	public <T> JSONAPIDocument<List<T>> readDocumentCollection(InputStream dataStream, Class<T> clazz) {
+	private <T> JSONAPIDocument<T> readDocument(JsonNode rootNode, Class<T> clazz, DeserializationSettings settings) {
+		boolean pendingOwner = initPendingRelationships();
+		DeserializationContext previousContext = enterDeserializationContext(settings);
+
 		try {
 			resourceCache.init();
 
-			JsonNode rootNode = objectMapper.readTree(dataStream);
-
 			// Validate
 			ValidationUtils.ensureValidDocument(objectMapper, rootNode);
 
 			JsonNode dataNode = rootNode.get(DATA);
 
-			ValidationUtils.ensurePrimaryDataValidArray(dataNode);
+			ValidationUtils.ensurePrimaryDataValidObjectOrNull(dataNode);
+			getDeserializationContext().ensureWithinLimits(countResources(rootNode));
+
+			Map<JsonNode, Object> bound = bindAttributes(rootNode, clazz);
 
 			// Parse data node without handling relationships
-			List<T> resourceList = new ArrayList<>();
+			T resourceObject = null;
+			boolean cached = false;
 
-			for (JsonNode element : dataNode) {
-				T pojo = readObject(element, clazz, false);
-				resourceList.add(pojo);
+			if (ValidationUtils.isNotNullNode(dataNode)) {
+				String identifier = createIdentifier(dataNode);
+				cached = resourceCache.contains(identifier);
+
+				if (cached) {
+					resourceObject = (T) resourceCache.get(identifier);
+				} else {
+					resourceObject = readObject(dataNode, clazz, bound);
+				}
 			}
 
 			// Parse all included resources
-			resourceCache.cache(parseIncluded(rootNode));
+			resourceCache.cache(parseIncluded(rootNode, bound));
 
 			// Connect data node's relationships now that all resources have been parsed
-			for (int i = 0; i < resourceList.size(); i++) {
-				JsonNode source = dataNode.get(i);
-				T resourceObject = resourceList.get(i);
-				handleRelationships(source, resourceObject);
+			if (resourceObject != null && !cached) {
+				handleRelationships(dataNode, resourceObject);
 			}
 
-			JSONAPIDocument<List<T>> result = new JSONAPIDocument<>(resourceList, rootNode, objectMapper);
+			JSONAPIDocument<T> result = new JSONAPIDocument<>(resourceObject, rootNode, objectMapper);
 
 			// Handle top-level meta
 			if (rootNode.has(META)) {
@@ -304,9 +684,13 @@ public class ResourceConverter {
 				result.setLinks(new Links(mapLinks(rootNode.get(LINKS))));
 			}
 
-			// Handle server version/meta (JSON API DOC)
-			if (rootNode.has(JSON_API)) {
-				result.setJsonApi(objectMapper.treeToValue(rootNode.get(JSON_API), JsonApi.class));
+      // Handle server version/meta (JSON API DOC)
+      if (rootNode.has(JSON_API)) {
+        result.setJsonApi(objectMapper.treeToValue(rootNode.get(JSON_API), JsonApi.class));
+      }
+
+			if (pendingOwner) {
+				handlePendingRelationships();
 			}
 
 			return result;
@@ -315,568 +699,2060 @@ public class ResourceConverter {
 		} catch (Exception e) {
 			throw new RuntimeException(e);
 		} finally {
+			if (pendingOwner) {
+				pendingRelationships.remove();
+			}
+			restoreDeserializationContext(previousContext);
 			resourceCache.clear();
 		}
 	}
 
 	/**
-	 * Converts provided input into a target object. After conversion completes any relationships defined are resolved.
-	 * @param source JSON source
-	 * @param clazz target type
+	 * Creates iterator over all resources of a paginated collection, starting with the page at provided URL.
+	 * <p>
+	 *     Next page is fetched in the background while current page is being consumed, using daemon threads shared by
+	 *     all iterators. See {@link #readCollectionPages(String, Class, RelationshipResolver, int, Executor)} for
+	 *     details.
+	 * </p>
+	 * @param url {@link String} URL of the first page
+	 * @param clazz {@link Class} target type
+	 * @param resolver {@link RelationshipResolver} used to fetch pages
 	 * @param <T> type
-	 * @return converted target object
-	 * @throws IOException
-	 * @throws IllegalAccessException
+	 * @return {@link PageIterator}
 	 */
-	private <T> T readObject(JsonNode source, Class<T> clazz, boolean handleRelationships)
-			throws IOException, IllegalAccessException, InstantiationException {
-		String identifier = createIdentifier(source);
+	public <T> PageIterator<T> readCollectionPages(String url, Class<T> clazz, RelationshipResolver resolver) {
+		return readCollectionPages(url, clazz, resolver, 1, PageIterator.getDefaultExecutor());
+	}
+
+	/**
+	 * Creates iterator over all resources of a paginated collection, starting with the page at provided URL.
+	 * <p>
+	 *     Pages are fetched by following <code>links.next</code>. While resources of one page are consumed, up to
+	 *     <code>prefetchDepth</code> following pages are fetched and parsed using provided executor.
+	 * </p>
+	 * @param url {@link String} URL of the first page
+	 * @param clazz {@link Class} target type
+	 * @param resolver {@link RelationshipResolver} used to fetch pages
+	 * @param prefetchDepth number of pages fetched ahead of the page being consumed, must be at least 1
+	 * @param executor {@link Executor} that runs background fetching
+	 * @param <T> type
+	 * @return {@link PageIterator}
+	 */
+	public <T> PageIterator<T> readCollectionPages(String url, Class<T> clazz, RelationshipResolver resolver,
+												   int prefetchDepth, Executor executor) {
+		return new PageIterator<>(this, url, clazz, resolver, prefetchDepth, executor);
+	}
+
+	/**
+	 * Reads JSON API Atomic Operations response document (<code>atomic:results</code>).
+	 * @param data {@link byte} raw data (server response)
+	 * @return {@link List} of documents, one for each operation, holding operation result (can be <code>null</code>)
+	 */
+	public List<JSONAPIDocument<?>> readAtomicResults(byte[] data) {
+		return readAtomicResults(new ByteArrayInputStream(data), null);
+	}
+
+	/**
+	 * Reads JSON API Atomic Operations response document (<code>atomic:results</code>).
+	 * <p>
+	 *     In case operations that were sent are provided, ids assigned by the server are set on the resources created
+	 *     by <code>add</code> operations that had only a local id.
+	 * </p>
+	 * @param dataStream {@link InputStream} input stream
+	 * @param operations {@link List} operations results belong to, can be <code>null</code>
+	 * @return {@link List} of documents, one for each operation, holding operation result (can be <code>null</code>)
+	 */
+	public List<JSONAPIDocument<?>> readAtomicResults(InputStream dataStream, List<AtomicOperation> operations) {
+		try {
+			JsonNode rootNode = objectMapper.readTree(dataStream);
+
+			// Failed requests are error documents
+			if (rootNode != null && rootNode.hasNonNull(ERRORS)) {
+				ValidationUtils.ensureValidDocument(objectMapper, rootNode);
+			}
+
+			JsonNode resultsNode = rootNode != null ? rootNode.get(ATOMIC_RESULTS) : null;
+
+			if (resultsNode == null || !resultsNode.isArray()) {
+				throw new InvalidJsonApiResourceException("Atomic results document must contain 'atomic:results' array");
+			}
+
+			if (operations != null && operations.size() != resultsNode.size()) {
+				throw new InvalidJsonApiResourceException(String.format("Expected %d atomic results, got %d",
+						operations.size(), resultsNode.size()));
+			}
+
+			List<JSONAPIDocument<?>> result = new ArrayList<>(resultsNode.size());
+
+			for (int i = 0; i < resultsNode.size(); i++) {
+				JsonNode resultNode = resultsNode.get(i);
+				JsonNode dataNode = resultNode.get(DATA);
+
+				if (ValidationUtils.isNotNullNode(dataNode)) {
+					Class<?> type = configuration.getTypeClass(dataNode.get(TYPE).asText());
+
+					if (type == null) {
+						throw new UnregisteredTypeException(dataNode.get(TYPE).asText());
+					}
+
+					result.add(readDocument(resultNode, type, null));
+
+					if (operations != null) {
+						resolveLocalId(operations.get(i), dataNode);
+					}
+				} else if (resultNode.has(META)) {
+					result.add(readDocument(resultNode, Object.class, null));
+				} else {
+					result.add(new JSONAPIDocument<>());
+				}
+			}
+
+			return result;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Sets id assigned by the server on the resource created by <code>add</code> operation.
+	 * @param operation {@link AtomicOperation} operation
+	 * @param dataNode {@link JsonNode} operation result data
+	 * @throws IllegalAccessException
+	 */
+	private void resolveLocalId(AtomicOperation operation, JsonNode dataNode) throws IllegalAccessException {
+		Object resource = operation.getResource();
+
+		if (operation.getOp() == AtomicOperation.Op.ADD && operation.getRelationship() == null &&
+				getIdValue(resource) == null && dataNode.hasNonNull(ID)) {
+			setIdValue(resource, dataNode.get(ID));
+		}
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * @param data {@link byte} raw data (server response)
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(byte[] data, Class<T> clazz) {
+		return readDocumentCollection(data, clazz, null);
+	}
+	/**
+	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * @param dataStream {@link InputStream} input stream
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(InputStream dataStream, Class<T> clazz) {
+		return readDocumentCollection(dataStream, clazz, null);
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * @param data {@link byte} raw data (server response)
+	 * @param clazz {@link Class} target type
+	 * @param settings {@link DeserializationSettings} settings that override converter configuration
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(byte[] data, Class<T> clazz,
+															   DeserializationSettings settings) {
+		return readDocumentCollection(readTree(data, 0, data.length), clazz, settings);
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * @param dataStream {@link InputStream} input stream
+	 * @param clazz {@link Class} target type
+	 * @param settings {@link DeserializationSettings} settings that override converter configuration
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(InputStream dataStream, Class<T> clazz,
+															   DeserializationSettings settings) {
+		try {
+			return readDocumentCollection(objectMapper.readTree(dataStream), clazz, settings);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * @param data {@link byte} array holding the document
+	 * @param offset document start
+	 * @param length document length
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(byte[] data, int offset, int length, Class<T> clazz) {
+		return readDocumentCollection(readTree(data, offset, length), clazz, null);
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * <p>
+	 *     Document is read from the remaining bytes of the buffer, buffer's position is not changed.
+	 * </p>
+	 * @param buffer {@link ByteBuffer} heap or direct buffer holding the document
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(ByteBuffer buffer, Class<T> clazz) {
+		return readDocumentCollection(readTree(buffer), clazz, null);
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * @param reader {@link Reader} document reader, it is not closed
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(Reader reader, Class<T> clazz) {
+		return readDocumentCollection(readTree(reader), clazz, null);
+	}
+
+	/**
+	 * Reads JSON API spec document and converts it into collection of target type objects.
+	 * @param data {@link CharSequence} document text
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(CharSequence data, Class<T> clazz) {
+		return readDocumentCollection(readTree(data), clazz, null);
+	}
+
+	/**
+	 * Reads JSON API spec document from a file and converts it into collection of target type objects.
+	 * <p>
+	 *     File is memory mapped in segments that are parsed in order, which avoids system calls and copying trough
+	 *     stream buffers when reading large files (eg. bulk imports). Files larger than 2GB are supported.
+	 * </p>
+	 * @param path {@link Path} document file
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> readDocumentCollection(Path path, Class<T> clazz) {
+		try (InputStream dataStream = new MappedFileInputStream(path, MappedFileInputStream.DEFAULT_SEGMENT_SIZE)) {
+			return readDocumentCollection(dataStream, clazz);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private JsonNode readTree(byte[] data, int offset, int length) {
+		try {
+			return objectMapper.readTree(data, offset, length);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private JsonNode readTree(ByteBuffer buffer) {
+		if (buffer.hasArray()) {
+			return readTree(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+		}
+
+		// Direct buffers are streamed, duplicate keeps position of provided buffer
+		try {
+			return objectMapper.readTree(new ByteBufferBackedInputStream(buffer.duplicate()));
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private JsonNode readTree(Reader reader) {
+		try (JsonParser parser = objectMapper.getFactory().createParser(reader)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			return readTree(parser);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private JsonNode readTree(CharSequence data) {
+		try {
+			if (data instanceof String) {
+				return objectMapper.readTree((String) data);
+			}
+
+			if (data instanceof CharBuffer && ((CharBuffer) data).hasArray()) {
+				CharBuffer buffer = (CharBuffer) data;
+
+				try (JsonParser parser = objectMapper.getFactory().createParser(buffer.array(),
+						buffer.arrayOffset() + buffer.position(), buffer.remaining())) {
+					return readTree(parser);
+				}
+			}
+
+			return objectMapper.readTree(data.toString());
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private JsonNode readTree(JsonParser parser) throws IOException {
+		JsonNode result = objectMapper.readTree(parser);
+		return result != null ? result : MissingNode.getInstance();
+	}
+
+	/**
+	 * Reads JSON API spec document and applies it onto provided target instances.
+	 * <p>
+	 *     Resources are matched by type and id against the targets and against all resources reachable from them
+	 *     through relationships, matched instances are updated instead of creating new ones. Resources that are not
+	 *     matched are created as usual. See {@link #mergeDocument(byte[], Object)} for details.
+	 * </p>
+	 * @param data {@link byte} raw data (server response)
+	 * @param clazz {@link Class} target type
+	 * @param targets {@link Collection} existing resource instances
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> mergeDocumentCollection(byte[] data, Class<T> clazz,
+																Collection<? extends T> targets) {
+		return mergeDocumentCollection(new ByteArrayInputStream(data), clazz, targets);
+	}
+
+	/**
+	 * Reads JSON API spec document and applies it onto provided target instances.
+	 * See {@link #mergeDocumentCollection(byte[], Class, Collection)} for details.
+	 * @param dataStream {@link InputStream} input stream
+	 * @param clazz {@link Class} target type
+	 * @param targets {@link Collection} existing resource instances
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	public <T> JSONAPIDocument<List<T>> mergeDocumentCollection(InputStream dataStream, Class<T> clazz,
+																Collection<? extends T> targets) {
+		try {
+			return mergeDocumentCollection(objectMapper.readTree(dataStream), clazz, targets, null);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts JSON API spec document tree into collection of target type objects, applying it onto provided target
+	 * instances.
+	 * @param rootNode {@link JsonNode} document root
+	 * @param clazz {@link Class} target type
+	 * @param targets {@link Collection} existing resource instances
+	 * @param settings {@link DeserializationSettings} call settings, <code>null</code> to use converter configuration
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	<T> JSONAPIDocument<List<T>> mergeDocumentCollection(JsonNode rootNode, Class<T> clazz,
+														 Collection<? extends T> targets,
+														 DeserializationSettings settings) {
+		try {
+			Map<String, Object> previous = mergeTargets.get();
+			mergeTargets.set(collectMergeTargets(targets));
+			try {
+				return readDocumentCollection(rootNode, clazz, settings);
+			} finally {
+				restoreMergeTargets(previous);
+			}
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Creates non-blocking reader of a collection document, see {@link ResourceFeed}.
+	 * <p>
+	 *     Document is fed to the reader in chunks, as they arrive, and primary resources are published to the
+	 *     subscriber as soon as they are parsed. Object mapper's factory must support non-blocking parsing (JSON and
+	 *     Smile do).
+	 * </p>
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return {@link ResourceFeed}
+	 */
+	public <T> ResourceFeed<T> createResourceFeed(Class<T> clazz) {
+		try {
+			return new ResourceFeed<>(this, objectMapper, clazz);
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Converts single primary resource of a document, without its included resources. Relationships are not resolved
+	 * using resolvers, related resources are represented by instances that hold only their identifiers.
+	 * @param resourceNode {@link JsonNode} resource
+	 * @param clazz {@link Class} target type
+	 * @param <T> type
+	 * @return converted resource
+	 */
+	<T> T readResource(JsonNode resourceNode, Class<T> clazz) {
+		ObjectNode rootNode = objectMapper.createObjectNode();
+		rootNode.set(DATA, resourceNode);
+
+		return readDocument(rootNode, clazz, RESOURCE_ONLY_SETTINGS).get();
+	}
+
+	/**
+	 * Converts JSON API spec document tree into collection of target type objects.
+	 * @param rootNode {@link JsonNode} document root
+	 * @param clazz {@link Class} target type
+	 * @param settings {@link DeserializationSettings} call settings, <code>null</code> to use settings of the
+	 *                 enclosing call or converter configuration
+	 * @param <T> type
+	 * @return {@link JSONAPIDocument}
+	 */
+	private <T> JSONAPIDocument<List<T>> readDocumentCollection(JsonNode rootNode, Class<T> clazz,
+																DeserializationSettings settings) {
+		boolean pendingOwner = initPendingRelationships();
+		DeserializationContext previousContext = enterDeserializationContext(settings);
+
+		try {
+			resourceCache.init();
+
+			// Validate
+			ValidationUtils.ensureValidDocument(objectMapper, rootNode);
+
+			JsonNode dataNode = rootNode.get(DATA);
+
+			ValidationUtils.ensurePrimaryDataValidArray(dataNode);
+			getDeserializationContext().ensureWithinLimits(countResources(rootNode));
+
+			Map<JsonNode, Object> bound = bindAttributes(rootNode, clazz);
+
+			// Parse data node without handling relationships
+			List<T> resourceList = new ArrayList<>();
+
+			for (JsonNode element : dataNode) {
+				T pojo = readObject(element, clazz, bound);
+				resourceList.add(pojo);
+			}
+
+			// Parse all included resources
+			resourceCache.cache(parseIncluded(rootNode, bound));
+
+			// Connect data node's relationships now that all resources have been parsed
+			for (int i = 0; i < resourceList.size(); i++) {
+				JsonNode source = dataNode.get(i);
+				T resourceObject = resourceList.get(i);
+				handleRelationships(source, resourceObject);
+			}
+
+			JSONAPIDocument<List<T>> result = new JSONAPIDocument<>(resourceList, rootNode, objectMapper);
+
+			// Handle top-level meta
+			if (rootNode.has(META)) {
+				result.setMeta(mapMeta(rootNode.get(META)));
+			}
+
+			// Handle top-level links
+			if (rootNode.has(LINKS)) {
+				result.setLinks(new Links(mapLinks(rootNode.get(LINKS))));
+			}
+
+			// Handle server version/meta (JSON API DOC)
+			if (rootNode.has(JSON_API)) {
+				result.setJsonApi(objectMapper.treeToValue(rootNode.get(JSON_API), JsonApi.class));
+			}
+
+			if (pendingOwner) {
+				handlePendingRelationships();
+			}
+
+			return result;
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		} finally {
+			if (pendingOwner) {
+				pendingRelationships.remove();
+			}
+			restoreDeserializationContext(previousContext);
+			resourceCache.clear();
+		}
+	}
+
+	/**
+	 * Initialises pending relationship queue for current thread.
+	 * @return <code>true</code> if queue was created by this call, meaning that caller is responsible for handling
+	 * pending relationships and for removing the queue
+	 */
+	private boolean initPendingRelationships() {
+		if (pendingRelationships.get() == null) {
+			pendingRelationships.set(new ArrayDeque<PendingRelationship>());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Handles queued relationships until the queue is drained.
+	 * <p>
+	 *     Handling a relationship can queue more relationships (eg. relationships of a resolved document), processing
+	 *     them in a loop instead of recursively keeps stack usage constant regardless of relationship chain length.
+	 * </p>
+	 */
+	private void handlePendingRelationships() throws IOException, IllegalAccessException, InstantiationException {
+		Deque<PendingRelationship> queue = pendingRelationships.get();
+		PendingRelationship pending;
+
+		while ((pending = queue.poll()) != null) {
+			pending.handle();
+		}
+	}
+
+	/**
+	 * Converts provided input into a target object. Relationships are not handled.
+	 * @param source JSON source
+	 * @param clazz target type
+	 * @param bound resources bound in parallel by their nodes, can be <code>null</code>
+	 * @param <T> type
+	 * @return converted target object
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	private <T> T readObject(JsonNode source, Class<T> clazz, Map<JsonNode, Object> bound)
+			throws IOException, IllegalAccessException, InstantiationException {
+		String identifier = createIdentifier(source);
 
 		T result = (T) resourceCache.get(identifier);
 		if (result == null) {
 			Class<?> type = getActualType(source, clazz);
+			Object stored = getStoredResource(source, type);
+			JsonNode attributes = source.has(ATTRIBUTES) ?
+					getDeserializationContext().project(source.get(TYPE).asText(), source.get(ATTRIBUTES)) : null;
+
+			if (stored != null) {
+				// Update stored instance instead of creating a new one
+				result = (T) stored;
+
+				if (attributes != null) {
+					objectMapper.readerForUpdating(result).readValue(attributes);
+				}
+			} else if (attributes != null) {
+				result = (T) readAttributes(source, attributes, type, bound);
+			} else {
+				if (type.isInterface()) {
+					result = null;
+				} else {
+					result = (T) objectMapper.treeToValue(objectMapper.createObjectNode(), type);
+				}
+			}
+
+			// Handle meta
+			if (source.has(META)) {
+				Field field = configuration.getMetaField(type);
+				if (field != null) {
+					Class<?> metaType = configuration.getMetaType(type);
+					Object metaObject = objectMapper.treeToValue(source.get(META), metaType);
+					field.set(result, metaObject);
+				}
+			}
+
+			// Handle links
+			if (source.has(LINKS)) {
+				Field linkField = configuration.getLinksField(type);
+				if (linkField != null) {
+					linkField.set(result, new Links(mapLinks(source.get(LINKS))));
+				}
+			}
+
+			if (result != null) {
+				// Add parsed object to cache
+				resourceCache.cache(identifier, result);
+
+				// Set object id
+				setIdValue(result, source.get(ID));
+
+				// Set object lid
+				setLocalIdValue(result, source.get(LOCAL_ID));
+
+				if (resourceStore != null && source.hasNonNull(ID)) {
+					resourceStore.put(source.get(TYPE).asText(), source.get(ID).asText(), result);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Binds resource attributes, using the instance bound in parallel if there is one.
+	 * @param source resource node
+	 * @param attributes attributes to bind
+	 * @param type resolved resource type
+	 * @param bound resources bound in parallel by their nodes, can be <code>null</code>
+	 * @return resource instance
+	 * @throws IOException
+	 */
+	private Object readAttributes(JsonNode source, JsonNode attributes, Class<?> type, Map<JsonNode, Object> bound)
+			throws IOException {
+		Object result = bound != null ? bound.remove(source) : null;
+
+		if (type.isInstance(result)) {
+			return result;
+		}
+
+		return objectMapper.treeToValue(attributes, type);
+	}
+
+	/**
+	 * Binds attributes of primary and included resources in parallel, in case parallel binding is enabled and
+	 * document is large enough. See {@link ParallelAttributeBinder}.
+	 * @param rootNode document root
+	 * @param clazz primary resource type
+	 * @return bound resources by their nodes or <code>null</code> in case attributes were not bound
+	 * @throws Exception in case attributes of a resource cannot be bound
+	 */
+	private Map<JsonNode, Object> bindAttributes(JsonNode rootNode, Class<?> clazz) throws Exception {
+		ParallelAttributeBinder binder = parallelAttributeBinder;
+		return binder != null ? binder.bind(rootNode, clazz, getDeserializationContext()) : null;
+	}
+
+	/**
+	 * Sets up settings of a read call for current thread.
+	 * @param settings {@link DeserializationSettings} call settings, can be <code>null</code>
+	 * @return settings of the enclosing call, to be restored once the call completes
+	 */
+	private DeserializationContext enterDeserializationContext(DeserializationSettings settings) {
+		DeserializationContext previous = deserializationContext.get();
+
+		// Nested reads (eg. resolved relationships) inherit settings of the enclosing call
+		if (settings != null || previous == null) {
+			deserializationContext.set(new DeserializationContext(deserializationFeatures, settings));
+		}
+
+		return previous;
+	}
+
+	private void restoreDeserializationContext(DeserializationContext previous) {
+		if (previous != null) {
+			deserializationContext.set(previous);
+		} else {
+			deserializationContext.remove();
+		}
+	}
+
+	/**
+	 * Returns settings of the current read call.
+	 * @return {@link DeserializationContext}
+	 */
+	private DeserializationContext getDeserializationContext() {
+		DeserializationContext context = deserializationContext.get();
+		return context != null ? context : new DeserializationContext(deserializationFeatures, null);
+	}
+
+	private int countResources(JsonNode rootNode) {
+		JsonNode dataNode = rootNode.get(DATA);
+		JsonNode includedNode = rootNode.get(INCLUDED);
+
+		int count = dataNode == null || dataNode.isNull() ? 0 : dataNode.isArray() ? dataNode.size() : 1;
+		return count + (includedNode != null && includedNode.isArray() ? includedNode.size() : 0);
+	}
+
+	/**
+	 * Returns instance of the resource from the resource store.
+	 * @param source resource node
+	 * @param type resolved resource type
+	 * @return stored resource or <code>null</code> in case store is not used, resource is not stored or stored
+	 * instance is not of the resolved type
+	 */
+	private Object getStoredResource(JsonNode source, Class<?> type) {
+		Map<String, Object> targets = mergeTargets.get();
+		ResourceStore store = resourceStore;
+
+		if ((targets == null && store == null) || !source.hasNonNull(ID) || !source.hasNonNull(TYPE)) {
+			return null;
+		}
+
+		Object stored = null;
+
+		if (targets != null) {
+			stored = targets.get(createMergeKey(source.get(TYPE).asText(), source.get(ID).asText()));
+		}
+
+		if (stored == null && store != null) {
+			stored = store.get(source.get(TYPE).asText(), source.get(ID).asText());
+		}
+
+		return type.isInstance(stored) ? stored : null;
+	}
+
+	/**
+	 * Collects resources that documents are merged onto, starting with provided roots and following relationships.
+	 * @param roots root resources
+	 * @return map of resources by their type and id
+	 * @throws IllegalAccessException
+	 */
+	private Map<String, Object> collectMergeTargets(Collection<?> roots) throws IllegalAccessException {
+		Map<String, Object> result = new HashMap<>();
+		Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+		Deque<Object> queue = new ArrayDeque<>();
+
+		for (Object root : roots) {
+			if (root != null) {
+				queue.add(root);
+			}
+		}
+
+		Object resource;
+		while ((resource = queue.poll()) != null) {
+			if (!visited.add(resource) || !configuration.isRegisteredType(resource.getClass())) {
+				continue;
+			}
+
+			String id = getIdValue(resource);
+			if (id != null) {
+				String key = createMergeKey(configuration.getTypeName(resource.getClass()), id);
+
+				// First occurrence wins, same resource can be reachable through different instances
+				if (!result.containsKey(key)) {
+					result.put(key, resource);
+				}
+			}
+
+			for (Field relationshipField : configuration.getRelationshipFields(resource.getClass())) {
+				Object relationship = relationshipField.get(resource);
+
+				if (relationship instanceof Collection) {
+					for (Object element : (Collection<?>) relationship) {
+						if (element != null) {
+							queue.add(element);
+						}
+					}
+				} else if (relationship != null) {
+					queue.add(relationship);
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Registers target without an id as merge target of the primary resource, in case their types match.
+	 * @param dataNode primary resource node
+	 * @param target target resource
+	 * @param targets merge targets
+	 * @throws IllegalAccessException
+	 */
+	private void addUnidentifiedMergeTarget(JsonNode dataNode, Object target, Map<String, Object> targets)
+			throws IllegalAccessException {
+		String type = configuration.getTypeName(target.getClass());
+
+		if (getIdValue(target) == null && dataNode.hasNonNull(ID) && dataNode.hasNonNull(TYPE) &&
+				dataNode.get(TYPE).asText().equals(type)) {
+			targets.put(createMergeKey(type, dataNode.get(ID).asText()), target);
+		}
+	}
+
+	private void restoreMergeTargets(Map<String, Object> previous) {
+		if (previous != null) {
+			mergeTargets.set(previous);
+		} else {
+			mergeTargets.remove();
+		}
+	}
+
+	private static String createMergeKey(String type, String id) {
+		return type.concat(":").concat(id);
+	}
+
+
+	/**
+	 * Converts included data and returns it as pairs of its unique identifiers and converted types.
+	 * @param parent data source
+	 * @param bound resources bound in parallel by their nodes, can be <code>null</code>
+	 * @return identifier/object pairs
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 */
+	private Map<String, Object> parseIncluded(JsonNode parent, Map<JsonNode, Object> bound)
+			throws IOException, IllegalAccessException, InstantiationException {
+		Map<String, Object> result = new HashMap<>();
+
+		if (parent.has(INCLUDED)) {
+			// Get resources
+			Map<String, Object> includedResources = getIncludedResources(parent, bound);
+
+			if (!includedResources.isEmpty()) {
+				// Add to result
+				for (String identifier : includedResources.keySet()) {
+					result.put(identifier, includedResources.get(identifier));
+				}
+
+				ArrayNode includedArray = (ArrayNode) parent.get(INCLUDED);
+				for (int i = 0; i < includedArray.size(); i++) {
+					// Handle relationships
+					JsonNode node = includedArray.get(i);
+					Object resourceObject = includedResources.get(createIdentifier(node));
+						if (resourceObject != null){
+							handleRelationships(node, resourceObject);
+						}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Parses out included resources excluding relationships.
+	 * @param parent root node
+	 * @param bound resources bound in parallel by their nodes, can be <code>null</code>
+	 * @return map of identifier/resource pairs
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	private Map<String, Object> getIncludedResources(JsonNode parent, Map<JsonNode, Object> bound)
+			throws IOException, IllegalAccessException, InstantiationException {
+		Map<String, Object> result = new HashMap<>();
+
+		JsonNode included = parent.get(INCLUDED);
+		ValidationUtils.ensureValidResourceObjectArray(included);
+
+		for (JsonNode jsonNode : included) {
+			String type = jsonNode.get(TYPE).asText();
+			Class<?> clazz = configuration.getTypeClass(type);
+			if (clazz != null) {
+				Object object = readObject(jsonNode, clazz, bound);
+				if (object != null) {
+					result.put(createIdentifier(jsonNode), object);
+				}
+			} else if (!getDeserializationContext().isEnabled(DeserializationFeature.ALLOW_UNKNOWN_INCLUSIONS)) {
+				throw new IllegalArgumentException("Included section contains unknown resource type: " + type);
+			}
+		}
+
+		return result;
+	}
+
+	private void handleRelationships(JsonNode source, Object object)
+			throws IllegalAccessException, IOException, InstantiationException {
+		JsonNode relationships = source.get(RELATIONSHIPS);
+		DeserializationContext context = getDeserializationContext();
+		String sourceType = source.get(TYPE).asText();
+
+		if (relationships != null) {
+			Iterator<String> fields = relationships.fieldNames();
+
+			while (fields.hasNext()) {
+				String field = fields.next();
+
+				if (!context.isFieldIncluded(sourceType, field)) {
+					continue;
+				}
+
+				JsonNode relationship = relationships.get(field);
+				Field relationshipField = configuration.getRelationshipField(object.getClass(), field);
+
+				if (relationshipField != null) {
+					// Get target type
+					Class<?> type = configuration.getRelationshipType(object.getClass(), field);
+
+					// In case type is not defined, relationship object cannot be processed
+					if (type == null) {
+						continue;
+					}
+
+					// Handle meta if present
+					if (relationship.has(META)) {
+						Field relationshipMetaField = configuration.getRelationshipMetaField(object.getClass(), field);
+
+						if (relationshipMetaField != null) {
+							relationshipMetaField.set(object, objectMapper.treeToValue(relationship.get(META),
+									configuration.getRelationshipMetaType(object.getClass(), field)));
+						}
+					}
+
+					// Handle links if present
+					if (relationship.has(LINKS)) {
+						Field relationshipLinksField = configuration.getRelationshipLinksField(object.getClass(), field);
+						if (relationshipLinksField != null) {
+							Links links = new Links(mapLinks(relationship.get(LINKS)));
+							relationshipLinksField.set(object, links);
+						}
+					}
+
+					// Get resolve flag
+					boolean resolveRelationship = configuration.getFieldRelationship(relationshipField).resolve();
+					RelationshipResolver resolver = getResolver(type);
+
+					// Use resolver if possible
+					if (resolveRelationship && resolver != null && relationship.has(LINKS) &&
+							context.shouldResolveRelationships()) {
+						String relType = configuration.getFieldRelationship(relationshipField).relType().getRelName();
+						JsonNode linkNode = relationship.get(LINKS).get(relType);
+
+						String link;
+
+						if (linkNode != null && ((link = getLink(linkNode)) != null)) {
+							// Resolving is deferred, resolved document can have relationships that need resolving too
+							pendingRelationships.get().add(new ResolvedRelationship(object, relationshipField, type,
+									resolver, link, isCollection(relationship)));
+						}
+					} else {
+						if (isCollection(relationship)) {
+							@SuppressWarnings("rawtypes")
+							Collection elements = createCollectionInstance(relationshipField.getType());
+
+							for (JsonNode element : relationship.get(DATA)) {
+								try {
+									Object relationshipObject = parseRelationship(element, type);
+									if (relationshipObject != null) {
+										elements.add(relationshipObject);
+									}
+								} catch (UnregisteredTypeException ex) {
+									// Don't raise exception if the relationship is an interface and that we accept new type
+									if (relationshipField.getType().isInterface() &&
+											!context.isEnabled(DeserializationFeature.ALLOW_UNKNOWN_TYPE_IN_RELATIONSHIP)) {
+										throw ex;
+									}
+								}
+							}
+							relationshipField.set(object, elements);
+						} else {
+							try {
+							Object relationshipObject = parseRelationship(relationship.get(DATA), type);
+								if (relationshipObject != null) {
+									relationshipField.set(object, relationshipObject);
+								}
+							} catch (UnregisteredTypeException ex) {
+								// Don't raise exception if the relationship is an interface and that we accept new type
+								if (relationshipField.getType().isInterface() &&
+										!context.isEnabled(DeserializationFeature.ALLOW_UNKNOWN_TYPE_IN_RELATIONSHIP)) {
+									throw ex;
+								}
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Accepts a JsonNode which encapsulates a link.  The link may be represented as a simple string or as
+	 * <a href="http://jsonapi.org/format/#document-links">link</a> object.  This method introspects on the
+	 * {@code linkNode}, returning the value of the {@code href} member, if it exists, or returns the string form
+	 * of the {@code linkNode} if it doesn't.
+	 * <p>
+	 * <em>Package-private for unit testing.</em>
+	 * </p>
+	 * @param linkNode a JsonNode representing a link, may return {@code null}
+	 * @return the link URL
+	 */
+	String getLink(JsonNode linkNode) {
+		// Handle both representations of a link: as a string or as an object
+		// http://jsonapi.org/format/#document-links (v1.0)
+		if (linkNode.has(HREF)) {
+			// object form
+			return linkNode.get(HREF).asText();
+		}
+		return linkNode.asText(null);
+	}
+
+	/**
+	 * Creates relationship object by consuming provided resource linkage 'DATA' node.
+	 * @param relationshipDataNode relationship data node
+	 * @param type object type
+	 * @return created object or <code>null</code> in case data node is not valid
+	 * @throws IOException
+	 * @throws IllegalAccessException
+	 * @throws InstantiationException
+	 */
+	private Object parseRelationship(JsonNode relationshipDataNode, Class<?> type)
+			throws IOException, IllegalAccessException, InstantiationException {
+		if (ValidationUtils.isResourceIdentifierObject(relationshipDataNode)) {
+			String identifier = createIdentifier(relationshipDataNode);
+
+			if (resourceCache.contains(identifier)) {
+				return resourceCache.get(identifier);
+			} else {
+				// Never cache relationship objects
+				resourceCache.lock();
+				try {
+					Object result = readObject(relationshipDataNode, type, null);
+
+					if (result != null && relationshipDataNode.has(RELATIONSHIPS)) {
+						pendingRelationships.get().add(new UncachedRelationships(relationshipDataNode, result));
+					}
+
+					return result;
+				} finally {
+					resourceCache.unlock();
+				}
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Generates unique resource identifier by combining resource type and resource id/local id fields. <br />
+	 * By specification id/type combination guarantees uniqueness.
+	 * @param object data object
+	 * @return concatenated id and type values
+	 */
+	private String createIdentifier(JsonNode object) throws IllegalArgumentException {
+		JsonNode idNode = object.get(ID);
+		JsonNode lidNode = object.get(LOCAL_ID);
+
+		String id = idNode != null ? idNode.asText().trim() : "";
+		String lid = lidNode != null ? lidNode.asText().trim() : "";
+
+		DeserializationContext context = getDeserializationContext();
+
+		if (id.isEmpty() && context.isEnabled(DeserializationFeature.REQUIRE_RESOURCE_ID)) {
+			throw new IllegalArgumentException(String.format("Resource must have a non null and non-empty 'id' attribute! %s", object));
+		}
+
+		if (lid.isEmpty() && context.isEnabled(DeserializationFeature.REQUIRE_LOCAL_RESOURCE_ID)) {
+			throw new IllegalArgumentException(String.format("Resource must have a non null and non-empty 'lid' attribute! %s", object));
+		}
+
+		if (!id.isEmpty() && !lid.isEmpty()) {
+			throw new IllegalArgumentException(String.format("Resource must not have both 'id' and 'lid' attributes! %s", object));
+		}
+
+		JsonNode typeNode = object.get(TYPE);
+
+		String type = typeNode != null ? typeNode.asText().trim() : "";
+
+		if (type.isEmpty()) {
+			throw new IllegalArgumentException(String.format("Resource must have a non null and non-empty 'type' attribute! %s", object));
+		}
+
+		if (id.isEmpty()) {
+			return type.concat(lid);
+		} else {
+			return type.concat(id);
+		}
+	}
+
+	/**
+	 * Sets an id attribute value to a target object.
+	 * @param target target POJO
+	 * @param idValue id node
+	 * @throws IllegalAccessException thrown in case target field is not accessible
+	 */
+	private void setIdValue(Object target, JsonNode idValue) throws IllegalAccessException {
+		Field idField = configuration.getIdField(target.getClass());
+		ResourceIdHandler idHandler = configuration.getIdHandler(target.getClass());
+
+		if (idValue != null) {
+			idField.set(target, idHandler.fromString(idValue.asText()));
+		}
+	}
+
+	/**
+	 * Sets the local id attribute value to a target object.
+	 * @param target target POJO
+	 * @param localIdNode local id node
+	 * @throws IllegalAccessException thrown in case target field is not accessible
+	 */
+	private void setLocalIdValue(Object target, JsonNode localIdNode) throws IllegalAccessException {
+		Field idField = configuration.getLocalIdField(target.getClass());
+		ResourceIdHandler idHandler = configuration.getLocalIdHandler(target.getClass());
+
+		if (localIdNode != null) {
+			idField.set(target, idHandler.fromString(localIdNode.asText()));
+		}
+	}
+
+	/**
+	 * Reads @Id value from provided source object.
+	 *
+	 * @param source object to read @Id value from
+	 * @return {@link String} id or <code>null</code>
+	 * @throws IllegalAccessException
+	 */
+	private String getIdValue(Object source) throws IllegalAccessException {
+		Field idField = configuration.getIdField(source.getClass());
+		ResourceIdHandler handler = configuration.getIdHandler(source.getClass());
+
+		return handler.asString(idField.get(source));
+	}
+
+	/**
+	 * Reads @LocalId value from provided source object.
+	 *
+	 * @param source object to read @LocalId value from
+	 * @return {@link String} id or <code>null</code>
+	 * @throws IllegalAccessException
+	 */
+	private String getLocalIdValue(Object source) throws IllegalAccessException {
+		Field localIdField = configuration.getLocalIdField(source.getClass());
+
+		// Local id is not required, so it can be null
+		if (localIdField != null) {
+			ResourceIdHandler handler = configuration.getLocalIdHandler(source.getClass());
+			return handler.asString(localIdField.get(source));
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Checks if <code>data</code> object is an array or just single object holder.
+	 * @param source data node
+	 * @return <code>true</code> if data node is an array else <code>false</code>
+	 */
+	private boolean isCollection(JsonNode source) {
+		JsonNode data = source.get(DATA);
+		return data != null && data.isArray();
+	}
+
+
+	/**
+	 * Converts input object to byte array.
+	 * @param object input object
+	 * @return raw bytes
+	 * @throws JsonProcessingException
+	 * @throws IllegalAccessException
+	 */
+	@Deprecated
+	public byte [] writeObject(Object object) throws JsonProcessingException, IllegalAccessException {
+		try {
+			return writeDocument(new JSONAPIDocument<>(object));
+		} catch (DocumentSerializationException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible byte representation.
+	 * @param document {@link JSONAPIDocument} document to serialize
+	 * @return serialized content in bytes
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public byte [] writeDocument(JSONAPIDocument<?> document) throws DocumentSerializationException {
+		return writeDocument(document, null);
+	}
+
+	/**
+	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible byte representation.
+	 *
+	 * @param document {@link JSONAPIDocument} document to serialize
+	 * @param settings {@link SerializationSettings} settings that override global serialization settings
+	 * @return serialized content in bytes
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public byte [] writeDocument(JSONAPIDocument<?> document, SerializationSettings settings)
+			throws DocumentSerializationException {
+		try {
+			return objectMapper.writeValueAsBytes(createDocumentNode(document, settings));
+		} catch (Exception e) {
+			throw new DocumentSerializationException(e);
+		}
+	}
+
+	/**
+	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible representation and writes it to
+	 * provided output stream.
+	 * <p>
+	 *     Stream can be wrapped using {@link DigestOutputStream} in order to compute document digest (eg. for ETag
+	 *     header) while it is being written.
+	 * </p>
+	 *
+	 * @param document {@link JSONAPIDocument} document to serialize
+	 * @param settings {@link SerializationSettings} settings that override global serialization settings
+	 * @param outputStream {@link OutputStream} target stream, it is flushed but not closed
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public void writeDocument(JSONAPIDocument<?> document, SerializationSettings settings, OutputStream outputStream)
+			throws DocumentSerializationException {
+		try (JsonGenerator generator = createGenerator(outputStream)) {
+			objectMapper.writeTree(generator, createDocumentNode(document, settings));
+			generator.flush();
+		} catch (Exception e) {
+			throw new DocumentSerializationException(e);
+		}
+	}
+
+	/**
+	 * Serializes provided documents into JSON Lines representation, writing each document on a separate line.
+	 * <p>
+	 *     All documents are written using a single generator, each line is written once its document is serialized.
+	 *     Documents that cannot be serialized are skipped and returned, writing continues with the following document.
+	 *     Output is never indented. Supported for JSON only, as binary formats have no line representation.
+	 * </p>
+	 * @param documents {@link Iterator} documents to serialize
+	 * @param settings {@link SerializationSettings} settings that override global serialization settings
+	 * @param outputStream {@link OutputStream} target stream, it is flushed but not closed
+	 * @return {@link Map} of skipped documents' errors, by document position starting with 1
+	 * @throws DocumentSerializationException thrown in case output cannot be written
+	 */
+	public Map<Long, DocumentSerializationException> writeDocumentLines(
+			Iterator<? extends JSONAPIDocument<?>> documents, SerializationSettings settings,
+			OutputStream outputStream) throws DocumentSerializationException {
+		ensureJsonLinesSupported();
 
-			if (source.has(ATTRIBUTES)) {
-				result = (T) objectMapper.treeToValue(source.get(ATTRIBUTES), type);
-			} else {
-				if (type.isInterface()) {
-					result = null;
-				} else {
-					result = (T) objectMapper.treeToValue(objectMapper.createObjectNode(), type);
-				}
-			}
+		Map<Long, DocumentSerializationException> failures = new LinkedHashMap<>();
 
-			// Handle meta
-			if (source.has(META)) {
-				Field field = configuration.getMetaField(type);
-				if (field != null) {
-					Class<?> metaType = configuration.getMetaType(type);
-					Object metaObject = objectMapper.treeToValue(source.get(META), metaType);
-					field.set(result, metaObject);
-				}
-			}
+		try (JsonGenerator generator = createGenerator(outputStream)) {
+			generator.setPrettyPrinter(new MinimalPrettyPrinter(""));
+			long position = 0;
 
-			// Handle links
-			if (source.has(LINKS)) {
-				Field linkField = configuration.getLinksField(type);
-				if (linkField != null) {
-					linkField.set(result, new Links(mapLinks(source.get(LINKS))));
+			while (documents.hasNext()) {
+				JSONAPIDocument<?> document = documents.next();
+				position++;
+
+				ObjectNode documentNode;
+				try {
+					documentNode = createDocumentNode(document, settings);
+				} catch (Exception e) {
+					failures.put(position, new DocumentSerializationException(e));
+					continue;
 				}
+
+				objectMapper.writeTree(generator, documentNode);
+				generator.writeRaw('\n');
 			}
 
-			if (result != null) {
-				// Add parsed object to cache
-				resourceCache.cache(identifier, result);
+			generator.flush();
+		} catch (IOException e) {
+			throw new DocumentSerializationException(e);
+		}
 
-				// Set object id
-				setIdValue(result, source.get(ID));
+		return failures;
+	}
 
-				// Set object lid
-				setLocalIdValue(result, source.get(LOCAL_ID));
+	/**
+	 * Computes digest of provided {@link JSONAPIDocument} serialized into JSON API Spec compatible representation,
+	 * without producing the serialized document.
+	 * <p>
+	 *     Digest is equal to the digest of the document returned by {@link #writeDocument(JSONAPIDocument,
+	 *     SerializationSettings)}. Enable {@link SerializationSettings.Builder#sortIncluded(Boolean)} for digest to
+	 *     be independent of the order in which related resources are reached.
+	 * </p>
+	 *
+	 * @param document {@link JSONAPIDocument} document
+	 * @param settings {@link SerializationSettings} settings that override global serialization settings
+	 * @param digest {@link MessageDigest} digest to update, eg. <code>MessageDigest.getInstance("SHA-256")</code>
+	 * @return digest value
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public byte [] digestDocument(JSONAPIDocument<?> document, SerializationSettings settings, MessageDigest digest)
+			throws DocumentSerializationException {
+		writeDocument(document, settings, new DigestOutputStream(new DiscardingOutputStream(), digest));
+		return digest.digest();
+	}
 
-				if (handleRelationships) {
-					// Handle relationships
-					handleRelationships(source, result);
-				}
-			}
-		}
+	/**
+	 * Computes digest of provided collection document serialized into JSON API Spec compatible representation,
+	 * without producing the serialized document.
+	 * <p>
+	 *     Document is serialized using {@link #writeDocumentCollection(JSONAPIDocument, SerializationSettings,
+	 *     OutputStream)}, so only included resources are kept in memory while digest is computed.
+	 * </p>
+	 *
+	 * @param documentCollection {@link JSONAPIDocument} document collection
+	 * @param settings {@link SerializationSettings} settings that override global serialization settings
+	 * @param digest {@link MessageDigest} digest to update
+	 * @return digest value
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public byte [] digestDocumentCollection(JSONAPIDocument<? extends Iterable<?>> documentCollection,
+											SerializationSettings settings, MessageDigest digest)
+			throws DocumentSerializationException {
+		writeDocumentCollection(documentCollection, settings,
+				new DigestOutputStream(new DiscardingOutputStream(), digest));
+		return digest.digest();
+	}
 
-		return result;
+	/**
+	 * Captures current state of provided resource, to be used as a baseline for
+	 * {@link #writeDocumentChanges(JSONAPIDocument, ResourceSnapshot)}.
+	 * @param resource resource, must have an id or a local id
+	 * @return {@link ResourceSnapshot}
+	 */
+	public ResourceSnapshot snapshot(Object resource) {
+		try {
+			return createSnapshot(resource);
+		} catch (IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
+	/**
+	 * Serializes changes of the document resource since provided snapshot was taken, eg. for a <code>PATCH</code>
+	 * request.
+	 * @param document {@link JSONAPIDocument} document holding changed resource
+	 * @param baseline {@link ResourceSnapshot} snapshot of the resource
+	 * @return serialized content in bytes
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public byte [] writeDocumentChanges(JSONAPIDocument<?> document, ResourceSnapshot baseline)
+			throws DocumentSerializationException {
+		return writeDocumentChanges(document, baseline, null);
+	}
 
 	/**
-	 * Converts included data and returns it as pairs of its unique identifiers and converted types.
-	 * @param parent data source
-	 * @return identifier/object pairs
-	 * @throws IOException
-	 * @throws IllegalAccessException
+	 * Serializes changes of the document resource since provided snapshot was taken, eg. for a <code>PATCH</code>
+	 * request.
+	 * <p>
+	 *     Attributes and relationships are compared one by one with their values in the snapshot, resulting document
+	 *     contains resource type, id and only attributes and relationship linkage that differ. Attributes that were
+	 *     set to <code>null</code> are written as <code>null</code> values. Document has no <code>included</code>
+	 *     section, resource links and meta are not written.
+	 * </p>
+	 * @param document {@link JSONAPIDocument} document holding changed resource
+	 * @param baseline {@link ResourceSnapshot} snapshot of the resource
+	 * @param settings {@link SerializationSettings} settings that override global serialization settings
+	 * @return serialized content in bytes
+	 * @throws DocumentSerializationException thrown in case serialization fails
 	 */
-	private Map<String, Object> parseIncluded(JsonNode parent)
-			throws IOException, IllegalAccessException, InstantiationException {
-		Map<String, Object> result = new HashMap<>();
+	public byte [] writeDocumentChanges(JSONAPIDocument<?> document, ResourceSnapshot baseline,
+										SerializationSettings settings) throws DocumentSerializationException {
+		try {
+			Object resource = document.get();
 
-		if (parent.has(INCLUDED)) {
-			// Get resources
-			Map<String, Object> includedResources = getIncludedResources(parent);
+			if (resource == null) {
+				throw new IllegalArgumentException("Document must contain a resource");
+			}
 
-			if (!includedResources.isEmpty()) {
-				// Add to result
-				for (String identifier : includedResources.keySet()) {
-					result.put(identifier, includedResources.get(identifier));
-				}
+			ResourceSnapshot current = createSnapshot(resource);
 
-				ArrayNode includedArray = (ArrayNode) parent.get(INCLUDED);
-				for (int i = 0; i < includedArray.size(); i++) {
-					// Handle relationships
-					JsonNode node = includedArray.get(i);
-					Object resourceObject = includedResources.get(createIdentifier(node));
-						if (resourceObject != null){
-							handleRelationships(node, resourceObject);
-						}
-				}
+			if (!current.getIdentifier().equals(baseline.getIdentifier())) {
+				throw new IllegalArgumentException("Snapshot was taken of a different resource");
 			}
-		}
 
-		return result;
+			ObjectNode dataNode = createIdentifierNode(resource);
+
+			ObjectNode attributesNode = diff(baseline.getAttributes(), current.getAttributes());
+			if (!attributesNode.isEmpty()) {
+				dataNode.set(ATTRIBUTES, attributesNode);
+			}
+
+			ObjectNode relationshipsNode = objectMapper.createObjectNode();
+			ObjectNode changedLinkage = diff(baseline.getRelationships(), current.getRelationships());
+			Iterator<Map.Entry<String, JsonNode>> relationships = changedLinkage.fields();
+
+			while (relationships.hasNext()) {
+				Map.Entry<String, JsonNode> relationship = relationships.next();
+				relationshipsNode.putObject(relationship.getKey()).set(DATA, relationship.getValue());
+			}
+
+			if (!relationshipsNode.isEmpty()) {
+				dataNode.set(RELATIONSHIPS, relationshipsNode);
+			}
+
+			ObjectNode result = objectMapper.createObjectNode();
+			result.set(DATA, dataNode);
+
+			serializeMeta(document, result, settings);
+			serializeJSONAPIObject(document, result, settings);
+
+			return objectMapper.writeValueAsBytes(result);
+		} catch (Exception e) {
+			throw new DocumentSerializationException(e);
+		}
 	}
 
 	/**
-	 * Parses out included resources excluding relationships.
-	 * @param parent root node
-	 * @return map of identifier/resource pairs
-	 * @throws IOException
+	 * Captures serialized attributes and relationship linkage of provided resource.
+	 * @param resource resource
+	 * @return {@link ResourceSnapshot}
 	 * @throws IllegalAccessException
-	 * @throws InstantiationException
 	 */
-	private Map<String, Object> getIncludedResources(JsonNode parent) throws IOException, IllegalAccessException, InstantiationException {
-		Map<String, Object> result = new HashMap<>();
+	private ResourceSnapshot createSnapshot(Object resource) throws IllegalAccessException {
+		Class<?> clazz = resource.getClass();
 
-		JsonNode included = parent.get(INCLUDED);
-		ValidationUtils.ensureValidResourceObjectArray(included);
+		if (!configuration.isRegisteredType(clazz)) {
+			throw new IllegalArgumentException(String.format("Class '%s' is not registered", clazz.getName()));
+		}
 
-		for (JsonNode jsonNode : included) {
-			String type = jsonNode.get(TYPE).asText();
-			Class<?> clazz = configuration.getTypeClass(type);
-			if (clazz != null) {
-				Object object = readObject(jsonNode, clazz, false);
-				if (object != null) {
-					result.put(createIdentifier(jsonNode), object);
+		String identifier = getIdentifier(resource);
+
+		if (identifier == null) {
+			throw new IllegalArgumentException("Resource must have either an id or lid!");
+		}
+
+		ObjectNode attributesNode = attributeSerializer.toAttributes(resource);
+		ObjectNode relationshipsNode = objectMapper.createObjectNode();
+
+		removeField(attributesNode, configuration.getIdField(clazz));
+		removeField(attributesNode, configuration.getLocalIdField(clazz));
+		removeField(attributesNode, configuration.getMetaField(clazz));
+		removeField(attributesNode, configuration.getLinksField(clazz));
+
+		List<Field> relationshipFields = configuration.getRelationshipFields(clazz);
+
+		if (relationshipFields != null) {
+			for (Field relationshipField : relationshipFields) {
+				Relationship relationship = configuration.getFieldRelationship(relationshipField);
+				String relationshipName = relationship.value();
+
+				removeField(attributesNode, relationshipField);
+				removeField(attributesNode, configuration.getRelationshipMetaField(clazz, relationshipName));
+				removeField(attributesNode, configuration.getRelationshipLinksField(clazz, relationshipName));
+
+				if (relationship.serialise() && relationship.serialiseData()) {
+					Object relationshipObject = relationshipField.get(resource);
+
+					if (relationshipObject instanceof Collection) {
+						ArrayNode linkage = relationshipsNode.putArray(relationshipName);
+
+						for (Object element : (Collection<?>) relationshipObject) {
+							linkage.add(createIdentifierNode(element));
+						}
+					} else if (relationshipObject != null) {
+						relationshipsNode.set(relationshipName, createIdentifierNode(relationshipObject));
+					} else {
+						relationshipsNode.putNull(relationshipName);
+					}
 				}
-			} else if (!deserializationFeatures.contains(DeserializationFeature.ALLOW_UNKNOWN_INCLUSIONS)) {
-				throw new IllegalArgumentException("Included section contains unknown resource type: " + type);
 			}
 		}
 
-		return result;
+		return new ResourceSnapshot(configuration.getTypeName(clazz), identifier, attributesNode, relationshipsNode);
 	}
 
-	private void handleRelationships(JsonNode source, Object object)
-			throws IllegalAccessException, IOException, InstantiationException {
-		JsonNode relationships = source.get(RELATIONSHIPS);
+	/**
+	 * Returns members of <code>current</code> node that differ from members of <code>baseline</code> node. Members
+	 * missing from <code>current</code> node are returned as <code>null</code> values.
+	 * @param baseline baseline node
+	 * @param current current node
+	 * @return {@link ObjectNode} changed members
+	 */
+	private ObjectNode diff(ObjectNode baseline, ObjectNode current) {
+		ObjectNode result = objectMapper.createObjectNode();
+		Iterator<Map.Entry<String, JsonNode>> fields = current.fields();
 
-		if (relationships != null) {
-			Iterator<String> fields = relationships.fieldNames();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
 
-			while (fields.hasNext()) {
-				String field = fields.next();
+			if (!field.getValue().equals(baseline.get(field.getKey()))) {
+				result.set(field.getKey(), field.getValue());
+			}
+		}
 
-				JsonNode relationship = relationships.get(field);
-				Field relationshipField = configuration.getRelationshipField(object.getClass(), field);
+		Iterator<String> names = baseline.fieldNames();
 
-				if (relationshipField != null) {
-					// Get target type
-					Class<?> type = configuration.getRelationshipType(object.getClass(), field);
+		while (names.hasNext()) {
+			String name = names.next();
 
-					// In case type is not defined, relationship object cannot be processed
-					if (type == null) {
-						continue;
-					}
+			if (!current.has(name) && !baseline.get(name).isNull()) {
+				result.putNull(name);
+			}
+		}
 
-					// Handle meta if present
-					if (relationship.has(META)) {
-						Field relationshipMetaField = configuration.getRelationshipMetaField(object.getClass(), field);
+		return result;
+	}
 
-						if (relationshipMetaField != null) {
-							relationshipMetaField.set(object, objectMapper.treeToValue(relationship.get(META),
-									configuration.getRelationshipMetaType(object.getClass(), field)));
-						}
-					}
+	/**
+	 * Converts provided {@link JSONAPIDocument} into JSON API Spec compatible tree representation.
+	 *
+	 * @param document {@link JSONAPIDocument} document to convert
+	 * @param settings {@link SerializationSettings} settings that override global serialization settings
+	 * @return {@link ObjectNode} document node
+	 * @throws IllegalAccessException
+	 * @throws IOException
+	 */
+	private ObjectNode createDocumentNode(JSONAPIDocument<?> document, SerializationSettings settings)
+			throws IllegalAccessException, IOException {
+		IncludedResources included = new IncludedResources(objectMapper, null, null, shouldSortIncluded(settings));
+		SerializationContext context = new SerializationContext(included, settings);
+
+		ObjectNode result = objectMapper.createObjectNode();
+
+		// Serialize data if present
+		if (document.get() != null) {
+			JsonNode dataNode = getDataNode(document.get(), context.getIncludePaths(), context);
+			result.set(DATA, dataNode);
+
+			serializeIncluded(context);
+
+			// It is possible that relationships point back to top-level resource, in this case remove it from
+			// included section since it is already present (as a top level resource)
+			String identifier = String.valueOf(getIdValue(document.get()))
+					.concat(configuration.getTypeName(document.get().getClass()));
+			included.remove(identifier);
+			result = addIncludedSection(result, included, settings);
+		}
 
-					// Handle links if present
-					if (relationship.has(LINKS)) {
-						Field relationshipLinksField = configuration.getRelationshipLinksField(object.getClass(), field);
-						if (relationshipLinksField != null) {
-							Links links = new Links(mapLinks(relationship.get(LINKS)));
-							relationshipLinksField.set(object, links);
-						}
-					}
+		// Serialize errors if present
+		if (document.getErrors() != null) {
+			ArrayNode errorsNode = objectMapper.createArrayNode();
+			for (Error error : document.getErrors()) {
+				errorsNode.add(objectMapper.valueToTree(error));
+			}
 
-					// Get resolve flag
-					boolean resolveRelationship = configuration.getFieldRelationship(relationshipField).resolve();
-					RelationshipResolver resolver = getResolver(type);
+			result.set(ERRORS, errorsNode);
+		}
 
-					// Use resolver if possible
-					if (resolveRelationship && resolver != null && relationship.has(LINKS)) {
-						String relType = configuration.getFieldRelationship(relationshipField).relType().getRelName();
-						JsonNode linkNode = relationship.get(LINKS).get(relType);
+		// Serialize global links and meta
+		serializeMeta(document, result, settings);
+		serializeLinks(document, result, settings);
 
-						String link;
+		// Serialize JSON API object if present
+		serializeJSONAPIObject(document, result, settings);
 
-						if (linkNode != null && ((link = getLink(linkNode)) != null)) {
-							if (isCollection(relationship)) {
-								relationshipField.set(object,
-										readDocumentCollection(new ByteArrayInputStream(resolver.resolve(link)), type).get());
-							} else {
-								relationshipField.set(object, readDocument(new ByteArrayInputStream(resolver.resolve(link)), type).get());
-							}
-						}
-					} else {
-						if (isCollection(relationship)) {
-							@SuppressWarnings("rawtypes")
-							Collection elements = createCollectionInstance(relationshipField.getType());
+		return result;
+	}
 
-							for (JsonNode element : relationship.get(DATA)) {
-								try {
-									Object relationshipObject = parseRelationship(element, type);
-									if (relationshipObject != null) {
-										elements.add(relationshipObject);
-									}
-								} catch (UnregisteredTypeException ex) {
-									// Don't raise exception if the relationship is an interface and that we accept new type
-									if (relationshipField.getType().isInterface() &&
-											!deserializationFeatures.contains(DeserializationFeature.ALLOW_UNKNOWN_TYPE_IN_RELATIONSHIP)) {
-										throw ex;
-									}
-								}
-							}
-							relationshipField.set(object, elements);
-						} else {
-							try {
-							Object relationshipObject = parseRelationship(relationship.get(DATA), type);
-								if (relationshipObject != null) {
-									relationshipField.set(object, relationshipObject);
-								}
-							} catch (UnregisteredTypeException ex) {
-								// Don't raise exception if the relationship is an interface and that we accept new type
-								if (relationshipField.getType().isInterface() &&
-										!deserializationFeatures.contains(DeserializationFeature.ALLOW_UNKNOWN_TYPE_IN_RELATIONSHIP)) {
-									throw ex;
-								}
-							}
-						}
-					}
-				}
-			}
+	private void serializeMeta(JSONAPIDocument<?> document, ObjectNode resultNode, SerializationSettings settings) {
+		// Handle global links and meta
+		if (document.getMeta() != null && !document.getMeta().isEmpty() && shouldSerializeMeta(settings)) {
+			resultNode.set(META, objectMapper.valueToTree(document.getMeta()));
+		}
+	}
+
+	private void serializeLinks(JSONAPIDocument<?> document, ObjectNode resultNode, SerializationSettings settings) {
+		if (document.getLinks() != null && !document.getLinks().getLinks().isEmpty() && shouldSerializeLinks(settings)) {
+			resultNode.set(LINKS, objectMapper.valueToTree(document.getLinks()).get(LINKS));
+		}
+	}
+
+	private void serializeJSONAPIObject(JSONAPIDocument<?> document, ObjectNode resultNode, SerializationSettings settings) {
+		if (document.getJsonApi() != null && shouldSerializeJSONAPIObject(settings)) {
+			resultNode.set(JSON_API, objectMapper.valueToTree(document.getJsonApi()));
 		}
 	}
 
 	/**
-	 * Accepts a JsonNode which encapsulates a link.  The link may be represented as a simple string or as
-	 * <a href="http://jsonapi.org/format/#document-links">link</a> object.  This method introspects on the
-	 * {@code linkNode}, returning the value of the {@code href} member, if it exists, or returns the string form
-	 * of the {@code linkNode} if it doesn't.
+	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible byte representation.
+   *
+	 * @param documentCollection {@link JSONAPIDocument} document collection to serialize
+	 * @return serialized content in bytes
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public byte [] writeDocumentCollection(
+    JSONAPIDocument<? extends Iterable<?>> documentCollection
+  ) throws DocumentSerializationException {
+		return writeDocumentCollection(documentCollection, null);
+	}
+
+	/**
+	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible byte representation.
+	 * @param documentCollection {@link JSONAPIDocument} document collection to serialize
+	 * @param serializationSettings {@link SerializationSettings} settings that override global serialization settings
+	 * @return serialized content in bytes
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public byte [] writeDocumentCollection(JSONAPIDocument<? extends Iterable<?>> documentCollection,
+										   SerializationSettings serializationSettings)
+			throws DocumentSerializationException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		writeDocumentCollection(documentCollection, serializationSettings, outputStream);
+		return outputStream.toByteArray();
+	}
+
+	/**
+	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible representation and writes it to
+	 * provided output stream.
 	 * <p>
-	 * <em>Package-private for unit testing.</em>
+	 *     Resources are pulled from the collection one at a time and each <code>data</code> element is written as soon
+	 *     as it is serialized. See {@link #writeDocumentCollection(Iterator, JSONAPIDocument, SerializationSettings,
+	 *     OutputStream)} for details.
 	 * </p>
-	 * @param linkNode a JsonNode representing a link, may return {@code null}
-	 * @return the link URL
+	 * @param documentCollection {@link JSONAPIDocument} document collection to serialize
+	 * @param serializationSettings {@link SerializationSettings} settings that override global serialization settings
+	 * @param outputStream {@link OutputStream} target stream, it is flushed but not closed
+	 * @throws DocumentSerializationException thrown in case serialization fails
 	 */
-	String getLink(JsonNode linkNode) {
-		// Handle both representations of a link: as a string or as an object
-		// http://jsonapi.org/format/#document-links (v1.0)
-		if (linkNode.has(HREF)) {
-			// object form
-			return linkNode.get(HREF).asText();
+	public void writeDocumentCollection(JSONAPIDocument<? extends Iterable<?>> documentCollection,
+										SerializationSettings serializationSettings, OutputStream outputStream)
+			throws DocumentSerializationException {
+		if (documentCollection.get() == null) {
+			throw new DocumentSerializationException(
+					new IllegalArgumentException("Document collection data must not be null"));
 		}
-		return linkNode.asText(null);
+
+		writeDocumentCollection(documentCollection.get().iterator(), documentCollection, serializationSettings,
+				outputStream);
 	}
 
 	/**
-	 * Creates relationship object by consuming provided resource linkage 'DATA' node.
-	 * @param relationshipDataNode relationship data node
-	 * @param type object type
-	 * @return created object or <code>null</code> in case data node is not valid
-	 * @throws IOException
-	 * @throws IllegalAccessException
-	 * @throws InstantiationException
+	 * Serializes resources provided by the iterator as JSON API Spec compatible collection document and writes it to
+	 * provided output stream.
+	 * <p>
+	 *     Resources are pulled lazily, each <code>data</code> element is written as soon as it is serialized and is not
+	 *     retained afterwards. Only de-duplicated <code>included</code> resources (and identifiers of primary resources,
+	 *     used to keep them out of the <code>included</code> section) are kept in memory until the end of the document,
+	 *     when <code>included</code> section is written. This makes it possible to stream large result sets (eg. backed
+	 *     by a database cursor) directly to the client.
+	 * </p>
+	 * @param resources {@link Iterator} primary resources
+	 * @param document {@link JSONAPIDocument} document holding top-level meta, links and JSON API object, its data is
+	 *                 ignored, can be <code>null</code>
+	 * @param serializationSettings {@link SerializationSettings} settings that override global serialization settings
+	 * @param outputStream {@link OutputStream} target stream, it is flushed but not closed
+	 * @throws DocumentSerializationException thrown in case serialization fails
 	 */
-	private Object parseRelationship(JsonNode relationshipDataNode, Class<?> type)
-			throws IOException, IllegalAccessException, InstantiationException {
-		if (ValidationUtils.isResourceIdentifierObject(relationshipDataNode)) {
-			String identifier = createIdentifier(relationshipDataNode);
+	public void writeDocumentCollection(Iterator<?> resources, JSONAPIDocument<?> document,
+										SerializationSettings serializationSettings, OutputStream outputStream)
+			throws DocumentSerializationException {
+		try (JsonGenerator generator = createGenerator(outputStream);
+			 IncludedResources included = createIncludedResources(serializationSettings)) {
+			SerializationContext context = new SerializationContext(included, serializationSettings);
 
-			if (resourceCache.contains(identifier)) {
-				return resourceCache.get(identifier);
+			generator.writeStartObject();
+			generator.writeArrayFieldStart(DATA);
+
+			ParallelResourceWriter writer = parallelResourceWriter;
+
+			if (writer != null && context.getBudget() == null && !isIndentOutput()) {
+				writer.write(resources, generator, context);
 			} else {
-				// Never cache relationship objects
-				resourceCache.lock();
-				try {
-					return readObject(relationshipDataNode, type, true);
-				} finally {
-					resourceCache.unlock();
+				while (resources.hasNext()) {
+					writeData(resources.next(), generator, context);
 				}
 			}
+
+			generator.writeEndArray();
+
+			// Handle global links and meta
+			ObjectNode result = objectMapper.createObjectNode();
+
+			if (document != null) {
+				serializeMeta(document, result, serializationSettings);
+				serializeLinks(document, result, serializationSettings);
+				serializeJSONAPIObject(document, result, serializationSettings);
+			}
+
+			Iterator<Map.Entry<String, JsonNode>> fields = result.fields();
+			while (fields.hasNext()) {
+				Map.Entry<String, JsonNode> field = fields.next();
+				generator.writeFieldName(field.getKey());
+				objectMapper.writeTree(generator, field.getValue());
+			}
+
+			// Included resources are written last, spilled resources are copied directly to the output stream
+			if (shouldWriteIncludedSection(included, serializationSettings)) {
+				generator.writeFieldName(INCLUDED);
+				included.writeTo(generator, outputStream);
+			}
+
+			generator.writeEndObject();
+			generator.flush();
+		} catch (Exception e) {
+			throw new DocumentSerializationException(e);
 		}
+	}
 
-		return null;
+	/**
+	 * Writes primary resource of a collection document, followed by serialization of its included resources.
+	 * @param resource primary resource
+	 * @param generator {@link JsonGenerator} document generator
+	 * @param context {@link SerializationContext} serialization state
+	 * @throws IllegalAccessException
+	 * @throws IOException
+	 */
+	void writeData(Object resource, JsonGenerator generator, SerializationContext context)
+			throws IllegalAccessException, IOException {
+		objectMapper.writeTree(generator, getDataNode(resource, context.getIncludePaths(), context));
+
+		// Primary resource is written, only its identifier is needed from now on
+		context.release(resource, getIdentifier(resource));
+		serializeIncluded(context);
 	}
 
 	/**
-	 * Generates unique resource identifier by combining resource type and resource id/local id fields. <br />
-	 * By specification id/type combination guarantees uniqueness.
-	 * @param object data object
-	 * @return concatenated id and type values
+	 * Serializes provided operations into JSON API Atomic Operations request document
+	 * (<code>atomic:operations</code>).
+	 * @param operations {@link List} operations
+	 * @return serialized content in bytes
+	 * @throws DocumentSerializationException thrown in case serialization fails
 	 */
-	private String createIdentifier(JsonNode object) throws IllegalArgumentException {
-		JsonNode idNode = object.get(ID);
-		JsonNode lidNode = object.get(LOCAL_ID);
+	public byte [] writeAtomicOperations(List<AtomicOperation> operations) throws DocumentSerializationException {
+		return writeAtomicOperations(operations, null);
+	}
 
-		String id = idNode != null ? idNode.asText().trim() : "";
-		String lid = lidNode != null ? lidNode.asText().trim() : "";
+	/**
+	 * Serializes provided operations into JSON API Atomic Operations request document
+	 * (<code>atomic:operations</code>).
+	 * <p>
+	 *     Resources that have only a local id can be referenced (as operation target or trough relationships) only
+	 *     after they were created by a preceding <code>add</code> operation, otherwise serialization fails. Operation
+	 *     documents have no <code>included</code> section, related resources are written as resource identifiers.
+	 * </p>
+	 * @param operations {@link List} operations
+	 * @param settings {@link SerializationSettings} settings that override global serialization settings
+	 * @return serialized content in bytes
+	 * @throws DocumentSerializationException thrown in case serialization fails
+	 */
+	public byte [] writeAtomicOperations(List<AtomicOperation> operations, SerializationSettings settings)
+			throws DocumentSerializationException {
+		try {
+			SerializationContext context = new SerializationContext(new IncludedResources(objectMapper), settings);
+			Set<String> localIds = new HashSet<>();
+			ArrayNode operationsNode = objectMapper.createArrayNode();
 
-		if (id.isEmpty() && deserializationFeatures.contains(DeserializationFeature.REQUIRE_RESOURCE_ID)) {
-			throw new IllegalArgumentException(String.format("Resource must have a non null and non-empty 'id' attribute! %s", object));
-		}
+			for (AtomicOperation operation : operations) {
+				Object resource = operation.getResource();
+				String relationship = operation.getRelationship();
 
-		if (lid.isEmpty() && deserializationFeatures.contains(DeserializationFeature.REQUIRE_LOCAL_RESOURCE_ID)) {
-			throw new IllegalArgumentException(String.format("Resource must have a non null and non-empty 'lid' attribute! %s", object));
-		}
+				ObjectNode operationNode = operationsNode.addObject();
+				operationNode.put(OP, operation.getOp().getName());
 
-		if (!id.isEmpty() && !lid.isEmpty()) {
-			throw new IllegalArgumentException(String.format("Resource must not have both 'id' and 'lid' attributes! %s", object));
-		}
+				if (operation.getOp() == AtomicOperation.Op.ADD && relationship == null) {
+					String localId = getLocalIdValue(resource);
 
-		JsonNode typeNode = object.get(TYPE);
+					if (getIdValue(resource) == null && localId != null) {
+						localIds.add(createIdentifier(null, localId, configuration.getTypeName(resource.getClass())));
+					}
+				} else {
+					ensureLocalIdDefined(resource, localIds);
+				}
 
-		String type = typeNode != null ? typeNode.asText().trim() : "";
+				if (relationship != null) {
+					ObjectNode refNode = createIdentifierNode(resource);
+					refNode.put(RELATIONSHIP, relationship);
 
-		if (type.isEmpty()) {
-			throw new IllegalArgumentException(String.format("Resource must have a non null and non-empty 'type' attribute! %s", object));
-		}
+					operationNode.set(REF, refNode);
+					operationNode.set(DATA, createLinkageNode(resource, relationship, localIds));
+				} else if (operation.getOp() == AtomicOperation.Op.REMOVE) {
+					operationNode.set(REF, createIdentifierNode(resource));
+				} else {
+					ensureRelationshipLocalIdsDefined(resource, localIds);
+					operationNode.set(DATA, getDataNode(resource, null, context));
+				}
+			}
 
-		if (id.isEmpty()) {
-			return type.concat(lid);
-		} else {
-			return type.concat(id);
+			ObjectNode result = objectMapper.createObjectNode();
+			result.set(ATOMIC_OPERATIONS, operationsNode);
+
+			return objectMapper.writeValueAsBytes(result);
+		} catch (Exception e) {
+			throw new DocumentSerializationException(e);
 		}
 	}
 
+
 	/**
-	 * Sets an id attribute value to a target object.
-	 * @param target target POJO
-	 * @param idValue id node
-	 * @throws IllegalAccessException thrown in case target field is not accessible
+	 * Creates resource identifier object for provided resource.
+	 * @param resource resource
+	 * @return {@link ObjectNode} identifier node
+	 * @throws IllegalAccessException
 	 */
-	private void setIdValue(Object target, JsonNode idValue) throws IllegalAccessException {
-		Field idField = configuration.getIdField(target.getClass());
-		ResourceIdHandler idHandler = configuration.getIdHandler(target.getClass());
+	private ObjectNode createIdentifierNode(Object resource) throws IllegalAccessException {
+		String idValue = getIdValue(resource);
+		String localIdValue = getLocalIdValue(resource);
+
+		ObjectNode identifierNode = objectMapper.createObjectNode();
+		identifierNode.put(TYPE, configuration.getTypeName(resource.getClass()));
 
 		if (idValue != null) {
-			idField.set(target, idHandler.fromString(idValue.asText()));
+			identifierNode.put(ID, idValue);
+		} else if (localIdValue != null) {
+			identifierNode.put(LOCAL_ID, localIdValue);
+		} else {
+			throw new IllegalArgumentException("Resource must have either an id or lid!");
 		}
+
+		return identifierNode;
 	}
 
 	/**
-	 * Sets the local id attribute value to a target object.
-	 * @param target target POJO
-	 * @param localIdNode local id node
-	 * @throws IllegalAccessException thrown in case target field is not accessible
+	 * Creates relationship linkage (resource identifier, array of resource identifiers or <code>null</code>) using
+	 * current relationship value.
+	 * @param resource resource owning the relationship
+	 * @param relationshipName relationship name
+	 * @param localIds identifiers of resources created by preceding operations
+	 * @return {@link JsonNode} linkage
+	 * @throws IllegalAccessException
 	 */
-	private void setLocalIdValue(Object target, JsonNode localIdNode) throws IllegalAccessException {
-		Field idField = configuration.getLocalIdField(target.getClass());
-		ResourceIdHandler idHandler = configuration.getLocalIdHandler(target.getClass());
+	private JsonNode createLinkageNode(Object resource, String relationshipName, Set<String> localIds)
+			throws IllegalAccessException {
+		Field relationshipField = configuration.getRelationshipField(resource.getClass(), relationshipName);
 
-		if (localIdNode != null) {
-			idField.set(target, idHandler.fromString(localIdNode.asText()));
+		if (relationshipField == null) {
+			throw new IllegalArgumentException(String.format("Unknown relationship '%s' of type '%s'",
+					relationshipName, configuration.getTypeName(resource.getClass())));
 		}
-	}
 
-	/**
-	 * Reads @Id value from provided source object.
-	 *
-	 * @param source object to read @Id value from
-	 * @return {@link String} id or <code>null</code>
-	 * @throws IllegalAccessException
-	 */
-	private String getIdValue(Object source) throws IllegalAccessException {
-		Field idField = configuration.getIdField(source.getClass());
-		ResourceIdHandler handler = configuration.getIdHandler(source.getClass());
+		Object relationshipObject = relationshipField.get(resource);
 
-		return handler.asString(idField.get(source));
+		if (relationshipObject == null) {
+			return NullNode.getInstance();
+		}
+
+		if (relationshipObject instanceof Collection) {
+			ArrayNode linkage = objectMapper.createArrayNode();
+
+			for (Object element : (Collection<?>) relationshipObject) {
+				ensureLocalIdDefined(element, localIds);
+				linkage.add(createIdentifierNode(element));
+			}
+			return linkage;
+		}
+
+		ensureLocalIdDefined(relationshipObject, localIds);
+		return createIdentifierNode(relationshipObject);
 	}
 
 	/**
-	 * Reads @LocalId value from provided source object.
-	 *
-	 * @param source object to read @LocalId value from
-	 * @return {@link String} id or <code>null</code>
+	 * Ensures that all related resources identified only by a local id were created by preceding operations.
+	 * @param resource resource
+	 * @param localIds identifiers of resources created by preceding operations
 	 * @throws IllegalAccessException
 	 */
-	private String getLocalIdValue(Object source) throws IllegalAccessException {
-		Field localIdField = configuration.getLocalIdField(source.getClass());
+	private void ensureRelationshipLocalIdsDefined(Object resource, Set<String> localIds)
+			throws IllegalAccessException {
+		List<Field> relationshipFields = configuration.getRelationshipFields(resource.getClass());
 
-		// Local id is not required, so it can be null
-		if (localIdField != null) {
-			ResourceIdHandler handler = configuration.getLocalIdHandler(source.getClass());
-			return handler.asString(localIdField.get(source));
-		} else {
-			return null;
+		if (relationshipFields == null) {
+			return;
 		}
-	}
 
-	/**
-	 * Checks if <code>data</code> object is an array or just single object holder.
-	 * @param source data node
-	 * @return <code>true</code> if data node is an array else <code>false</code>
-	 */
-	private boolean isCollection(JsonNode source) {
-		JsonNode data = source.get(DATA);
-		return data != null && data.isArray();
-	}
+		for (Field relationshipField : relationshipFields) {
+			Object relationshipObject = relationshipField.get(resource);
 
+			if (relationshipObject instanceof Collection) {
+				for (Object element : (Collection<?>) relationshipObject) {
+					ensureLocalIdDefined(element, localIds);
+				}
+			} else if (relationshipObject != null) {
+				ensureLocalIdDefined(relationshipObject, localIds);
+			}
+		}
+	}
 
 	/**
-	 * Converts input object to byte array.
-	 * @param object input object
-	 * @return raw bytes
-	 * @throws JsonProcessingException
+	 * Ensures that resource identified only by a local id was created by a preceding operation.
+	 * @param resource resource
+	 * @param localIds identifiers of resources created by preceding operations
 	 * @throws IllegalAccessException
 	 */
-	@Deprecated
-	public byte [] writeObject(Object object) throws JsonProcessingException, IllegalAccessException {
-		try {
-			return writeDocument(new JSONAPIDocument<>(object));
-		} catch (DocumentSerializationException e) {
-			throw new RuntimeException(e);
+	private void ensureLocalIdDefined(Object resource, Set<String> localIds) throws IllegalAccessException {
+		String localId = getLocalIdValue(resource);
+
+		if (getIdValue(resource) == null && localId != null) {
+			String type = configuration.getTypeName(resource.getClass());
+
+			if (!localIds.contains(createIdentifier(null, localId, type))) {
+				throw new IllegalArgumentException(String.format("Local id '%s' of type '%s' is not defined by a " +
+						"preceding add operation", localId, type));
+			}
 		}
 	}
 
 	/**
-	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible byte representation.
-	 * @param document {@link JSONAPIDocument} document to serialize
-	 * @return serialized content in bytes
-	 * @throws DocumentSerializationException thrown in case serialization fails
+	 * Creates generator that writes to provided stream using the object mapper configuration.
+	 * @param outputStream {@link OutputStream} target stream, generator will not close it
+	 * @return {@link JsonGenerator}
+	 * @throws IOException
 	 */
-	public byte [] writeDocument(JSONAPIDocument<?> document) throws DocumentSerializationException {
-		return writeDocument(document, null);
+	private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+		JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+		if (isIndentOutput()) {
+			generator.useDefaultPrettyPrinter();
+		}
+
+		return generator;
 	}
 
 	/**
-	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible byte representation.
-	 *
-	 * @param document {@link JSONAPIDocument} document to serialize
-	 * @param settings {@link SerializationSettings} settings that override global serialization settings
-	 * @return serialized content in bytes
-	 * @throws DocumentSerializationException thrown in case serialization fails
+	 * Creates container for included resources, spilling them to disk if configured by settings.
+	 * @param settings {@link SerializationSettings} settings, can be <code>null</code>
+	 * @return {@link IncludedResources}
 	 */
-	public byte [] writeDocument(JSONAPIDocument<?> document, SerializationSettings settings)
-			throws DocumentSerializationException {
-		try {
-			resourceCache.init();
-
-			Map<String, ObjectNode> includedDataMap = new HashMap<>();
-
-			ObjectNode result = objectMapper.createObjectNode();
+	private IncludedResources createIncludedResources(SerializationSettings settings) {
+		if (settings == null) {
+			return new IncludedResources(objectMapper);
+		}
 
-			// Serialize data if present
-			if (document.get() != null) {
-				ObjectNode dataNode = getDataNode(document.get(), includedDataMap, settings);
-				result.set(DATA, dataNode);
+		// Spilled resources are copied to the output as encoded text, binary formats are kept in memory
+		return new IncludedResources(objectMapper, textFormat ? settings.getIncludedSpillThreshold() : null,
+				settings.getIncludedSpillDirectory(), shouldSortIncluded(settings));
+	}
 
-				// It is possible that relationships point back to top-level resource, in this case remove it from
-				// included section since it is already present (as a top level resource)
-				String identifier = String.valueOf(getIdValue(document.get()))
-						.concat(configuration.getTypeName(document.get().getClass()));
-				includedDataMap.remove(identifier);
-				result = addIncludedSection(result, includedDataMap, settings);
-			}
+	/**
+	 * Returns unique identifier of provided resource.
+	 * @param resource resource
+	 * @return identifier or <code>null</code> in case resource has neither id nor local id
+	 * @throws IllegalAccessException
+	 */
+	String getIdentifier(Object resource) throws IllegalAccessException {
+		String idValue = getIdValue(resource);
+		String localIdValue = getLocalIdValue(resource);
 
-			// Serialize errors if present
-			if (document.getErrors() != null) {
-				ArrayNode errorsNode = objectMapper.createArrayNode();
-				for (Error error : document.getErrors()) {
-					errorsNode.add(objectMapper.valueToTree(error));
-				}
+		if (idValue == null && localIdValue == null) {
+			return null;
+		}
 
-				result.set(ERRORS, errorsNode);
-			}
+		return createIdentifier(idValue, localIdValue, configuration.getTypeName(resource.getClass()));
+	}
 
-			// Serialize global links and meta
-			serializeMeta(document, result, settings);
-			serializeLinks(document, result, settings);
+	/**
+	 * Serializes all resources queued for the <code>included</code> section.
+	 * <p>
+	 *     Serializing a resource can queue more resources (its relationships), resources are processed until the queue
+	 *     is drained.
+	 * </p>
+	 * @param context {@link SerializationContext} serialization state
+	 * @throws IllegalAccessException
+	 * @throws IOException
+	 */
+	void serializeIncluded(SerializationContext context) throws IllegalAccessException, IOException {
+		SerializationContext.PendingResource pending;
 
-			// Serialize JSON API object if present
-			serializeJSONAPIObject(document, result, settings);
+		while ((pending = context.next()) != null) {
+			context.getIncluded().put(pending.identifier, getDataNode(pending.resource, pending.includes, context));
 
-			return objectMapper.writeValueAsBytes(result);
-		} catch (Exception e) {
-			throw new DocumentSerializationException(e);
-		} finally {
-			resourceCache.clear();
+			// Serialized resource is tracked trough included section from now on
+			context.release(pending.resource, null);
 		}
 	}
 
-	private void serializeMeta(JSONAPIDocument<?> document, ObjectNode resultNode, SerializationSettings settings) {
-		// Handle global links and meta
-		if (document.getMeta() != null && !document.getMeta().isEmpty() && shouldSerializeMeta(settings)) {
-			resultNode.set(META, objectMapper.valueToTree(document.getMeta()));
+	/**
+	 * Converts resource into its JSON API representation.
+	 * <p>
+	 *     In case fragment cache is configured and the resource is cached, cached fragment is returned and resource
+	 *     relationships are only traversed in order to queue included resources. Otherwise resource is converted using
+	 *     {@link #createDataNode(Object, IncludePaths, SerializationContext)} and the result is cached. Cache is not
+	 *     used when output is indented.
+	 * </p>
+	 *
+	 * @param object resource
+	 * @param includes node of the include path tree that corresponds to the resource being converted, or
+	 *                 <code>null</code> if there are no include paths at this depth
+	 * @param context {@link SerializationContext} serialization state
+	 * @return {@link JsonNode} resource node
+	 * @throws IllegalAccessException
+	 * @throws JsonProcessingException
+	 */
+	JsonNode getDataNode(Object object, IncludePaths includes, SerializationContext context)
+			throws IllegalAccessException, JsonProcessingException {
+		ResourceFragmentCache cache = fragmentCache;
+		// Fragments are spliced as raw values, the pretty printer cannot indent them
+		String resourceId = cache != null && textFormat && context.getBudget() == null && !isIndentOutput() ?
+				getIdValue(object) : null;
+
+		if (resourceId == null) {
+			return createDataNode(object, includes, context);
 		}
-	}
 
-	private void serializeLinks(JSONAPIDocument<?> document, ObjectNode resultNode, SerializationSettings settings) {
-		if (document.getLinks() != null && !document.getLinks().getLinks().isEmpty() && shouldSerializeLinks(settings)) {
-			resultNode.set(LINKS, objectMapper.valueToTree(document.getLinks()).get(LINKS));
+		String type = configuration.getTypeName(object.getClass());
+		int fingerprint = getFragmentFingerprint(context.getSettings());
+		SerializableString fragment = cache.get(type, resourceId, object, fingerprint);
+
+		if (fragment != null) {
+			context.visit(object);
+			includeRelationships(object, includes, context);
+			return objectMapper.getNodeFactory().rawValueNode(new RawValue(fragment));
 		}
+
+		ObjectNode dataNode = createDataNode(object, includes, context);
+		cache.put(type, resourceId, object, fingerprint, objectMapper.writeValueAsString(dataNode));
+
+		return dataNode;
 	}
 
-	private void serializeJSONAPIObject(JSONAPIDocument<?> document, ObjectNode resultNode, SerializationSettings settings) {
-		if (document.getJsonApi() != null && shouldSerializeJSONAPIObject(settings)) {
-			resultNode.set(JSON_API, objectMapper.valueToTree(document.getJsonApi()));
-		}
+	/**
+	 * Checks if object mapper is configured to indent output.
+	 * @return {@link Boolean}
+	 */
+	private boolean isIndentOutput() {
+		return objectMapper.isEnabled(com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT);
 	}
 
 	/**
-	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible byte representation.
-   *
-	 * @param documentCollection {@link JSONAPIDocument} document collection to serialize
-	 * @return serialized content in bytes
-	 * @throws DocumentSerializationException thrown in case serialization fails
+	 * Returns fingerprint of serialization settings that affect resource representation.
+	 *
+	 * @param settings {@link SerializationSettings} settings, can be <code>null</code>
+	 * @return fingerprint
 	 */
-	public byte [] writeDocumentCollection(
-    JSONAPIDocument<? extends Iterable<?>> documentCollection
-  ) throws DocumentSerializationException {
-		return writeDocumentCollection(documentCollection, null);
+	private int getFragmentFingerprint(SerializationSettings settings) {
+		int fingerprint = 0;
+
+		if (shouldSerializeId(settings)) {
+			fingerprint |= 1;
+		}
+		if (shouldSerializeLocalId(settings)) {
+			fingerprint |= 2;
+		}
+		if (shouldSerializeLinks(settings)) {
+			fingerprint |= 4;
+		}
+		if (shouldSerializeMeta(settings)) {
+			fingerprint |= 8;
+		}
+
+		return fingerprint;
 	}
 
 	/**
-	 * Serializes provided {@link JSONAPIDocument} into JSON API Spec compatible byte representation.
-	 * @param documentCollection {@link JSONAPIDocument} document collection to serialize
-	 * @param serializationSettings {@link SerializationSettings} settings that override global serialization settings
-	 * @return serialized content in bytes
-	 * @throws DocumentSerializationException thrown in case serialization fails
+	 * Queues relationship resources of given resource for the <code>included</code> section without serializing the
+	 * resource itself.
+	 *
+	 * @param object resource
+	 * @param includes include path node that corresponds to the resource or <code>null</code>
+	 * @param context {@link SerializationContext} serialization state
+	 * @throws IllegalAccessException
 	 */
-	public byte [] writeDocumentCollection(JSONAPIDocument<? extends Iterable<?>> documentCollection,
-										   SerializationSettings serializationSettings)
-			throws DocumentSerializationException {
+	void includeRelationships(Object object, IncludePaths includes, SerializationContext context)
+			throws IllegalAccessException {
+		List<Field> relationshipFields = configuration.getRelationshipFields(object.getClass());
 
-		try {
-			resourceCache.init();
-			ArrayNode results = objectMapper.createArrayNode();
-			Map<String, ObjectNode> includedDataMap = new LinkedHashMap<>();
+		if (relationshipFields == null) {
+			return;
+		}
 
-			for (Object object : documentCollection.get()) {
-				results.add(getDataNode(object, includedDataMap, serializationSettings));
-			}
+		for (Field relationshipField : relationshipFields) {
+			Object relationshipObject = relationshipField.get(object);
+			Relationship relationship = configuration.getFieldRelationship(relationshipField);
 
-			ObjectNode result = objectMapper.createObjectNode();
-			result.set(DATA, results);
+			if (relationshipObject == null || !relationship.serialise() || !relationship.serialiseData() ||
+					!shouldSerializeRelationship(relationship.value(), includes, context.getSettings())) {
+				continue;
+			}
 
-			// Handle global links and meta
-			serializeMeta(documentCollection, result, serializationSettings);
-			serializeLinks(documentCollection, result, serializationSettings);
-			serializeJSONAPIObject(documentCollection, result, serializationSettings);
+			IncludePaths relationshipIncludes = includes != null ? includes.get(relationship.value()) : null;
+			Collection<?> elements = relationshipObject instanceof Collection ? (Collection<?>) relationshipObject :
+					Collections.singleton(relationshipObject);
 
-			result = addIncludedSection(result, includedDataMap, serializationSettings);
+			for (Object element : elements) {
+				String idValue = getIdValue(element);
+				String localIdValue = getLocalIdValue(element);
 
-			return objectMapper.writeValueAsBytes(result);
-		} catch (Exception e) {
-			throw new DocumentSerializationException(e);
-		} finally {
-			resourceCache.clear();
+				if (idValue != null || localIdValue != null) {
+					includeResource(element, createIdentifier(idValue, localIdValue,
+							configuration.getTypeName(element.getClass())), relationshipIncludes, context);
+				}
+			}
 		}
 	}
 
-
-	private ObjectNode getDataNode(
-			Object object,
-			Map<String, ObjectNode> includedContainer,
-			SerializationSettings settings
-	) throws IllegalAccessException {
+	/**
+	 * Creates JSON API representation of the resource.
+	 * <p>
+	 *     Relationship resources that should be added to the <code>included</code> section are not serialized
+	 *     immediately, they are queued in provided context instead.
+	 * </p>
+	 *
+	 * @param object resource
+	 * @param includes node of the include path tree that corresponds to the resource being converted, or
+	 *                 <code>null</code> if there are no include paths at this depth
+	 * @param context {@link SerializationContext} serialization state
+	 * @return {@link ObjectNode} resource node
+	 * @throws IllegalAccessException
+	 */
+	private ObjectNode createDataNode(Object object, IncludePaths includes, SerializationContext context)
+			throws IllegalAccessException {
+		SerializationSettings settings = context.getSettings();
+		CompoundDocumentBudget budget = context.getBudget();
 		ObjectNode dataNode = objectMapper.createObjectNode();
 
+		// Mark the object as visited for recursion breaking purposes
+		context.visit(object);
+
 		// Perform initial conversion
-		ObjectNode attributesNode = objectMapper.valueToTree(object);
+		ObjectNode attributesNode = attributeSerializer.toAttributes(object);
 
 		// Handle id, meta and relationship fields
 		String resourceId = getIdValue(object);
@@ -916,19 +2792,12 @@ public class ResourceConverter {
 			if (shouldSerializeId(settings)) {
 				dataNode.put(ID, resourceId);
 			}
-			// Cache the object for recursion breaking purposes
-			resourceCache.cache(resourceId.concat(configuration.getTypeName(object.getClass())), null);
 		}
 
 		if (localId != null) {
 			if (shouldSerializeLocalId(settings)) {
 				dataNode.put(LOCAL_ID, localId);
 			}
-
-			if (resourceId == null) {
-				// TODO: check why null
-				resourceCache.cache(localId.concat(configuration.getTypeName(object.getClass())), null);
-			}
 		}
 
 		dataNode.set(ATTRIBUTES, attributesNode);
@@ -954,6 +2823,8 @@ public class ResourceConverter {
 					}
 
 					String relationshipName = relationship.value();
+					boolean includeRelationship = shouldSerializeRelationship(relationshipName, includes, settings);
+					IncludePaths relationshipIncludes = includes != null ? includes.get(relationshipName) : null;
 
 					ObjectNode relationshipDataNode = objectMapper.createObjectNode();
 					relationshipsNode.set(relationshipName, relationshipDataNode);
@@ -984,6 +2855,15 @@ public class ResourceConverter {
 					}
 
 					boolean shouldSerializeData = configuration.getFieldRelationship(relationshipField).serialiseData();
+
+					if (shouldSerializeData && budget != null &&
+							!isWithinBudget(relationshipObject, includeRelationship, context)) {
+						// Document size limit reached, fall back to relationship links and meta
+						relationshipDataNode.set(META, addRelationshipCount(relationshipDataNode.get(META),
+								relationshipObject));
+						shouldSerializeData = false;
+					}
+
 					if (shouldSerializeData) {
 						if (relationshipObject instanceof Collection) {
 							ArrayNode dataArrayNode = objectMapper.createArrayNode();
@@ -1006,11 +2886,9 @@ public class ResourceConverter {
 								dataArrayNode.add(identifierNode);
 
 								// Handle included data
-								if (shouldSerializeRelationship(relationshipName, settings) && (idValue != null || localIdValue != null)) {
-									String identifier = createIdentifier(idValue, localIdValue, relationshipType);
-									if (!includedContainer.containsKey(identifier) && !resourceCache.contains(identifier)) {
-										includedContainer.put(identifier, getDataNode(element, includedContainer, settings));
-									}
+								if (includeRelationship && (idValue != null || localIdValue != null)) {
+									includeResource(element, createIdentifier(idValue, localIdValue, relationshipType),
+											relationshipIncludes, context);
 								}
 							}
 							relationshipDataNode.set(DATA, dataArrayNode);
@@ -1031,11 +2909,9 @@ public class ResourceConverter {
 							}
 							relationshipDataNode.set(DATA, identifierNode);
 
-							if (shouldSerializeRelationship(relationshipName, settings) && (idValue != null || localIdValue != null)) {
-								String identifier = createIdentifier(idValue, localIdValue, relationshipType);
-								if (!includedContainer.containsKey(identifier)) {
-									includedContainer.put(identifier, getDataNode(relationshipObject, includedContainer, settings));
-								}
+							if (includeRelationship && (idValue != null || localIdValue != null)) {
+								includeResource(relationshipObject, createIdentifier(idValue, localIdValue,
+										relationshipType), relationshipIncludes, context);
 							}
 						}
 					}
@@ -1056,9 +2932,85 @@ public class ResourceConverter {
 			dataNode.set(META, meta);
 		}
 
+		if (budget != null) {
+			budget.record(dataNode);
+		}
+
 		return dataNode;
 	}
 
+	/**
+	 * Queues relationship resource for the <code>included</code> section unless it was already serialized.
+	 * <p>
+	 *     Same resource can be reached trough different include paths, eg. <code>author</code> and
+	 *     <code>comments.author.articles</code>, in which case it needs to be expanded once for every distinct path
+	 *     node that has nested includes.
+	 * </p>
+	 * @param resource relationship resource
+	 * @param identifier resource identifier
+	 * @param includes include path node for the relationship or <code>null</code>
+	 * @param context {@link SerializationContext} serialization state
+	 */
+	private void includeResource(Object resource, String identifier, IncludePaths includes,
+								 SerializationContext context) {
+		boolean expand = includes != null && !includes.isEmpty() && context.markExpanded(identifier, includes);
+
+		if (!context.isVisited(resource, identifier) || expand) {
+			context.include(resource, identifier, includes);
+		}
+	}
+
+	/**
+	 * Checks if relationship data can be serialized without exceeding document size limits.
+	 *
+	 * @param relationshipObject relationship value (single resource or collection)
+	 * @param includeRelationship <code>true</code> if relationship resources should be added to included section
+	 * @param context {@link SerializationContext} serialization state
+	 * @return <code>true</code> if relationship data fits the budget
+	 * @throws IllegalAccessException
+	 */
+	private boolean isWithinBudget(Object relationshipObject, boolean includeRelationship,
+								   SerializationContext context) throws IllegalAccessException {
+		CompoundDocumentBudget budget = context.getBudget();
+		Collection<?> elements = relationshipObject instanceof Collection ? (Collection<?>) relationshipObject :
+				Collections.singleton(relationshipObject);
+
+		if (!budget.allowsLinkage(elements.size())) {
+			return false;
+		}
+
+		if (!includeRelationship) {
+			return true;
+		}
+
+		int newResources = 0;
+
+		for (Object element : elements) {
+			String idValue = getIdValue(element);
+			String localIdValue = getLocalIdValue(element);
+
+			if (idValue != null || localIdValue != null) {
+				String identifier = createIdentifier(idValue, localIdValue, configuration.getTypeName(element.getClass()));
+
+				if (!context.isVisited(element, identifier)) {
+					newResources++;
+				}
+			}
+		}
+
+		return budget.allowsInclusion(context.getIncludedCount(), newResources);
+	}
+
+	private ObjectNode addRelationshipCount(JsonNode relationshipMeta, Object relationshipObject) {
+		ObjectNode result = relationshipMeta instanceof ObjectNode ? (ObjectNode) relationshipMeta :
+				objectMapper.createObjectNode();
+
+		int count = relationshipObject instanceof Collection ? ((Collection<?>) relationshipObject).size() : 1;
+		result.put(RELATIONSHIP_COUNT, count);
+
+		return result;
+	}
+
 	/**
 	 * Converts input object to byte array.
 	 *
@@ -1191,18 +3143,12 @@ public class ResourceConverter {
 
 	private ObjectNode addIncludedSection(
 			ObjectNode rootNode,
-			Map<String, ObjectNode> includedDataMap,
+			IncludedResources included,
 			SerializationSettings serializationSettings
 	) {
-		boolean inclusionsEnabled = serializationFeatures.contains(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
-
-		if (serializationSettings != null) {
-			inclusionsEnabled = serializationSettings.hasIncludedRelationships();
-		}
-
-		if (!includedDataMap.isEmpty() || inclusionsEnabled) {
+		if (shouldWriteIncludedSection(included, serializationSettings)) {
 			ArrayNode includedArray = objectMapper.createArrayNode();
-			includedArray.addAll(includedDataMap.values());
+			includedArray.addAll(included.values());
 
 			rootNode.set(INCLUDED, includedArray);
 		}
@@ -1210,6 +3156,16 @@ public class ResourceConverter {
 		return rootNode;
 	}
 
+	private boolean shouldWriteIncludedSection(IncludedResources included, SerializationSettings serializationSettings) {
+		boolean inclusionsEnabled = serializationFeatures.contains(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
+
+		if (serializationSettings != null) {
+			inclusionsEnabled = serializationSettings.hasIncludedRelationships();
+		}
+
+		return !included.isEmpty() || inclusionsEnabled;
+	}
+
 	/**
 	 * Resolves actual type to be used for resource deserialization.
 	 * <p>
@@ -1222,7 +3178,7 @@ public class ResourceConverter {
 	 * @param userType provided user type
 	 * @return {@link Class}
 	 */
-	private Class<?> getActualType(JsonNode object, Class<?> userType) {
+	Class<?> getActualType(JsonNode object, Class<?> userType) {
 		String type = object.get(TYPE).asText();
 
 		String definedTypeName = configuration.getTypeName(userType);
@@ -1357,7 +3313,8 @@ public class ResourceConverter {
 		return result;
 	}
 
-	private boolean shouldSerializeRelationship(String relationshipName, SerializationSettings settings) {
+	private boolean shouldSerializeRelationship(String relationshipName, IncludePaths includes,
+												SerializationSettings settings) {
 		if (settings != null) {
 			if (settings.isRelationshipIncluded(relationshipName) && !settings.isRelationshipExcluded(relationshipName)) {
 				return true;
@@ -1366,6 +3323,11 @@ public class ResourceConverter {
 			if (settings.isRelationshipExcluded(relationshipName)) {
 				return false;
 			}
+
+			// Include paths are authoritative, only relationships on the requested paths are included
+			if (settings.getIncludePaths() != null) {
+				return includes != null && includes.contains(relationshipName);
+			}
 		}
 		return serializationFeatures.contains(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
 	}
@@ -1406,6 +3368,10 @@ public class ResourceConverter {
 		return serializationFeatures.contains(SerializationFeature.INCLUDE_JSONAPI_OBJECT);
 	}
 
+	private boolean shouldSortIncluded(SerializationSettings settings) {
+		return settings != null && Boolean.TRUE.equals(settings.sortIncluded());
+	}
+
 	private JsonNode removeField(ObjectNode node, Field field) {
 		if (field != null) {
 			return node.remove(namingStrategy.nameForField(null, null, field.getName()));
@@ -1426,35 +3392,402 @@ public class ResourceConverter {
 		return false;
 	}
 
+	/**
+	 * Prepares this converter for reading and writing registered types.
+	 *
+	 * <p>
+	 *     Jackson creates serializers and deserializers lazily, the first time a type is converted. This method
+	 *     creates and caches them upfront for all registered types (including relationship types), their meta and
+	 *     relationship meta types and links, so the first documents read or written after startup are not slower than
+	 *     the ones that follow. Types registered after warm-up are initialized on first use.
+	 * </p>
+	 * @return time warm-up took, in milliseconds
+	 */
+	public long warmUp() {
+		long start = System.nanoTime();
+
+		Set<Class<?>> types = new LinkedHashSet<>();
+		types.add(Links.class);
+		types.add(JsonApi.class);
+		types.add(Errors.class);
+
+		for (Class<?> type : configuration.getRegisteredTypes()) {
+			types.add(type);
+
+			if (configuration.getMetaType(type) != null) {
+				types.add(configuration.getMetaType(type));
+			}
+
+			for (Field relationshipField : configuration.getRelationshipFields(type)) {
+				String relationshipName = configuration.getFieldRelationship(relationshipField).value();
+				Class<?> relationshipMetaType = configuration.getRelationshipMetaType(type, relationshipName);
+
+				if (relationshipMetaType != null) {
+					types.add(relationshipMetaType);
+				}
+			}
+		}
+
+		for (Class<?> type : types) {
+			// Readers and writers fetch (and cache) root (de)serializers eagerly
+			objectMapper.readerFor(type);
+			objectMapper.writerFor(type);
+		}
+
+		for (Class<?> type : configuration.getRegisteredTypes()) {
+			try {
+				attributeSerializer.prepare(type);
+			} catch (JsonMappingException e) {
+				// Same as with readers and writers, error is reported once the type is serialized
+			}
+		}
+
+		return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+	}
+
 	/**
 	 * Adds (enables) new deserialization option.
 	 * @param option {@link DeserializationFeature} option
 	 */
-	public void enableDeserializationOption(DeserializationFeature option) {
-		this.deserializationFeatures.add(option);
+	public synchronized void enableDeserializationOption(DeserializationFeature option) {
+		ensureMutable();
+
+		Set<DeserializationFeature> features = EnumSet.noneOf(DeserializationFeature.class);
+		features.addAll(deserializationFeatures);
+		features.add(option);
+		deserializationFeatures = Collections.unmodifiableSet(features);
 	}
 
 	/**
 	 * Removes (disables) existing deserialization option.
 	 * @param option {@link DeserializationFeature} feature to disable
 	 */
-	public void disableDeserializationOption(DeserializationFeature option) {
-		this.deserializationFeatures.remove(option);
+	public synchronized void disableDeserializationOption(DeserializationFeature option) {
+		ensureMutable();
+
+		Set<DeserializationFeature> features = EnumSet.noneOf(DeserializationFeature.class);
+		features.addAll(deserializationFeatures);
+		features.remove(option);
+		deserializationFeatures = Collections.unmodifiableSet(features);
 	}
 
 	/**
 	 * Adds (enables) new serialization option.
 	 * @param option {@link SerializationFeature} option
 	 */
-	public void enableSerializationOption(SerializationFeature option) {
-		this.serializationFeatures.add(option);
+	public synchronized void enableSerializationOption(SerializationFeature option) {
+		ensureMutable();
+
+		Set<SerializationFeature> features = EnumSet.noneOf(SerializationFeature.class);
+		features.addAll(serializationFeatures);
+		features.add(option);
+		serializationFeatures = Collections.unmodifiableSet(features);
 	}
 
 	/**
 	 * Removes (disables) existing serialization option.
 	 * @param option {@link SerializationFeature} feature to disable
 	 */
-	public void disableSerializationOption(SerializationFeature option) {
-		this.serializationFeatures.remove(option);
+	public synchronized void disableSerializationOption(SerializationFeature option) {
+		ensureMutable();
+
+		Set<SerializationFeature> features = EnumSet.noneOf(SerializationFeature.class);
+		features.addAll(serializationFeatures);
+		features.remove(option);
+		serializationFeatures = Collections.unmodifiableSet(features);
+	}
+
+	private void ensureMutable() {
+		if (immutable) {
+			throw new IllegalStateException("Converter was created using a builder, its configuration cannot be changed");
+		}
+	}
+
+	private static <E extends Enum<E>> Set<E> snapshot(Collection<E> features, Class<E> type) {
+		Set<E> result = EnumSet.noneOf(type);
+		result.addAll(features);
+		return Collections.unmodifiableSet(result);
+	}
+
+	/**
+	 * Builder of immutable {@link ResourceConverter} instances.
+	 * <p>
+	 *     Features, resolvers and other settings are frozen when the converter is built, built converter can be
+	 *     shared between threads without synchronization. Setters of built converters throw
+	 *     {@link IllegalStateException}. New types can still be registered using
+	 *     {@link ResourceConverter#registerType(Class)}.
+	 * </p>
+	 */
+	public static class Builder {
+		private final List<Class<?>> classes = new ArrayList<>();
+		private final Set<DeserializationFeature> deserializationFeatures =
+				new HashSet<>(DeserializationFeature.getDefaultFeatures());
+		private final Set<SerializationFeature> serializationFeatures =
+				new HashSet<>(SerializationFeature.getDefaultFeatures());
+		private final Map<Class<?>, RelationshipResolver> typedResolvers = new HashMap<>();
+		private ObjectMapper objectMapper;
+		private String baseURL;
+		private RelationshipResolver globalResolver;
+		private ResourceFragmentCache fragmentCache;
+		private ResourceStore resourceStore;
+		private Executor parallelReadExecutor;
+		private int parallelReadThreshold;
+		private Executor parallelWriteExecutor;
+		private int parallelWriteThreshold;
+
+		/**
+		 * Registers classes handled by the converter.
+		 *
+		 * @param types {@link Class} resource classes
+		 * @return {@link Builder}
+		 */
+		public Builder types(Class<?>... types) {
+			classes.addAll(Arrays.asList(types));
+			return this;
+		}
+
+		/**
+		 * Sets custom mapper used for resource parsing.
+		 *
+		 * @param mapper {@link ObjectMapper} mapper
+		 * @return {@link Builder}
+		 */
+		public Builder objectMapper(ObjectMapper mapper) {
+			objectMapper = mapper;
+			return this;
+		}
+
+		/**
+		 * Sets base URL, eg. https://api.mysite.com
+		 *
+		 * @param url {@link String} base URL
+		 * @return {@link Builder}
+		 */
+		public Builder baseURL(String url) {
+			baseURL = url;
+			return this;
+		}
+
+		/**
+		 * Enables deserialization option.
+		 *
+		 * @param option {@link DeserializationFeature} option
+		 * @return {@link Builder}
+		 */
+		public Builder enableDeserializationOption(DeserializationFeature option) {
+			deserializationFeatures.add(option);
+			return this;
+		}
+
+		/**
+		 * Disables deserialization option.
+		 *
+		 * @param option {@link DeserializationFeature} option
+		 * @return {@link Builder}
+		 */
+		public Builder disableDeserializationOption(DeserializationFeature option) {
+			deserializationFeatures.remove(option);
+			return this;
+		}
+
+		/**
+		 * Enables serialization option.
+		 *
+		 * @param option {@link SerializationFeature} option
+		 * @return {@link Builder}
+		 */
+		public Builder enableSerializationOption(SerializationFeature option) {
+			serializationFeatures.add(option);
+			return this;
+		}
+
+		/**
+		 * Disables serialization option.
+		 *
+		 * @param option {@link SerializationFeature} option
+		 * @return {@link Builder}
+		 */
+		public Builder disableSerializationOption(SerializationFeature option) {
+			serializationFeatures.remove(option);
+			return this;
+		}
+
+		/**
+		 * Sets global relationship resolver, see {@link ResourceConverter#setGlobalResolver(RelationshipResolver)}.
+		 *
+		 * @param resolver {@link RelationshipResolver} resolver
+		 * @return {@link Builder}
+		 */
+		public Builder globalResolver(RelationshipResolver resolver) {
+			globalResolver = resolver;
+			return this;
+		}
+
+		/**
+		 * Sets relationship resolver for given type, see
+		 * {@link ResourceConverter#setTypeResolver(RelationshipResolver, Class)}.
+		 *
+		 * @param resolver {@link RelationshipResolver} resolver
+		 * @param type {@link Class} type
+		 * @return {@link Builder}
+		 */
+		public Builder typeResolver(RelationshipResolver resolver, Class<?> type) {
+			if (resolver != null && ReflectionUtils.getTypeName(type) != null) {
+				typedResolvers.put(type, resolver);
+			}
+			return this;
+		}
+
+		/**
+		 * Sets fragment cache, see {@link ResourceConverter#setFragmentCache(ResourceFragmentCache)}.
+		 *
+		 * @param cache {@link ResourceFragmentCache} cache
+		 * @return {@link Builder}
+		 */
+		public Builder fragmentCache(ResourceFragmentCache cache) {
+			fragmentCache = cache;
+			return this;
+		}
+
+		/**
+		 * Sets resource store, see {@link ResourceConverter#setResourceStore(ResourceStore)}.
+		 *
+		 * @param store {@link ResourceStore} store
+		 * @return {@link Builder}
+		 */
+		public Builder resourceStore(ResourceStore store) {
+			resourceStore = store;
+			return this;
+		}
+
+		/**
+		 * Enables parallel deserialization, see {@link ResourceConverter#setParallelDeserialization(int, Executor)}.
+		 *
+		 * @param threshold minimum number of resources in a document for parallel binding to be used
+		 * @param executor {@link Executor} executor
+		 * @return {@link Builder}
+		 */
+		public Builder parallelDeserialization(int threshold, Executor executor) {
+			if (executor != null && threshold < 1) {
+				throw new IllegalArgumentException("Threshold must be positive");
+			}
+			parallelReadThreshold = threshold;
+			parallelReadExecutor = executor;
+			return this;
+		}
+
+		/**
+		 * Enables parallel serialization, see {@link ResourceConverter#setParallelSerialization(int, Executor)}.
+		 *
+		 * @param threshold minimum number of resources in a collection for parallel serialization to be used
+		 * @param executor {@link Executor} executor
+		 * @return {@link Builder}
+		 */
+		public Builder parallelSerialization(int threshold, Executor executor) {
+			if (executor != null && threshold < 1) {
+				throw new IllegalArgumentException("Threshold must be positive");
+			}
+			parallelWriteThreshold = threshold;
+			parallelWriteExecutor = executor;
+			return this;
+		}
+
+		/**
+		 * Creates converter.
+		 *
+		 * @return {@link ResourceConverter}
+		 */
+		public ResourceConverter build() {
+			ResourceConverter result = new ResourceConverter(objectMapper, baseURL,
+					classes.toArray(new Class<?>[classes.size()]), true);
+
+			result.deserializationFeatures = snapshot(deserializationFeatures, DeserializationFeature.class);
+			result.serializationFeatures = snapshot(serializationFeatures, SerializationFeature.class);
+			result.typedResolvers = Collections.unmodifiableMap(new HashMap<>(typedResolvers));
+			result.globalResolver = globalResolver;
+			result.fragmentCache = fragmentCache;
+			result.resourceStore = resourceStore;
+			result.parallelAttributeBinder = result.createAttributeBinder(parallelReadThreshold, parallelReadExecutor);
+			result.parallelResourceWriter = result.createResourceWriter(parallelWriteThreshold, parallelWriteExecutor);
+
+			return result;
+		}
+	}
+
+	/**
+	 * Relationship handling that was deferred while reading a document.
+	 */
+	private interface PendingRelationship {
+		void handle() throws IOException, IllegalAccessException, InstantiationException;
+	}
+
+	/**
+	 * Relationship that is resolved using {@link RelationshipResolver}.
+	 */
+	private class ResolvedRelationship implements PendingRelationship {
+		private final Object target;
+		private final Field field;
+		private final Class<?> type;
+		private final RelationshipResolver resolver;
+		private final String link;
+		private final boolean collection;
+
+		ResolvedRelationship(Object target, Field field, Class<?> type, RelationshipResolver resolver, String link,
+							 boolean collection) {
+			this.target = target;
+			this.field = field;
+			this.type = type;
+			this.resolver = resolver;
+			this.link = link;
+			this.collection = collection;
+		}
+
+		@Override
+		public void handle() throws IllegalAccessException {
+			if (collection) {
+				field.set(target, readDocumentCollection(new ByteArrayInputStream(resolver.resolve(link)), type).get());
+			} else {
+				field.set(target, readDocument(new ByteArrayInputStream(resolver.resolve(link)), type).get());
+			}
+		}
+	}
+
+	/**
+	 * Relationships of a resource that was parsed from relationship data, such resources are never cached.
+	 */
+	private class UncachedRelationships implements PendingRelationship {
+		private final JsonNode source;
+		private final Object target;
+
+		UncachedRelationships(JsonNode source, Object target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		@Override
+		public void handle() throws IOException, IllegalAccessException, InstantiationException {
+			resourceCache.lock();
+			try {
+				handleRelationships(source, target);
+			} finally {
+				resourceCache.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Output stream that ignores written data, used when only digest of the document is needed.
+	 */
+	private static class DiscardingOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+			// Ignore
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			// Ignore
+		}
 	}
 }
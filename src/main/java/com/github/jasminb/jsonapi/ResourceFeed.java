@@ -0,0 +1,476 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.core.async.NonBlockingInputFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import static com.github.jasminb.jsonapi.JSONAPISpecConstants.*;
+
+/**
+ * Non-blocking reader of a collection document, publishing primary resources as they are parsed.
+ *
+ * <p>
+ *     Document is fed in chunks using {@link #feed(byte[], int, int)} or {@link #feed(ByteBuffer)}, followed by
+ *     {@link #endOfInput()}. Feeding never blocks: every chunk is parsed on the calling thread as far as subscriber's
+ *     demand allows. Each primary resource is published once its <code>data</code> element is parsed. Related
+ *     resources are initially represented by instances that hold only their identifiers.
+ * </p>
+ * <p>
+ *     <code>included</code>, <code>meta</code> and <code>links</code> usually follow <code>data</code>, so they are
+ *     handled once the document completes: included resources are applied onto published resources and their related
+ *     instances (in place, same as {@link ResourceConverter#mergeDocumentCollection(byte[], Class, java.util.Collection)})
+ *     and complete document becomes available trough {@link #getDocument()}, before the subscriber is completed.
+ *     Relationships are never resolved using registered resolvers, as that would block the feeding thread: related
+ *     resources that are not included hold only their identifiers. Primary resources should have an <code>id</code>,
+ *     resources without one are replaced by new instances in the complete document.
+ * </p>
+ * <p>
+ *     Publisher supports a single subscriber and implements Reactive Streams backpressure: when subscriber's demand
+ *     is exhausted, parsing is suspended and {@link #isReadyForInput()} returns <code>false</code> until more resources
+ *     are requested, at which point parsing continues on the requesting thread. Producer (eg. a Netty channel
+ *     handler) should stop reading input while feed is not ready for it. On Java 9+ the publisher can be adapted to
+ *     <code>java.util.concurrent.Flow.Publisher</code> using <code>org.reactivestreams.FlowAdapters</code>.
+ * </p>
+ * <p>
+ *     JSON chunks are parsed directly from provided arrays and buffers, without copying them. Chunks of other formats
+ *     fed as {@link ByteBuffer} are copied.
+ * </p>
+ * <p>
+ *     Parse and conversion errors are signaled to the subscriber. Feed state is guarded by the feed's monitor, which
+ *     is also held while input is parsed. Subscriber is never signaled while the monitor is held: signals are emitted
+ *     by one thread at a time, so subscriber can call {@link Subscription#request(long)} or
+ *     {@link Subscription#cancel()} from any thread, including from within <code>onNext</code>.
+ * </p>
+ *
+ * @param <T> resource type
+ * @author jbegic
+ */
+public class ResourceFeed<T> implements Publisher<T> {
+	private final ResourceConverter converter;
+	private final ObjectMapper mapper;
+	private final Class<T> clazz;
+	private final JsonParser parser;
+	private final NonBlockingInputFeeder feeder;
+
+	private final Deque<T> pending = new ArrayDeque<>();
+	private final List<T> published = new ArrayList<>();
+	private final ObjectNode rootNode;
+	private final ArrayNode dataNode;
+
+	// Parsing state
+	private int depth;
+	private boolean inData;
+	private String member;
+	private TokenBuffer capture;
+	private int captureDepth;
+	private boolean inputEnded;
+	private boolean parsed;
+
+	// Subscription state
+	private boolean subscribed;
+	private Subscriber<? super T> subscriber;
+	private long demand;
+	private boolean draining;
+	private boolean terminated;
+	private Throwable error;
+	private JSONAPIDocument<List<T>> document;
+
+	ResourceFeed(ResourceConverter converter, ObjectMapper mapper, Class<T> clazz) throws IOException {
+		this.converter = converter;
+		this.mapper = mapper;
+		this.clazz = clazz;
+
+		// Buffer feeding is supported by JSON parser only
+		JsonFactory factory = mapper.getFactory();
+		this.parser = JsonFactory.FORMAT_NAME_JSON.equals(factory.getFormatName()) ?
+				factory.createNonBlockingByteBufferParser() : factory.createNonBlockingByteArrayParser();
+		this.feeder = parser.getNonBlockingInputFeeder();
+		this.rootNode = mapper.createObjectNode();
+		this.dataNode = rootNode.putArray(DATA);
+	}
+
+	/**
+	 * Feeds next chunk of the document. Chunk is not copied, provided array must not be modified until feed is ready
+	 * for more input.
+	 *
+	 * @param data chunk data
+	 * @param offset chunk start
+	 * @param length chunk length
+	 * @throws IllegalStateException in case feed is not ready for input, see {@link #isReadyForInput()}
+	 */
+	public void feed(byte[] data, int offset, int length) {
+		if (feeder instanceof ByteBufferFeeder) {
+			feedInput(null, 0, 0, ByteBuffer.wrap(data, offset, length));
+		} else {
+			feedInput(data, offset, length, null);
+		}
+	}
+
+	/**
+	 * Feeds next chunk of the document. Remaining bytes of the buffer are consumed: buffer's position is moved to its
+	 * limit. For JSON, chunk is not copied and its content must not be modified until feed is ready for more input.
+	 * Chunks of other formats are copied, so the buffer can be released or reused once this method returns.
+	 *
+	 * @param buffer {@link ByteBuffer} chunk
+	 * @throws IllegalStateException in case feed is not ready for input, see {@link #isReadyForInput()}
+	 */
+	public void feed(ByteBuffer buffer) {
+		if (feeder instanceof ByteBufferFeeder) {
+			// View keeps parser's input independent of buffer's position
+			ByteBuffer chunk = buffer.slice();
+			buffer.position(buffer.limit());
+			feedInput(null, 0, 0, chunk);
+		} else {
+			byte[] data = new byte[buffer.remaining()];
+			buffer.get(data);
+			feedInput(data, 0, data.length, null);
+		}
+	}
+
+	private void feedInput(byte[] data, int offset, int length, ByteBuffer buffer) {
+		synchronized (this) {
+			if (inputEnded) {
+				throw new IllegalStateException("End of input was already signaled");
+			}
+
+			if (terminated || error != null) {
+				// Failed or cancelled, remaining input is discarded
+				return;
+			}
+
+			if (!feeder.needMoreInput()) {
+				throw new IllegalStateException("Previous chunk was not consumed yet, wait for isReadyForInput()");
+			}
+
+			try {
+				if (buffer != null) {
+					((ByteBufferFeeder) feeder).feedInput(buffer);
+				} else {
+					((ByteArrayFeeder) feeder).feedInput(data, offset, offset + length);
+				}
+			} catch (IOException e) {
+				fail(e);
+			}
+		}
+
+		drain();
+	}
+
+	/**
+	 * Signals that the whole document was fed.
+	 */
+	public void endOfInput() {
+		synchronized (this) {
+			if (inputEnded) {
+				return;
+			}
+
+			inputEnded = true;
+			feeder.endOfInput();
+		}
+
+		drain();
+	}
+
+	/**
+	 * Checks if feed can accept next chunk, ie. previous chunk was parsed.
+	 *
+	 * @return <code>true</code> if next chunk can be fed
+	 */
+	public synchronized boolean isReadyForInput() {
+		return !inputEnded && (terminated || error != null || feeder.needMoreInput());
+	}
+
+	/**
+	 * Returns complete document, holding all primary resources together with document meta, links and jsonapi object.
+	 *
+	 * @return {@link JSONAPIDocument} or <code>null</code> in case document was not completely read yet
+	 */
+	public synchronized JSONAPIDocument<List<T>> getDocument() {
+		return document;
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		if (subscriber == null) {
+			throw new NullPointerException("Subscriber must not be null");
+		}
+
+		boolean accepted;
+		synchronized (this) {
+			accepted = !subscribed;
+			subscribed = true;
+		}
+
+		if (!accepted) {
+			subscriber.onSubscribe(new FeedSubscription(null));
+			subscriber.onError(new IllegalStateException("Feed supports a single subscriber"));
+			return;
+		}
+
+		// Subscriber becomes visible to drain only once onSubscribe returns, so that it is signaled first
+		subscriber.onSubscribe(new FeedSubscription(subscriber));
+
+		synchronized (this) {
+			this.subscriber = subscriber;
+		}
+
+		drain();
+	}
+
+	private void request(long n) {
+		synchronized (this) {
+			if (terminated) {
+				return;
+			}
+
+			if (n <= 0) {
+				fail(new IllegalArgumentException("Requested number of resources must be positive"));
+			} else {
+				demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+			}
+		}
+
+		drain();
+	}
+
+	private synchronized void cancel() {
+		terminated = true;
+		pending.clear();
+	}
+
+	/**
+	 * Publishes parsed resources and parses more input while there is demand. At most one resource is parsed ahead of
+	 * the demand, so that input is consumed only as fast as the subscriber processes resources.
+	 * <p>
+	 *     Only one thread emits signals at a time. Signal to emit is chosen while holding the monitor and emitted after
+	 *     releasing it. Threads that change the state while another thread is emitting (eg. subscriber requesting more
+	 *     from <code>onNext</code>) return right away, the emitting thread picks the change up on its next iteration.
+	 * </p>
+	 */
+	private void drain() {
+		synchronized (this) {
+			if (draining) {
+				return;
+			}
+			draining = true;
+		}
+
+		while (true) {
+			Subscriber<? super T> target;
+			T next = null;
+			Throwable failure = null;
+
+			synchronized (this) {
+				target = subscriber;
+
+				while (true) {
+					if (terminated || (target == null && error != null)) {
+						draining = false;
+						return;
+					}
+
+					if (target != null && demand > 0 && !pending.isEmpty()) {
+						demand--;
+						next = pending.poll();
+						break;
+					}
+
+					if (!pending.isEmpty()) {
+						draining = false;
+						return;
+					}
+
+					if (parsed || error != null) {
+						if (target == null) {
+							draining = false;
+							return;
+						}
+
+						terminated = true;
+						draining = false;
+						failure = error;
+						break;
+					}
+
+					if (!parseNext()) {
+						draining = false;
+						return;
+					}
+				}
+			}
+
+			if (next != null) {
+				target.onNext(next);
+			} else if (failure != null) {
+				target.onError(failure);
+				return;
+			} else {
+				target.onComplete();
+				return;
+			}
+		}
+	}
+
+	private void fail(Throwable e) {
+		if (error == null && !terminated) {
+			error = e;
+			pending.clear();
+		}
+	}
+
+	/**
+	 * Parses available input until a primary resource is parsed or document is complete.
+	 *
+	 * @return <code>true</code> in case resource was parsed, document completed or parsing failed, <code>false</code>
+	 * in case more input is needed
+	 */
+	private boolean parseNext() {
+		try {
+			JsonToken token;
+
+			while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+				if (token == null) {
+					throw new IllegalArgumentException("Unexpected end of document");
+				}
+
+				if (capture != null) {
+					if (captureToken(token)) {
+						return true;
+					}
+				} else if (depth == 0) {
+					if (token != JsonToken.START_OBJECT) {
+						throw new IllegalArgumentException("Document must be a JSON object");
+					}
+					depth = 1;
+				} else if (inData) {
+					if (token == JsonToken.END_ARRAY) {
+						inData = false;
+					} else if (token == JsonToken.START_OBJECT) {
+						startCapture(token);
+					} else {
+						throw new IllegalArgumentException("Primary data elements must be resource objects");
+					}
+				} else if (token == JsonToken.FIELD_NAME) {
+					member = parser.getCurrentName();
+				} else if (token == JsonToken.END_OBJECT) {
+					complete();
+					return true;
+				} else if (DATA.equals(member) && token == JsonToken.START_ARRAY) {
+					inData = true;
+				} else if (DATA.equals(member) && token == JsonToken.VALUE_NULL) {
+					// Empty collection
+				} else {
+					// Other members, and single resource as primary data, are read fully
+					startCapture(token);
+					if (!token.isStructStart() && captureToken(null)) {
+						return true;
+					}
+				}
+			}
+
+			return false;
+		} catch (Exception e) {
+			fail(e);
+			return true;
+		}
+	}
+
+	private void startCapture(JsonToken token) throws IOException {
+		capture = new TokenBuffer(parser);
+		capture.copyCurrentEvent(parser);
+		captureDepth = token.isStructStart() ? 1 : 0;
+	}
+
+	/**
+	 * Adds token to the value being captured.
+	 *
+	 * @param token {@link JsonToken} current token, <code>null</code> in case captured value is a scalar that was
+	 *              already added
+	 * @return <code>true</code> in case primary resource was parsed
+	 */
+	private boolean captureToken(JsonToken token) throws IOException {
+		if (token != null) {
+			capture.copyCurrentEvent(parser);
+
+			if (token.isStructStart()) {
+				captureDepth++;
+			} else if (token.isStructEnd()) {
+				captureDepth--;
+			}
+		}
+
+		if (captureDepth > 0) {
+			return false;
+		}
+
+		JsonNode value = mapper.readTree(capture.asParser(mapper));
+		capture = null;
+
+		if (inData || DATA.equals(member)) {
+			ObjectNode resourceNode = (ObjectNode) value;
+			T resource = converter.readResource(resourceNode, clazz);
+
+			// Attributes are bound, only identifiers and relationships are needed once document completes
+			resourceNode.remove(ATTRIBUTES);
+			dataNode.add(resourceNode);
+
+			published.add(resource);
+			pending.add(resource);
+			return true;
+		}
+
+		rootNode.set(member, value);
+		return false;
+	}
+
+	private void complete() {
+		// Resolvers block, they must not run on the feeding thread
+		document = converter.mergeDocumentCollection(rootNode, clazz, published,
+				ResourceConverter.RESOURCE_ONLY_SETTINGS);
+		parsed = true;
+	}
+
+	/**
+	 * Subscription of the single feed subscriber, subscriptions of rejected subscribers do nothing.
+	 */
+	private class FeedSubscription implements Subscription {
+		private final Subscriber<? super T> owner;
+
+		FeedSubscription(Subscriber<? super T> owner) {
+			this.owner = owner;
+		}
+
+		@Override
+		public void request(long n) {
+			if (owner != null) {
+				ResourceFeed.this.request(n);
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (owner != null) {
+				ResourceFeed.this.cancel();
+			}
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of serialized resources, used to avoid re-serializing frequently written resources.
+ *
+ * <p>
+ *     Resources are cached by their type, id, version and serialization settings that affect their representation
+ *     (id, local id, links and meta serialization). Cached fragments are spliced into documents as they are, only
+ *     relationships are traversed in order to populate the <code>included</code> section.
+ * </p>
+ * <p>
+ *     Cached fragments are invalidated either by a change of resource version, as reported by provided
+ *     {@link VersionAccessor}, or explicitly using {@link #evict(String, String)}. In case no version accessor is
+ *     provided, cached fragment is used until it is evicted. Cache is bounded by number of resources and by total
+ *     size of cached fragments, least recently used resources are evicted first.
+ * </p>
+ * <p>
+ *     Resources without an id are never cached. Cache is not used for serialization calls that define compound
+ *     document size limits. Single cache instance should be used with a single {@link ResourceConverter}.
+ * </p>
+ *
+ * @author jbegic
+ */
+public class ResourceFragmentCache {
+	private final LinkedHashMap<String, CachedResource> resources = new LinkedHashMap<>(16, 0.75f, true);
+	private final int maxResources;
+	private final long maxBytes;
+	private final VersionAccessor versionAccessor;
+
+	private long bytes;
+
+	/**
+	 * Creates new cache without version accessor, cached resources must be evicted explicitly when they change.
+	 *
+	 * @param maxResources maximum number of cached resources
+	 * @param maxBytes maximum size of cached fragments in bytes
+	 */
+	public ResourceFragmentCache(int maxResources, long maxBytes) {
+		this(maxResources, maxBytes, null);
+	}
+
+	/**
+	 * Creates new cache.
+	 *
+	 * @param maxResources maximum number of cached resources
+	 * @param maxBytes maximum size of cached fragments in bytes
+	 * @param versionAccessor {@link VersionAccessor} used to detect changed resources, can be <code>null</code>
+	 */
+	public ResourceFragmentCache(int maxResources, long maxBytes, VersionAccessor versionAccessor) {
+		if (maxResources <= 0 || maxBytes <= 0) {
+			throw new IllegalArgumentException("Cache limits must be positive");
+		}
+
+		this.maxResources = maxResources;
+		this.maxBytes = maxBytes;
+		this.versionAccessor = versionAccessor;
+	}
+
+	/**
+	 * Removes all cached fragments of the resource.
+	 *
+	 * @param type {@link String} resource type
+	 * @param id {@link String} resource id
+	 */
+	public synchronized void evict(String type, String id) {
+		remove(createKey(type, id));
+	}
+
+	/**
+	 * Removes all cached fragments.
+	 */
+	public synchronized void evictAll() {
+		resources.clear();
+		bytes = 0;
+	}
+
+	/**
+	 * Returns number of cached resources.
+	 *
+	 * @return {@link Integer}
+	 */
+	public synchronized int size() {
+		return resources.size();
+	}
+
+	/**
+	 * Returns total size of cached fragments in bytes.
+	 *
+	 * @return {@link Long}
+	 */
+	public synchronized long getSizeInBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Returns cached fragment.
+	 *
+	 * @param type resource type
+	 * @param id resource id
+	 * @param resource resource
+	 * @param fingerprint serialization settings fingerprint
+	 * @return {@link SerializableString} fragment or <code>null</code> if resource is not cached
+	 */
+	SerializableString get(String type, String id, Object resource, int fingerprint) {
+		Object version = getVersion(resource);
+
+		synchronized (this) {
+			String key = createKey(type, id);
+			CachedResource cached = resources.get(key);
+
+			if (cached == null) {
+				return null;
+			}
+
+			if (!equal(cached.version, version)) {
+				remove(key);
+				return null;
+			}
+
+			return cached.fragments.get(fingerprint);
+		}
+	}
+
+	/**
+	 * Caches serialized resource.
+	 *
+	 * @param type resource type
+	 * @param id resource id
+	 * @param resource resource
+	 * @param fingerprint serialization settings fingerprint
+	 * @param fragment serialized resource
+	 */
+	void put(String type, String id, Object resource, int fingerprint, String fragment) {
+		Object version = getVersion(resource);
+
+		if (versionAccessor != null && version == null) {
+			return;
+		}
+
+		SerializedString value = new SerializedString(fragment);
+		long size = value.asUnquotedUTF8().length;
+
+		if (size > maxBytes) {
+			return;
+		}
+
+		synchronized (this) {
+			String key = createKey(type, id);
+			CachedResource cached = resources.get(key);
+
+			if (cached == null || !equal(cached.version, version)) {
+				remove(key);
+				cached = new CachedResource(version);
+				resources.put(key, cached);
+			}
+
+			SerializedString previous = cached.fragments.put(fingerprint, value);
+			if (previous != null) {
+				cached.bytes -= previous.asUnquotedUTF8().length;
+				bytes -= previous.asUnquotedUTF8().length;
+			}
+			cached.bytes += size;
+			bytes += size;
+
+			// Evict least recently used resources
+			Iterator<CachedResource> iterator = resources.values().iterator();
+			while ((resources.size() > maxResources || bytes > maxBytes) && iterator.hasNext()) {
+				CachedResource eldest = iterator.next();
+
+				if (eldest != cached) {
+					bytes -= eldest.bytes;
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	private void remove(String key) {
+		CachedResource removed = resources.remove(key);
+
+		if (removed != null) {
+			bytes -= removed.bytes;
+		}
+	}
+
+	private Object getVersion(Object resource) {
+		return versionAccessor != null ? versionAccessor.getVersion(resource) : null;
+	}
+
+	private static String createKey(String type, String id) {
+		return type.concat(":").concat(id);
+	}
+
+	private static boolean equal(Object first, Object second) {
+		return first == null ? second == null : first.equals(second);
+	}
+
+	/**
+	 * Provides resource version, used to detect that cached fragment is stale.
+	 */
+	public interface VersionAccessor {
+
+		/**
+		 * Returns current version of the resource, eg. value of its version or last modification timestamp field.
+		 *
+		 * @param resource resource
+		 * @return version or <code>null</code> in case resource should not be cached
+		 */
+		Object getVersion(Object resource);
+	}
+
+	/**
+	 * Fragments of a single resource, one for each settings fingerprint.
+	 */
+	private static class CachedResource {
+		final Object version;
+		final Map<Integer, SerializedString> fragments = new HashMap<>(4);
+		long bytes;
+
+		CachedResource(Object version) {
+			this.version = version;
+		}
+	}
+}
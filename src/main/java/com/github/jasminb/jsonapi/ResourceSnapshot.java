@@ -0,0 +1,66 @@
+package com.github.jasminb.jsonapi;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Baseline state of a resource, used to serialize only changed attributes and relationships.
+ *
+ * <p>
+ *     Snapshot is created using {@link ResourceConverter#snapshot(Object)}, usually right after the resource was read
+ *     or written, and is later passed to
+ *     {@link ResourceConverter#writeDocumentChanges(JSONAPIDocument, ResourceSnapshot)} in order to create a
+ *     <code>PATCH</code> request document. Snapshot holds serialized attribute values and relationship linkage, it
+ *     does not reference the resource itself, so resource can be freely modified after the snapshot was taken.
+ * </p>
+ *
+ * @author jbegic
+ */
+public class ResourceSnapshot {
+	private final String type;
+	private final String identifier;
+	private final ObjectNode attributes;
+	private final ObjectNode relationships;
+
+	ResourceSnapshot(String type, String identifier, ObjectNode attributes, ObjectNode relationships) {
+		this.type = type;
+		this.identifier = identifier;
+		this.attributes = attributes;
+		this.relationships = relationships;
+	}
+
+	/**
+	 * Returns type of the resource snapshot was taken of.
+	 *
+	 * @return {@link String} resource type
+	 */
+	public String getType() {
+		return type;
+	}
+
+	/**
+	 * Returns identifier (type and id or local id) of the resource snapshot was taken of.
+	 *
+	 * @return {@link String} identifier
+	 */
+	String getIdentifier() {
+		return identifier;
+	}
+
+	/**
+	 * Returns serialized attributes.
+	 *
+	 * @return {@link ObjectNode}
+	 */
+	ObjectNode getAttributes() {
+		return attributes;
+	}
+
+	/**
+	 * Returns relationship linkage by relationship name.
+	 *
+	 * @return {@link ObjectNode}
+	 */
+	ObjectNode getRelationships() {
+		return relationships;
+	}
+}
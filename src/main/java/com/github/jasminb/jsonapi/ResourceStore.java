@@ -0,0 +1,110 @@
+package com.github.jasminb.jsonapi;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Identity map of deserialized resources, shared across documents read by a {@link ResourceConverter}.
+ *
+ * <p>
+ *     When a store is set on the converter, every resource that has an id is stored by its type and id. When the same
+ *     resource is read again (in the same or in a later document), stored instance is updated with the attributes,
+ *     meta, links and relationships present in the document instead of creating a new instance. Fields that are not
+ *     present in the document keep their values. Resources that appear only as relationship identifiers resolve to
+ *     the stored instance.
+ * </p>
+ * <p>
+ *     Store is bounded, least recently used resources are evicted once maximum size is reached. Access to the store is
+ *     synchronized, however stored instances are updated in place, so documents containing same resources should not
+ *     be read concurrently with the resources being used by other threads.
+ * </p>
+ *
+ * @author jbegic
+ */
+public class ResourceStore {
+	private final Map<String, Object> resources;
+
+	/**
+	 * Creates new store.
+	 *
+	 * @param maxSize maximum number of stored resources
+	 */
+	public ResourceStore(final int maxSize) {
+		if (maxSize <= 0) {
+			throw new IllegalArgumentException("Maximum size must be positive");
+		}
+
+		this.resources = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Returns stored resource.
+	 *
+	 * @param type {@link String} resource type
+	 * @param id {@link String} resource id
+	 * @return resource or <code>null</code> if resource is not stored
+	 */
+	public synchronized Object get(String type, String id) {
+		return resources.get(createKey(type, id));
+	}
+
+	/**
+	 * Returns stored resource.
+	 *
+	 * @param clazz {@link Class} resource class, must be registered with the converter that populates the store
+	 * @param type {@link String} resource type
+	 * @param id {@link String} resource id
+	 * @param <T> type
+	 * @return resource or <code>null</code> if resource is not stored or is not an instance of given class
+	 */
+	public <T> T get(Class<T> clazz, String type, String id) {
+		Object result = get(type, id);
+		return clazz.isInstance(result) ? clazz.cast(result) : null;
+	}
+
+	/**
+	 * Stores resource, replacing the resource with the same type and id.
+	 *
+	 * @param type {@link String} resource type
+	 * @param id {@link String} resource id
+	 * @param resource resource
+	 */
+	public synchronized void put(String type, String id, Object resource) {
+		resources.put(createKey(type, id), resource);
+	}
+
+	/**
+	 * Removes resource from the store.
+	 *
+	 * @param type {@link String} resource type
+	 * @param id {@link String} resource id
+	 */
+	public synchronized void evict(String type, String id) {
+		resources.remove(createKey(type, id));
+	}
+
+	/**
+	 * Removes all resources from the store.
+	 */
+	public synchronized void clear() {
+		resources.clear();
+	}
+
+	/**
+	 * Returns number of stored resources.
+	 *
+	 * @return {@link Integer}
+	 */
+	public synchronized int size() {
+		return resources.size();
+	}
+
+	private static String createKey(String type, String id) {
+		return type.concat(":").concat(id);
+	}
+}
@@ -0,0 +1,149 @@
+package com.github.jasminb.jsonapi;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * State of a single serialization call.
+ *
+ * <p>
+ *     Resource graph is traversed iteratively, resources that should be added to the <code>included</code> section are
+ *     queued as pending resources and serialized one by one, which keeps stack usage constant regardless of graph
+ *     depth. Resources that were already serialized (or queued) are tracked by identity.
+ * </p>
+ *
+ * @author jbegic
+ */
+class SerializationContext {
+	private final IncludedResources included;
+	private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+	private final Set<String> released = new HashSet<>();
+	private final Set<String> expandedIncludes = new HashSet<>();
+	private final Deque<PendingResource> pending = new ArrayDeque<>();
+	private final SerializationSettings settings;
+	private final CompoundDocumentBudget budget;
+
+	SerializationContext(IncludedResources included, SerializationSettings settings) {
+		this.included = included;
+		this.settings = settings;
+		this.budget = CompoundDocumentBudget.create(settings);
+	}
+
+	/**
+	 * Returns resources serialized for the <code>included</code> section.
+	 */
+	IncludedResources getIncluded() {
+		return included;
+	}
+
+	SerializationSettings getSettings() {
+		return settings;
+	}
+
+	CompoundDocumentBudget getBudget() {
+		return budget;
+	}
+
+	/**
+	 * Returns root of the include path tree.
+	 *
+	 * @return {@link IncludePaths} or <code>null</code> if include paths are not used
+	 */
+	IncludePaths getIncludePaths() {
+		return settings != null ? settings.getIncludePaths() : null;
+	}
+
+	/**
+	 * Marks resource as visited.
+	 *
+	 * @param resource resource
+	 * @return <code>true</code> if resource was not visited before
+	 */
+	boolean visit(Object resource) {
+		return visited.add(resource);
+	}
+
+	/**
+	 * Checks if resource was serialized or queued for serialization.
+	 *
+	 * @param resource resource
+	 * @param identifier resource identifier
+	 * @return {@link Boolean}
+	 */
+	boolean isVisited(Object resource, String identifier) {
+		return visited.contains(resource) || included.contains(identifier) || released.contains(identifier);
+	}
+
+	/**
+	 * Stops tracking resource by identity, only its identifier is retained.
+	 * <p>
+	 *     Used for primary resources that are streamed, so that they can be garbage collected once written.
+	 * </p>
+	 *
+	 * @param resource resource
+	 * @param identifier resource identifier, can be <code>null</code>
+	 */
+	void release(Object resource, String identifier) {
+		visited.remove(resource);
+
+		if (identifier != null) {
+			released.add(identifier);
+		}
+	}
+
+	/**
+	 * Records that resource is being expanded using provided include path node.
+	 *
+	 * @param identifier resource identifier
+	 * @param includes include path node
+	 * @return <code>true</code> if resource was not expanded with given node before
+	 */
+	boolean markExpanded(String identifier, IncludePaths includes) {
+		return expandedIncludes.add(includes.getIndex() + "#" + identifier);
+	}
+
+	/**
+	 * Queues resource for serialization into the <code>included</code> section.
+	 *
+	 * @param resource resource
+	 * @param identifier resource identifier
+	 * @param includes include path node used when serializing resource relationships
+	 */
+	void include(Object resource, String identifier, IncludePaths includes) {
+		visited.add(resource);
+		pending.add(new PendingResource(resource, identifier, includes));
+	}
+
+	/**
+	 * Returns next resource to serialize or <code>null</code> if there are no more pending resources.
+	 */
+	PendingResource next() {
+		return pending.poll();
+	}
+
+	/**
+	 * Returns number of resources that are included or queued for inclusion.
+	 */
+	int getIncludedCount() {
+		return included.size() + pending.size();
+	}
+
+	/**
+	 * Resource waiting to be serialized.
+	 */
+	static class PendingResource {
+		final Object resource;
+		final String identifier;
+		final IncludePaths includes;
+
+		PendingResource(Object resource, String identifier, IncludePaths includes) {
+			this.resource = resource;
+			this.identifier = identifier;
+			this.includes = includes;
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.github.jasminb.jsonapi;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -13,11 +14,18 @@ import java.util.Set;
 public class SerializationSettings {
 	private List<String> relationshipIncludes;
 	private List<String> relationshipExcludes;
+	private IncludePaths includePaths;
 	private Boolean serializeMeta;
 	private Boolean serializeLinks;
 	private Boolean serializeId;
 	private Boolean serializeLocalId;
 	private Boolean serializeJSONAPIObject;
+	private Integer maxIncludedResources;
+	private Integer maxRelationshipLinkage;
+	private Long maxOutputBytes;
+	private Integer includedSpillThreshold;
+	private File includedSpillDirectory;
+	private Boolean sortIncluded;
 
 	private SerializationSettings() {
 		// Hide CTOR
@@ -49,12 +57,29 @@ public class SerializationSettings {
 	 * @return {@link Boolean}
 	 */
 	public boolean hasIncludedRelationships() {
+		if (includePaths != null && !includePaths.isEmpty()) {
+			return true;
+		}
+
 		Set<String> includedRelationships = new HashSet<>(relationshipIncludes);
 		includedRelationships.removeAll(relationshipExcludes);
 
 		return !includedRelationships.isEmpty();
 	}
 
+	/**
+	 * Returns compiled include paths.
+	 * <p>
+	 *     When include paths are set, only relationships that are on one of the paths (or explicitly included using
+	 *     relationship name) are added to the <code>included</code> section.
+	 * </p>
+	 *
+	 * @return {@link IncludePaths} root of the include path tree or <code>null</code> if include paths are not set
+	 */
+	public IncludePaths getIncludePaths() {
+		return includePaths;
+	}
+
 	/**
 	 * Returns meta serialization flag.
 	 *
@@ -100,17 +125,78 @@ public class SerializationSettings {
 		return serializeJSONAPIObject;
 	}
 
+	/**
+	 * Returns maximum number of resources in the <code>included</code> section.
+	 *
+	 * @return {@link Integer} limit or <code>null</code> if not limited
+	 */
+	public Integer getMaxIncludedResources() {
+		return maxIncludedResources;
+	}
+
+	/**
+	 * Returns maximum number of resource identifiers in a single relationship's <code>data</code>.
+	 *
+	 * @return {@link Integer} limit or <code>null</code> if not limited
+	 */
+	public Integer getMaxRelationshipLinkage() {
+		return maxRelationshipLinkage;
+	}
+
+	/**
+	 * Returns approximate maximum size of serialized resources in bytes.
+	 *
+	 * @return {@link Long} limit or <code>null</code> if not limited
+	 */
+	public Long getMaxOutputBytes() {
+		return maxOutputBytes;
+	}
+
+	/**
+	 * Returns number of <code>included</code> resources kept in memory before the rest is spilled to disk.
+	 *
+	 * @return {@link Integer} threshold or <code>null</code> if included resources are always kept in memory
+	 */
+	public Integer getIncludedSpillThreshold() {
+		return includedSpillThreshold;
+	}
+
+	/**
+	 * Returns directory used for spilled <code>included</code> resources.
+	 *
+	 * @return {@link File} directory or <code>null</code> if default temporary directory is used
+	 */
+	public File getIncludedSpillDirectory() {
+		return includedSpillDirectory;
+	}
+
+	/**
+	 * Returns <code>included</code> section sorting flag.
+	 *
+	 * @return {@link Boolean}
+	 */
+	public Boolean sortIncluded() {
+		return sortIncluded;
+	}
+
 	/**
 	 * Serialisation settings builder.
 	 */
 	public static class Builder {
 		private final List<String> relationshipIncludes = new ArrayList<>();
 		private final List<String> relationshipExcludes = new ArrayList<>();
+		private final List<String> includePaths = new ArrayList<>();
 		private Boolean serializeMeta;
 		private Boolean serializeLinks;
 		private Boolean serializeId;
 		private Boolean serializeLocalId;
 		private Boolean serializeJSONAPIObject;
+		private Integer maxIncludedResources;
+		private Integer maxRelationshipLinkage;
+		private Long maxOutputBytes;
+		private Integer includedSpillThreshold;
+		private File includedSpillDirectory;
+		private Boolean sortIncluded;
 
 		/**
 		 * Explicitly enable relationship serialisation.
@@ -123,6 +209,23 @@ public class SerializationSettings {
 			return this;
 		}
 
+		/**
+		 * Include relationships on provided path(s).
+		 * <p>
+		 *     Path uses JSON API <code>include</code> parameter syntax, relationship names are separated using dots and
+		 *     multiple paths can be provided as comma separated list, eg. <code>author,comments.author</code>.
+		 *     Unlike {@link #includeRelationship(String)}, relationships are included only on the given paths and not on
+		 *     every depth of the resource graph.
+		 * </p>
+		 *
+		 * @param path {@link String} include path(s)
+		 * @return {@link Builder}
+		 */
+		public Builder includePath(String path) {
+			includePaths.add(path);
+			return this;
+		}
+
 		/**
 		 * Explicitly disable relationship serialisation.
 		 *
@@ -189,6 +292,98 @@ public class SerializationSettings {
 			return this;
 		}
 
+		/**
+		 * Limit number of resources in the <code>included</code> section.
+		 * <p>
+		 *     Once the limit is reached, relationships whose resources would have to be added to the
+		 *     <code>included</code> section are serialized without <code>data</code>, only their links and meta
+		 *     (containing the <code>count</code> of related resources) are written.
+		 * </p>
+		 *
+		 * @param limit {@link Integer} maximum number of included resources, <code>null</code> disables the limit
+		 * @return {@link Builder}
+		 */
+		public Builder maxIncludedResources(Integer limit) {
+			maxIncludedResources = limit;
+			return this;
+		}
+
+		/**
+		 * Limit number of resource identifiers in a single relationship.
+		 * <p>
+		 *     Relationships exceeding the limit are serialized without <code>data</code>, only their links and meta
+		 *     (containing the <code>count</code> of related resources) are written.
+		 * </p>
+		 *
+		 * @param limit {@link Integer} maximum number of linkage entries, <code>null</code> disables the limit
+		 * @return {@link Builder}
+		 */
+		public Builder maxRelationshipLinkage(Integer limit) {
+			maxRelationshipLinkage = limit;
+			return this;
+		}
+
+		/**
+		 * Limit approximate size of serialized resources.
+		 * <p>
+		 *     Once the limit is reached, no more resources are added to the <code>included</code> section, and
+		 *     relationships that would require it are serialized using links and meta only.
+		 * </p>
+		 *
+		 * @param limit {@link Long} approximate maximum size in bytes, <code>null</code> disables the limit
+		 * @return {@link Builder}
+		 */
+		public Builder maxOutputBytes(Long limit) {
+			maxOutputBytes = limit;
+			return this;
+		}
+
+		/**
+		 * Spill <code>included</code> resources to disk once given number of them is held in memory.
+		 * <p>
+		 *     Applies to collection documents written using
+		 *     {@link ResourceConverter#writeDocumentCollection(JSONAPIDocument, SerializationSettings)} and its streaming
+		 *     variants. Resources above the threshold are serialized to a temporary file, only their identifiers are kept
+		 *     in memory, and are copied to the output when the <code>included</code> section is written. Temporary file
+		 *     is deleted once the document is written.
+		 * </p>
+		 *
+		 * @param threshold {@link Integer} number of included resources kept in memory, <code>null</code> disables
+		 *                  spilling
+		 * @return {@link Builder}
+		 */
+		public Builder includedSpillThreshold(Integer threshold) {
+			includedSpillThreshold = threshold;
+			return this;
+		}
+
+		/**
+		 * Set directory used for spilled <code>included</code> resources.
+		 *
+		 * @param directory {@link File} directory, <code>null</code> to use default temporary directory
+		 * @return {@link Builder}
+		 */
+		public Builder includedSpillDirectory(File directory) {
+			includedSpillDirectory = directory;
+			return this;
+		}
+
+		/**
+		 * Enable or disable sorting of the <code>included</code> section.
+		 * <p>
+		 *     By default, resources are written in the order they are reached while traversing the resource graph.
+		 *     When sorting is enabled, they are ordered by their id (and type), so that equal resource graphs are
+		 *     serialized to equal documents regardless of traversal order (eg. when computing ETags).
+		 * </p>
+		 *
+		 * @param flag {@link Boolean} sorting flag
+		 * @return {@link Builder}
+		 */
+		public Builder sortIncluded(Boolean flag) {
+			sortIncluded = flag;
+			return this;
+		}
+
 		/**
 		 * Create new SerialisationSettings instance.
 		 *
@@ -198,11 +393,29 @@ public class SerializationSettings {
 			SerializationSettings result = new SerializationSettings();
 			result.relationshipIncludes = new ArrayList<>(relationshipIncludes);
 			result.relationshipExcludes = new ArrayList<>(relationshipExcludes);
+
+			if (!includePaths.isEmpty()) {
+				StringBuilder include = new StringBuilder();
+				for (String path : includePaths) {
+					if (include.length() > 0) {
+						include.append(',');
+					}
+					include.append(path);
+				}
+				result.includePaths = IncludePaths.compile(include.toString());
+			}
+
 			result.serializeLinks = serializeLinks;
 			result.serializeMeta = serializeMeta;
 			result.serializeId = serializeId;
 			result.serializeJSONAPIObject = serializeJSONAPIObject;
 			result.serializeLocalId = serializeLocalId;
+			result.maxIncludedResources = maxIncludedResources;
+			result.maxRelationshipLinkage = maxRelationshipLinkage;
+			result.maxOutputBytes = maxOutputBytes;
+			result.includedSpillThreshold = includedSpillThreshold;
+			result.includedSpillDirectory = includedSpillDirectory;
+			result.sortIncluded = sortIncluded;
 			return result;
 		}
 	}
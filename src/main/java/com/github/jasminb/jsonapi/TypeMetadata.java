@@ -0,0 +1,196 @@
+package com.github.jasminb.jsonapi;
+
+import com.github.jasminb.jsonapi.annotations.Id;
+import com.github.jasminb.jsonapi.annotations.LocalId;
+import com.github.jasminb.jsonapi.annotations.Meta;
+import com.github.jasminb.jsonapi.annotations.Relationship;
+import com.github.jasminb.jsonapi.annotations.RelationshipLinks;
+import com.github.jasminb.jsonapi.annotations.RelationshipMeta;
+import com.github.jasminb.jsonapi.annotations.Type;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Annotation metadata of a single resource class.
+ *
+ * <p>
+ *     Metadata is resolved using reflection once per class and is shared by all {@link ConverterConfiguration}
+ *     instances, so creating additional converters for already known classes does not repeat class processing.
+ *     Instances are immutable.
+ * </p>
+ *
+ * @author jbegic
+ */
+class TypeMetadata {
+	private static final ClassValue<TypeMetadata> METADATA = new ClassValue<TypeMetadata>() {
+		@Override
+		protected TypeMetadata computeValue(Class<?> type) {
+			return new TypeMetadata(type);
+		}
+	};
+
+	final Type type;
+	final Field idField;
+	final ResourceIdHandler idHandler;
+	final Field localIdField;
+	final ResourceIdHandler localIdHandler;
+	final Field metaField;
+	final Class<?> metaType;
+	final Field linksField;
+
+	final List<Field> relationshipFields;
+	final Map<Field, Relationship> fieldRelationships;
+	final Map<String, Class<?>> relationshipTypes;
+	final Map<String, Field> relationshipFieldsByName;
+	final Map<String, Class<?>> relationshipMetaTypes;
+	final Map<String, Field> relationshipMetaFields;
+	final Map<String, Field> relationshipLinksFields;
+
+	/**
+	 * Returns metadata of provided class.
+	 *
+	 * @param clazz {@link Class} annotated with {@link Type}
+	 * @return {@link TypeMetadata}
+	 * @throws IllegalArgumentException in case class is not a valid resource class
+	 */
+	static TypeMetadata get(Class<?> clazz) {
+		return METADATA.get(clazz);
+	}
+
+	private TypeMetadata(Class<?> clazz) {
+		type = clazz.getAnnotation(Type.class);
+
+		Map<Field, Relationship> fieldRelationships = new HashMap<>();
+		Map<String, Class<?>> relationshipTypes = new LinkedHashMap<>();
+		Map<String, Field> relationshipFieldsByName = new HashMap<>();
+		Map<String, Class<?>> relationshipMetaTypes = new HashMap<>();
+		Map<String, Field> relationshipMetaFields = new HashMap<>();
+		Map<String, Field> relationshipLinksFields = new HashMap<>();
+
+		// collecting Relationship fields
+		List<Field> relationshipFields = ReflectionUtils.getAnnotatedFields(clazz, Relationship.class, true);
+
+		for (Field relationshipField : relationshipFields) {
+			relationshipField.setAccessible(true);
+
+			Relationship relationship = relationshipField.getAnnotation(Relationship.class);
+			relationshipTypes.put(relationship.value(), ReflectionUtils.getFieldType(relationshipField));
+			relationshipFieldsByName.put(relationship.value(), relationshipField);
+			fieldRelationships.put(relationshipField, relationship);
+
+			if (relationship.resolve() && relationship.relType() == null) {
+				throw new IllegalArgumentException("@Relationship on " + clazz.getName() + "#" +
+						relationshipField.getName() + " with 'resolve = true' must have a relType attribute " +
+						"set." );
+			}
+		}
+
+		// collecting RelationshipMeta fields
+		List<Field> relMetaFields = ReflectionUtils.getAnnotatedFields(clazz, RelationshipMeta.class, true);
+
+		for (Field relMetaField : relMetaFields) {
+			relMetaField.setAccessible(true);
+
+			RelationshipMeta relationshipMeta = relMetaField.getAnnotation(RelationshipMeta.class);
+			relationshipMetaTypes.put(relationshipMeta.value(), ReflectionUtils.getFieldType(relMetaField));
+			relationshipMetaFields.put(relationshipMeta.value(), relMetaField);
+		}
+
+		// Collecting RelationshipLink fields
+		List<Field> relLinkFields = ReflectionUtils.getAnnotatedFields(clazz, RelationshipLinks.class, true);
+
+		for (Field relLinkField : relLinkFields) {
+			relLinkField.setAccessible(true);
+
+			RelationshipLinks links = relLinkField.getAnnotation(RelationshipLinks.class);
+			relationshipLinksFields.put(links.value(), relLinkField);
+		}
+
+		// collecting Id fields
+		List<Field> idAnnotatedFields = ReflectionUtils.getAnnotatedFields(clazz, Id.class, true);
+
+		if (idAnnotatedFields.size() == 1) {
+			idField = idAnnotatedFields.get(0);
+			idField.setAccessible(true);
+			try {
+				idHandler = idField.getAnnotation(Id.class).value().newInstance();
+			} catch (InstantiationException | IllegalAccessException e) {
+				throw new IllegalArgumentException("Unable to construct handler instance by using no-arg constructor", e);
+			}
+		} else if (idAnnotatedFields.isEmpty()) {
+			throw new IllegalArgumentException("All resource classes must have a field annotated with the " +
+					"@Id annotation");
+		} else {
+			throw new IllegalArgumentException("Only single @Id annotation is allowed per defined type!");
+		}
+
+		// Collecting local id fields
+		List<Field> localIdFields = ReflectionUtils.getAnnotatedFields(clazz, LocalId.class, true);
+
+		if (localIdFields.size() == 1) {
+			localIdField = localIdFields.get(0);
+			localIdField.setAccessible(true);
+			try {
+				localIdHandler = localIdField.getAnnotation(LocalId.class).value().newInstance();
+			} catch (InstantiationException | IllegalAccessException e) {
+				throw new IllegalArgumentException("Unable to construct handler instance by using no-arg constructor", e);
+			}
+		} else if (localIdFields.size() > 1) {
+			throw new IllegalArgumentException("Only single @LocalId annotation is allowed per defined type!");
+		} else {
+			localIdField = null;
+			localIdHandler = null;
+		}
+
+		// Collecting Meta fields
+		List<Field> metaFields = ReflectionUtils.getAnnotatedFields(clazz, Meta.class, true);
+
+		if (metaFields.size() == 1) {
+			metaField = metaFields.get(0);
+			metaField.setAccessible(true);
+			metaType = ReflectionUtils.getFieldType(metaField);
+		} else if (metaFields.size() > 1) {
+			throw new IllegalArgumentException(String.format("Only one meta field is allowed for type '%s'",
+					clazz.getCanonicalName()));
+		} else {
+			metaField = null;
+			metaType = null;
+		}
+
+		// Collect and handle 'Link' field
+		List<Field> linkFields = ReflectionUtils.getAnnotatedFields(clazz,
+				com.github.jasminb.jsonapi.annotations.Links.class, true);
+
+		if (linkFields.size() == 1) {
+			Field linkField = linkFields.get(0);
+			linkField.setAccessible(true);
+
+			Class<?> linkType = ReflectionUtils.getFieldType(linkField);
+
+			if (!Links.class.isAssignableFrom(linkType)) {
+				throw new IllegalArgumentException(String.format("%s is not allowed to be used as @Links " +
+						"attribute. Only com.github.jasminb.jsonapi.Links or its derivatives" +
+						" can be annotated as @Links", linkType.getCanonicalName()));
+			}
+			linksField = linkField;
+		} else if (linkFields.size() > 1) {
+			throw new IllegalArgumentException(String.format("Only one links field is allowed for type '%s'",
+					clazz.getCanonicalName()));
+		} else {
+			linksField = null;
+		}
+
+		this.relationshipFields = Collections.unmodifiableList(relationshipFields);
+		this.fieldRelationships = Collections.unmodifiableMap(fieldRelationships);
+		this.relationshipTypes = Collections.unmodifiableMap(relationshipTypes);
+		this.relationshipFieldsByName = Collections.unmodifiableMap(relationshipFieldsByName);
+		this.relationshipMetaTypes = Collections.unmodifiableMap(relationshipMetaTypes);
+		this.relationshipMetaFields = Collections.unmodifiableMap(relationshipMetaFields);
+		this.relationshipLinksFields = Collections.unmodifiableMap(relationshipLinksFields);
+	}
+}
@@ -5,7 +5,11 @@ import com.github.jasminb.jsonapi.ResourceConverter;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 
+import okhttp3.MediaType;
 import okhttp3.RequestBody;
 import okhttp3.ResponseBody;
 import retrofit2.Converter;
@@ -20,6 +24,7 @@ public class JSONAPIConverterFactory extends Converter.Factory {
 	private ResourceConverter deserializer;
 	private ResourceConverter serializer;
 	private Converter.Factory alternativeFactory;
+	private final Map<String, ResourceConverter> responseFormats = new LinkedHashMap<>();
 
 	/**
 	 * Creates new JSONAPIConverterFactory.
@@ -62,18 +67,35 @@ public class JSONAPIConverterFactory extends Converter.Factory {
 		this.alternativeFactory = alternativeFactory;
 	}
 
+	/**
+	 * Registers converter used to read responses whose content type matches converter's media type, see
+	 * {@link ResourceConverter#getMediaType()}. <br />
+	 *
+	 * This method is useful in cases where API responds using different formats, eg. JSON and Smile or CBOR (which
+	 * are smaller and faster to parse). Responses with other content types are read using the default converter,
+	 * requests are always written using the serializer provided when creating the factory.
+	 * @param converter {@link ResourceConverter} converter, eg. one created using Smile or CBOR object mapper
+	 */
+	public void addResponseFormat(ResourceConverter converter) {
+		responseFormats.put(getMediaTypeKey(MediaType.parse(converter.getMediaType())), converter);
+	}
+
 	@Override
 	public Converter<ResponseBody, ?> responseBodyConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
 		RetrofitType retrofitType = new RetrofitType(type);
 
 		if (retrofitType.isValid() && deserializer.isRegisteredType(retrofitType.getType())) {
-			if (retrofitType.isJSONAPIDocumentType()) {
-				return new JSONAPIDocumentResponseBodyConverter<>(deserializer, retrofitType.getType(),
-						retrofitType.isCollection());
-			} else {
-				return new JSONAPIResponseBodyConverter<>(deserializer, retrofitType.getType(),
-						retrofitType.isCollection());
+			if (responseFormats.isEmpty()) {
+				return createResponseBodyConverter(deserializer, retrofitType);
+			}
+
+			Map<String, Converter<ResponseBody, ?>> converters = new LinkedHashMap<>();
+			for (Map.Entry<String, ResourceConverter> format : responseFormats.entrySet()) {
+				converters.put(format.getKey(), createResponseBodyConverter(format.getValue(), retrofitType));
 			}
+
+			return new MediaTypeResponseBodyConverter(createResponseBodyConverter(deserializer, retrofitType),
+					converters);
 		} else if (alternativeFactory != null) {
 			return alternativeFactory.responseBodyConverter(type, annotations, retrofit);
 		} else {
@@ -94,4 +116,23 @@ public class JSONAPIConverterFactory extends Converter.Factory {
 			return null;
 		}
 	}
+
+	private Converter<ResponseBody, ?> createResponseBodyConverter(ResourceConverter parser,
+																   RetrofitType retrofitType) {
+		if (retrofitType.isJSONAPIDocumentType()) {
+			return new JSONAPIDocumentResponseBodyConverter<>(parser, retrofitType.getType(),
+					retrofitType.isCollection());
+		} else {
+			return new JSONAPIResponseBodyConverter<>(parser, retrofitType.getType(), retrofitType.isCollection());
+		}
+	}
+
+	/**
+	 * Returns media type without parameters, used to match response content type.
+	 * @param mediaType {@link MediaType} media type
+	 * @return {@link String} <code>type/subtype</code>, in lower case
+	 */
+	static String getMediaTypeKey(MediaType mediaType) {
+		return (mediaType.type() + "/" + mediaType.subtype()).toLowerCase(Locale.ROOT);
+	}
 }
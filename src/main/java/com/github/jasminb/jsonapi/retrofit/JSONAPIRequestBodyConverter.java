@@ -29,7 +29,7 @@ public class JSONAPIRequestBodyConverter<T> implements Converter<T, RequestBody>
 	@Override
 	public RequestBody convert(T t) throws IOException {
 		try {
-			MediaType mediaType = MediaType.parse("application/vnd.api+json");
+			MediaType mediaType = MediaType.parse(converter.getMediaType());
 
 			JSONAPIDocument<?> document;
 
@@ -0,0 +1,42 @@
+package com.github.jasminb.jsonapi.retrofit;
+
+import java.io.IOException;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+
+/**
+ * JSON API response body converter that selects converter using response's content type, eg. to read both JSON and
+ * Smile responses of the same API.
+ *
+ * @author jbegic
+ */
+class MediaTypeResponseBodyConverter implements Converter<ResponseBody, Object> {
+	private final Converter<ResponseBody, ?> defaultConverter;
+	private final Map<String, Converter<ResponseBody, ?>> converters;
+
+	/**
+	 * Creates new MediaTypeResponseBodyConverter.
+	 * @param defaultConverter converter used for responses without content type or with unknown one
+	 * @param converters converters by media type (<code>type/subtype</code>, lower case, without parameters)
+	 */
+	MediaTypeResponseBodyConverter(Converter<ResponseBody, ?> defaultConverter,
+								   Map<String, Converter<ResponseBody, ?>> converters) {
+		this.defaultConverter = defaultConverter;
+		this.converters = converters;
+	}
+
+	@Override
+	public Object convert(ResponseBody responseBody) throws IOException {
+		Converter<ResponseBody, ?> converter = null;
+		MediaType contentType = responseBody.contentType();
+
+		if (contentType != null) {
+			converter = converters.get(JSONAPIConverterFactory.getMediaTypeKey(contentType));
+		}
+
+		return (converter != null ? converter : defaultConverter).convert(responseBody);
+	}
+}
@@ -30,18 +30,34 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -459,6 +475,38 @@ public class ResourceConverterTest {
 		assertNotNull(p.getParent());
 	}
 
+	@Test
+	public void testLongResolvedRelationshipChain() {
+		final int chainLength = 5000;
+
+		ResourceConverter underTest = new ResourceConverter(RecursingNode.class);
+		underTest.setGlobalResolver(new RelationshipResolver() {
+			@Override
+			public byte[] resolve(String relationshipURL) {
+				int id = Integer.parseInt(relationshipURL.substring(relationshipURL.lastIndexOf('/') + 1));
+				return createNodeDocument(id, id < chainLength).getBytes();
+			}
+		});
+
+		RecursingNode node = underTest.readDocument(createNodeDocument(1, true).getBytes(), RecursingNode.class).get();
+
+		int length = 0;
+		while (node != null) {
+			length++;
+			assertEquals(String.valueOf(length), node.getId());
+			node = node.getParent();
+		}
+
+		assertEquals(chainLength, length);
+	}
+
+	private String createNodeDocument(int id, boolean hasParent) {
+		String relationships = hasParent ? ",\"relationships\":{\"parent\":{\"links\":{\"related\":" +
+				"\"http://example.com/node/" + (id + 1) + "\"}}}" : "";
+		return "{\"data\":{\"type\":\"node\",\"id\":\"" + id + "\",\"attributes\":{\"name\":\"node\"}" +
+				relationships + "}}";
+	}
+
 	/**
 	 * The JSON {@code null} value carries semantics, as in pagination links:
 	 * <pre>
@@ -552,6 +600,56 @@ public class ResourceConverterTest {
 		converter.readDocument(rawData, City.class).get();
 	}
 
+	@Test
+	public void testDeserializationSettings() throws IOException {
+		DeserializationSettings lenient = new DeserializationSettings.Builder()
+				.enableFeature(DeserializationFeature.ALLOW_UNKNOWN_INCLUSIONS)
+				.build();
+
+		byte[] unknownInclusions = IOUtils.getResourceAsString("unknown-inclusions.json").getBytes();
+		Status status = converter.readDocument(unknownInclusions, Status.class, lenient).get();
+		assertEquals("john", status.getUser().getName());
+
+		// Converter configuration is not modified
+		try {
+			converter.readDocument(unknownInclusions, Status.class);
+			fail("Unknown inclusion should be rejected");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+
+		// Sparse fieldsets
+		DeserializationSettings fields = new DeserializationSettings.Builder()
+				.fields("statuses", "content", "user")
+				.build();
+
+		status = converter.readDocument(IOUtils.getResource("status.json"), Status.class, fields).get();
+		assertEquals("content", status.getContent());
+		assertNull(status.getLikeCount());
+		assertEquals("john", status.getUser().getName());
+
+		fields = new DeserializationSettings.Builder().fields("statuses", "content").build();
+		assertNull(converter.readDocument(IOUtils.getResource("status.json"), Status.class, fields).get().getUser());
+
+		// Resolvers
+		converter.setGlobalResolver(new RelationshipResolver() {
+			@Override
+			public byte[] resolve(String relationshipURL) {
+				throw new IllegalStateException("Resolver should not be used");
+			}
+		});
+
+		DeserializationSettings noResolve = new DeserializationSettings.Builder().resolveRelationships(false).build();
+		status = converter.readDocument(IOUtils.getResource("status.json"), Status.class, noResolve).get();
+		assertEquals("john", status.getUser().getName());
+
+		// Limits
+		DeserializationSettings limited = new DeserializationSettings.Builder().maxResources(1).build();
+
+		thrown.expect(IllegalArgumentException.class);
+		converter.readDocumentCollection(IOUtils.getResource("users.json"), User.class, limited);
+	}
+
 	@Test
 	public void testNullDataNodeObject() {
 		JSONAPIDocument<User> nullObject = converter.readDocument("{\"data\" : null}".getBytes(), User.class);
@@ -935,6 +1033,970 @@ public class ResourceConverterTest {
 	}
 
 
+	@Test
+	public void testWriteAtomicOperations() throws Exception {
+		Author author = new Author();
+		author.setLocalId("author_lid");
+		author.setFirstName("John");
+
+		Article article = new Article();
+		article.setLocalId("article_lid");
+		article.setTitle("Title");
+		article.setAuthor(author);
+
+		Article existing = new Article();
+		existing.setId("existing");
+		existing.setAuthor(author);
+
+		Comment removed = new Comment();
+		removed.setId("removed");
+
+		List<AtomicOperation> operations = new ArrayList<>();
+		operations.add(AtomicOperation.add(author));
+		operations.add(AtomicOperation.add(article));
+		operations.add(AtomicOperation.updateRelationship(existing, "author"));
+		operations.add(AtomicOperation.remove(removed));
+
+		JsonNode operationsNode = new ObjectMapper().readTree(converter.writeAtomicOperations(operations))
+				.get(JSONAPISpecConstants.ATOMIC_OPERATIONS);
+
+		assertEquals(4, operationsNode.size());
+
+		assertEquals("add", operationsNode.get(0).get("op").asText());
+		assertEquals("author_lid", operationsNode.get(0).get("data").get("lid").asText());
+		assertEquals("John", operationsNode.get(0).get("data").get("attributes").get("firstName").asText());
+
+		JsonNode articleAuthor = operationsNode.get(1).get("data").get("relationships").get("author").get("data");
+		assertEquals("people", articleAuthor.get("type").asText());
+		assertEquals("author_lid", articleAuthor.get("lid").asText());
+
+		JsonNode updateRelationship = operationsNode.get(2);
+		assertEquals("update", updateRelationship.get("op").asText());
+		assertEquals("existing", updateRelationship.get("ref").get("id").asText());
+		assertEquals("author", updateRelationship.get("ref").get("relationship").asText());
+		assertEquals("author_lid", updateRelationship.get("data").get("lid").asText());
+
+		assertEquals("remove", operationsNode.get(3).get("op").asText());
+		assertEquals("comments", operationsNode.get(3).get("ref").get("type").asText());
+		assertEquals("removed", operationsNode.get(3).get("ref").get("id").asText());
+		assertFalse(operationsNode.get(3).has("data"));
+	}
+
+	@Test(expected = DocumentSerializationException.class)
+	public void testWriteAtomicOperationsUndefinedLocalId() throws DocumentSerializationException {
+		Author author = new Author();
+		author.setLocalId("author_lid");
+
+		Article article = new Article();
+		article.setLocalId("article_lid");
+		article.setAuthor(author);
+
+		// Author is referenced before it is added
+		converter.writeAtomicOperations(Arrays.asList(AtomicOperation.add(article), AtomicOperation.add(author)));
+	}
+
+	@Test
+	public void testReadAtomicResults() {
+		Author author = new Author();
+		author.setLocalId("author_lid");
+
+		Comment removed = new Comment();
+		removed.setId("removed");
+
+		String results = "{\"atomic:results\": [" +
+				"{\"data\": {\"type\": \"people\", \"id\": \"1\", \"attributes\": {\"firstName\": \"John\"}}}," +
+				"{}," +
+				"{\"meta\": {\"removed\": true}}]}";
+
+		List<JSONAPIDocument<?>> documents = converter.readAtomicResults(
+				new ByteArrayInputStream(results.getBytes(StandardCharsets.UTF_8)),
+				Arrays.asList(AtomicOperation.add(author), AtomicOperation.remove(removed),
+						AtomicOperation.remove(removed)));
+
+		assertEquals(3, documents.size());
+		assertEquals("John", ((Author) documents.get(0).get()).getFirstName());
+		assertNull(documents.get(1).get());
+		assertEquals(true, documents.get(2).getMeta().get("removed"));
+
+		// Server assigned id is set on the added resource
+		assertEquals("1", author.getId());
+	}
+
+	@Test(expected = InvalidJsonApiResourceException.class)
+	public void testReadAtomicResultsCountMismatch() {
+		converter.readAtomicResults(new ByteArrayInputStream("{\"atomic:results\": []}".getBytes()),
+				Collections.singletonList(AtomicOperation.add(new Author())));
+	}
+
+	@Test
+	public void testReadCollectionPages() throws Exception {
+		final Map<String, byte[]> pages = new HashMap<>();
+		final CountDownLatch lastPageFetched = new CountDownLatch(1);
+
+		for (int page = 1; page <= 3; page++) {
+			List<Status> statuses = new ArrayList<>();
+			for (int i = 0; i < 2; i++) {
+				Status status = new Status();
+				status.setId(page + "-" + i);
+				statuses.add(status);
+			}
+
+			JSONAPIDocument<List<Status>> document = new JSONAPIDocument<>(statuses);
+			if (page < 3) {
+				document.addLink(JSONAPISpecConstants.NEXT, new Link("/statuses?page=" + (page + 1)));
+			}
+			pages.put("/statuses?page=" + page, converter.writeDocumentCollection(document));
+		}
+
+		RelationshipResolver resolver = new RelationshipResolver() {
+			@Override
+			public byte[] resolve(String relationshipURL) {
+				if (relationshipURL.endsWith("page=3")) {
+					lastPageFetched.countDown();
+				}
+				return pages.get(relationshipURL);
+			}
+		};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (PageIterator<Status> iterator = converter.readCollectionPages("/statuses?page=1", Status.class,
+				resolver, 2, executor)) {
+			assertEquals("1-0", iterator.next().getId());
+
+			// Following pages are fetched while the first one is consumed
+			assertTrue(lastPageFetched.await(5, TimeUnit.SECONDS));
+
+			List<String> ids = new ArrayList<>();
+			while (iterator.hasNext()) {
+				ids.add(iterator.next().getId());
+			}
+
+			assertEquals(Arrays.asList("1-1", "2-0", "2-1", "3-0", "3-1"), ids);
+			assertNull(iterator.getCurrentPage().getLinks());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testAbandonedCollectionPagesReleaseExecutor() throws Exception {
+		final AtomicInteger fetched = new AtomicInteger();
+
+		// Endless collection
+		RelationshipResolver resolver = new RelationshipResolver() {
+			@Override
+			public byte[] resolve(String relationshipURL) {
+				int page = fetched.incrementAndGet();
+
+				Status status = new Status();
+				status.setId(String.valueOf(page));
+
+				JSONAPIDocument<List<Status>> document = new JSONAPIDocument<>(Collections.singletonList(status));
+				document.addLink(JSONAPISpecConstants.NEXT, new Link("/statuses?page=" + (page + 1)));
+
+				try {
+					return converter.writeDocumentCollection(document);
+				} catch (DocumentSerializationException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		};
+
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+		try {
+			PageIterator<Status> iterator = converter.readCollectionPages("/statuses?page=1", Status.class,
+					resolver, 2, executor);
+			assertEquals("1", iterator.next().getId());
+
+			// Consumer stops without closing the iterator, fetching stops once prefetched pages are queued
+			long deadline = System.currentTimeMillis() + 5000;
+			while ((executor.getActiveCount() > 0 || fetched.get() < 3) && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+
+			assertEquals(0, executor.getActiveCount());
+			assertEquals(3, fetched.get());
+			assertEquals(3, executor.getCompletedTaskCount());
+
+			// Fetching continues once consumer advances
+			assertEquals("2", iterator.next().getId());
+			assertEquals("3", iterator.next().getId());
+			assertEquals("4", iterator.next().getId());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testReadCollectionPagesError() {
+		RelationshipResolver resolver = new RelationshipResolver() {
+			@Override
+			public byte[] resolve(String relationshipURL) {
+				throw new IllegalStateException("Unavailable");
+			}
+		};
+
+		thrown.expect(IllegalStateException.class);
+		thrown.expectMessage("Unavailable");
+
+		converter.readCollectionPages("/statuses", Status.class, resolver).hasNext();
+	}
+
+	@Test
+	public void testResourceStore() throws IOException {
+		ResourceStore store = new ResourceStore(10);
+		converter.setResourceStore(store);
+
+		Status status = converter.readDocument(IOUtils.getResource("status.json"), Status.class).get();
+		User user = status.getUser();
+		assertSame(user, store.get(User.class, "users", "userid"));
+
+		// Relationship identifiers resolve to stored instance
+		String anotherStatus = "{\"data\": {\"type\": \"statuses\", \"id\": \"anotherid\", " +
+				"\"relationships\": {\"user\": {\"data\": {\"type\": \"users\", \"id\": \"userid\"}}}}}";
+		Status another = converter.readDocument(anotherStatus.getBytes(StandardCharsets.UTF_8), Status.class).get();
+		assertSame(user, another.getUser());
+		assertEquals("john", another.getUser().getName());
+
+		// Repeated resource updates stored instance
+		String updatedUser = "{\"data\": {\"type\": \"users\", \"id\": \"userid\", " +
+				"\"attributes\": {\"name\": \"jane\"}}}";
+		User updated = converter.readDocument(updatedUser.getBytes(StandardCharsets.UTF_8), User.class).get();
+		assertSame(user, updated);
+		assertEquals("jane", user.getName());
+		assertEquals(2, user.getStatuses().size());
+
+		// Least recently used resources are evicted
+		ResourceStore small = new ResourceStore(1);
+		converter.setResourceStore(small);
+		converter.readDocument(IOUtils.getResource("status.json"), Status.class);
+		assertEquals(1, small.size());
+	}
+
+	@Test
+	public void testMergeDocument() throws IOException {
+		Status status = converter.readDocument(IOUtils.getResource("status.json"), Status.class).get();
+		User user = status.getUser();
+
+		String update = "{\"data\": {\"type\": \"statuses\", \"id\": \"id\", " +
+				"\"attributes\": {\"likeCount\": 11}, " +
+				"\"relationships\": {\"user\": {\"data\": {\"type\": \"users\", \"id\": \"userid\"}}}}, " +
+				"\"included\": [{\"type\": \"users\", \"id\": \"userid\", \"attributes\": {\"name\": \"jane\"}}]}";
+
+		JSONAPIDocument<Status> document = converter.mergeDocument(update.getBytes(StandardCharsets.UTF_8), status);
+
+		assertSame(status, document.get());
+		assertSame(user, status.getUser());
+		assertEquals(Integer.valueOf(11), status.getLikeCount());
+		assertEquals("content", status.getContent());
+		assertEquals("jane", user.getName());
+
+		// Target without id is matched by type and receives server assigned id
+		Status created = new Status();
+		created.setContent("new");
+		String response = "{\"data\": {\"type\": \"statuses\", \"id\": \"newid\", " +
+				"\"attributes\": {\"likeCount\": 0}}}";
+
+		assertSame(created, converter.mergeDocument(response.getBytes(StandardCharsets.UTF_8), created).get());
+		assertEquals("newid", created.getId());
+		assertEquals("new", created.getContent());
+
+		// Merge targets do not leak into subsequent reads
+		Status fresh = converter.readDocument(update.getBytes(StandardCharsets.UTF_8), Status.class).get();
+		assertNotSame(status, fresh);
+	}
+
+	@Test
+	public void testMergeDocumentCollection() throws IOException {
+		Status first = new Status();
+		first.setId("1");
+		first.setContent("first");
+
+		Status second = new Status();
+		second.setId("2");
+		second.setContent("second");
+
+		String update = "{\"data\": [{\"type\": \"statuses\", \"id\": \"2\", \"attributes\": {\"likeCount\": 2}}, " +
+				"{\"type\": \"statuses\", \"id\": \"3\", \"attributes\": {\"content\": \"third\"}}]}";
+
+		List<Status> result = converter.mergeDocumentCollection(update.getBytes(StandardCharsets.UTF_8),
+				Status.class, Arrays.asList(first, second)).get();
+
+		assertEquals(2, result.size());
+		assertSame(second, result.get(0));
+		assertEquals("second", second.getContent());
+		assertEquals(Integer.valueOf(2), second.getLikeCount());
+		assertEquals("third", result.get(1).getContent());
+		assertNull(first.getLikeCount());
+	}
+
+	@Test
+	public void testParallelDeserialization() throws Exception {
+		ObjectMapper articlesMapper = new ObjectMapper();
+		articlesMapper.setPropertyNamingStrategy(PropertyNamingStrategy.KEBAB_CASE);
+
+		ResourceConverter articlesConverter = new ResourceConverter(articlesMapper, Article.class, Author.class,
+				Comment.class);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		final AtomicInteger submitted = new AtomicInteger();
+
+		try {
+			articlesConverter.setParallelDeserialization(2, new CountingExecutor(executor, submitted));
+
+			List<Article> articles = articlesConverter.readDocumentCollection(IOUtils.getResource("articles.json"),
+					Article.class).get();
+
+			assertTrue(submitted.get() > 0);
+			assertEquals(1, articles.size());
+
+			Article article = articles.get(0);
+			assertEquals("JSON API paints my bikeshed!", article.getTitle());
+			assertEquals("Dan", article.getAuthor().getFirstName());
+			assertEquals(2, article.getComments().size());
+			assertEquals("I like XML better", article.getComments().get(1).getBody());
+			assertSame(article.getAuthor(), article.getComments().get(1).getAuthor());
+
+			// Documents below threshold are read sequentially
+			submitted.set(0);
+			articlesConverter.setParallelDeserialization(100, new CountingExecutor(executor, submitted));
+			articlesConverter.readDocumentCollection(IOUtils.getResource("articles.json"), Article.class);
+			assertEquals(0, submitted.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelDeserializationError() throws Exception {
+		byte[] data = ("{\"data\": [" +
+				"{\"type\": \"statuses\", \"id\": \"1\", \"attributes\": {\"likeCount\": 1}}, " +
+				"{\"type\": \"statuses\", \"id\": \"2\", \"attributes\": {\"likeCount\": \"many\"}}, " +
+				"{\"type\": \"statuses\", \"id\": \"3\", \"attributes\": {\"likeCount\": 3}}]}")
+				.getBytes(StandardCharsets.UTF_8);
+
+		RuntimeException sequentialError = null;
+		try {
+			converter.readDocumentCollection(data, Status.class);
+		} catch (RuntimeException e) {
+			sequentialError = e;
+		}
+		assertNotNull(sequentialError);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		final AtomicInteger submitted = new AtomicInteger();
+
+		try {
+			converter.setParallelDeserialization(1, new CountingExecutor(executor, submitted));
+
+			// Binding error is reported as is, resource is not bound again on the calling thread
+			try {
+				converter.readDocumentCollection(data, Status.class);
+				fail("Expected binding to fail");
+			} catch (RuntimeException e) {
+				assertTrue(submitted.get() > 0);
+				assertEquals(sequentialError.getClass(), e.getClass());
+				assertEquals(sequentialError.getCause().getClass(), e.getCause().getClass());
+				assertEquals(sequentialError.getMessage(), e.getMessage());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testSharedTypeMetadata() {
+		ConverterConfiguration first = new ConverterConfiguration(Status.class);
+		ConverterConfiguration second = new ConverterConfiguration(User.class);
+
+		// Classes reachable trough relationships are registered using shared metadata
+		assertTrue(second.isRegisteredType(Status.class));
+		assertSame(first.getIdField(Status.class), second.getIdField(Status.class));
+		assertSame(first.getRelationshipFields(Status.class), second.getRelationshipFields(Status.class));
+		assertEquals("users", second.getTypeName(User.class));
+	}
+
+	@Test
+	public void testBuilder() throws Exception {
+		ResourceConverter built = ResourceConverter.builder()
+				.types(Status.class, User.class)
+				.baseURL("https://api.example.com")
+				.enableDeserializationOption(DeserializationFeature.ALLOW_UNKNOWN_INCLUSIONS)
+				.disableSerializationOption(SerializationFeature.INCLUDE_LINKS)
+				.build();
+
+		Status status = built.readDocument(IOUtils.getResource("status.json"), Status.class).get();
+		assertEquals("john", status.getUser().getName());
+
+		JsonNode serialized = new ObjectMapper().readTree(built.writeDocument(new JSONAPIDocument<>(status)));
+		assertFalse(serialized.get("data").has("links"));
+
+		// Configuration of built converter cannot be changed
+		try {
+			built.enableSerializationOption(SerializationFeature.INCLUDE_LINKS);
+			fail("Expected configuration change to fail");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+
+		try {
+			built.setGlobalResolver(null);
+			fail("Expected configuration change to fail");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testReadInputOverloads() throws IOException {
+		String status = IOUtils.getResourceAsString("status.json");
+		String users = IOUtils.getResourceAsString("users.json");
+		byte[] statusBytes = status.getBytes(StandardCharsets.UTF_8);
+
+		// Document in the middle of a larger array
+		byte[] padded = new byte[statusBytes.length + 10];
+		System.arraycopy(statusBytes, 0, padded, 5, statusBytes.length);
+		assertEquals("john", converter.readDocument(padded, 5, statusBytes.length, Status.class).get()
+				.getUser().getName());
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(statusBytes.length);
+		direct.put(statusBytes).flip();
+		assertEquals("content", converter.readDocument(direct, Status.class).get().getContent());
+		assertEquals(statusBytes.length, direct.remaining());
+
+		ByteBuffer slice = ByteBuffer.wrap(padded, 5, statusBytes.length).slice();
+		assertEquals("content", converter.readDocument(slice, Status.class).get().getContent());
+
+		assertEquals("content", converter.readDocument(new StringReader(status), Status.class).get().getContent());
+		assertEquals("content", converter.readDocument(status, Status.class).get().getContent());
+		assertEquals("content", converter.readDocument(new StringBuilder(status), Status.class).get().getContent());
+
+		CharBuffer chars = CharBuffer.wrap(("  " + users).toCharArray());
+		chars.position(2);
+		assertEquals(2, converter.readDocumentCollection(chars, User.class).get().size());
+		assertEquals(2, converter.readDocumentCollection(users, User.class).get().size());
+		assertEquals(2, converter.readDocumentCollection(new StringReader(users), User.class).get().size());
+		assertEquals(2, converter.readDocumentCollection(
+				ByteBuffer.wrap(users.getBytes(StandardCharsets.UTF_8)), User.class).get().size());
+	}
+
+	@Test
+	public void testReadMappedFile() throws IOException {
+		Path users = Files.createTempFile("users", ".json");
+		Path status = Files.createTempFile("status", ".json");
+
+		try {
+			Files.write(users, IOUtils.getResourceAsString("users.json").getBytes(StandardCharsets.UTF_8));
+			Files.write(status, IOUtils.getResourceAsString("status.json").getBytes(StandardCharsets.UTF_8));
+
+			assertEquals(2, converter.readDocumentCollection(users, User.class).get().size());
+			assertEquals("john", converter.readDocument(status, Status.class).get().getUser().getName());
+
+			// Documents spanning multiple segments
+			try (InputStream dataStream = new MappedFileInputStream(status, 7)) {
+				assertEquals("john", converter.readDocument(dataStream, Status.class).get().getUser().getName());
+			}
+
+			try (InputStream dataStream = new MappedFileInputStream(users, 5)) {
+				ByteArrayOutputStream content = new ByteArrayOutputStream();
+				int value;
+				while ((value = dataStream.read()) != -1) {
+					content.write(value);
+				}
+				assertArrayEquals(Files.readAllBytes(users), content.toByteArray());
+			}
+		} finally {
+			Files.delete(users);
+			Files.delete(status);
+		}
+	}
+
+	@Test
+	public void testDocumentLines() throws DocumentSerializationException {
+		List<JSONAPIDocument<?>> documents = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			Status status = new Status();
+			status.setId(String.valueOf(i));
+			status.setContent("status " + i);
+			documents.add(new JSONAPIDocument<>(status));
+
+			if (i == 1) {
+				// Not a resource, skipped by the writer
+				documents.add(new JSONAPIDocument<>(new Object()));
+			}
+		}
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		Map<Long, DocumentSerializationException> skipped = converter.writeDocumentLines(documents.iterator(), null,
+				output);
+
+		assertEquals(Collections.singleton(2L), skipped.keySet());
+
+		String lines = new String(output.toByteArray(), StandardCharsets.UTF_8);
+		assertEquals(3, lines.split("\n").length);
+
+		// Malformed, invalid and empty lines
+		byte[] data = (lines + "{\"data\": {\"type\": \"statuses\"\r\n\r\n" +
+				"{\"data\": {\"type\": \"unknown\", \"id\": \"5\"}}\n" +
+				"{\"data\": {\"type\": \"statuses\", \"id\": \"6\"}}").getBytes(StandardCharsets.UTF_8);
+
+		final List<String> sequential = new ArrayList<>();
+		long count = converter.readDocumentLines(new ByteArrayInputStream(data), Status.class,
+				new DocumentLineHandler<Status>() {
+					@Override
+					public void onDocument(long line, JSONAPIDocument<Status> document) {
+						sequential.add(line + ":" + document.get().getId());
+					}
+
+					@Override
+					public void onFailure(long line, RuntimeException error) {
+						sequential.add(line + ":failed");
+					}
+				});
+
+		assertEquals(6, count);
+		assertEquals(Arrays.asList("1:1", "2:2", "3:3", "4:failed", "6:failed", "7:6"), sequential);
+
+		final List<String> parallel = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			count = converter.readDocumentLines(new ByteArrayInputStream(data), Status.class,
+					new DocumentLineHandler<Status>() {
+						@Override
+						public void onDocument(long line, JSONAPIDocument<Status> document) {
+							parallel.add(line + ":" + document.get().getId());
+						}
+
+						@Override
+						public void onFailure(long line, RuntimeException error) {
+							parallel.add(line + ":failed");
+						}
+					}, executor);
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(6, count);
+		assertEquals(sequential, parallel);
+	}
+
+	@Test
+	public void testDocumentLinesSpanningInputBuffer() throws DocumentSerializationException {
+		// Batches and single lines larger than the input buffer, lines are moved and buffer grows while reading
+		char[] large = new char[150 * 1024];
+		Arrays.fill(large, 'x');
+
+		List<JSONAPIDocument<?>> documents = new ArrayList<>();
+		for (int i = 1; i <= 1500; i++) {
+			Status status = new Status();
+			status.setId(String.valueOf(i));
+			status.setContent(i == 700 ? new String(large) : "status " + i + " " + new String(large, 0, i % 500));
+			documents.add(new JSONAPIDocument<>(status));
+		}
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		assertTrue(converter.writeDocumentLines(documents.iterator(), null, output).isEmpty());
+		byte[] data = output.toByteArray();
+
+		final List<String> sequential = new ArrayList<>();
+		DocumentLineHandler<Status> sequentialHandler = new DocumentLineHandler<Status>() {
+			@Override
+			public void onDocument(long line, JSONAPIDocument<Status> document) {
+				sequential.add(line + ":" + document.get().getId() + ":" + document.get().getContent().length());
+			}
+
+			@Override
+			public void onFailure(long line, RuntimeException error) {
+				sequential.add(line + ":failed");
+			}
+		};
+
+		assertEquals(1500, converter.readDocumentLines(new ByteArrayInputStream(data), Status.class,
+				sequentialHandler));
+		assertEquals(1500, sequential.size());
+		assertEquals("700:700:" + large.length, sequential.get(699));
+
+		for (int i = 0; i < sequential.size(); i++) {
+			Status status = (Status) documents.get(i).get();
+			assertEquals((i + 1) + ":" + status.getId() + ":" + status.getContent().length(), sequential.get(i));
+		}
+
+		final List<String> parallel = new ArrayList<>();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			long count = converter.readDocumentLines(new ByteArrayInputStream(data), Status.class,
+					new DocumentLineHandler<Status>() {
+						@Override
+						public void onDocument(long line, JSONAPIDocument<Status> document) {
+							parallel.add(line + ":" + document.get().getId() + ":" +
+									document.get().getContent().length());
+						}
+
+						@Override
+						public void onFailure(long line, RuntimeException error) {
+							parallel.add(line + ":failed");
+						}
+					}, executor);
+
+			assertEquals(1500, count);
+		} finally {
+			executor.shutdown();
+		}
+
+		assertEquals(sequential, parallel);
+	}
+
+	@Test
+	public void testResourceFeed() {
+		String json = "{\"data\": [" +
+				"{\"type\": \"statuses\", \"id\": \"1\", \"attributes\": {\"content\": \"first\"}, " +
+				"\"relationships\": {\"user\": {\"data\": {\"type\": \"users\", \"id\": \"john\"}}}}, " +
+				"{\"type\": \"statuses\", \"id\": \"2\", \"attributes\": {\"content\": \"second\"}, " +
+				"\"relationships\": {\"user\": {\"data\": {\"type\": \"users\", \"id\": \"john\"}}}}, " +
+				"{\"type\": \"statuses\", \"id\": \"3\", \"attributes\": {\"content\": \"third\"}}], " +
+				"\"included\": [{\"type\": \"users\", \"id\": \"john\", \"attributes\": {\"name\": \"john\"}}], " +
+				"\"meta\": {\"total\": 3}}";
+		byte[] data = json.getBytes(StandardCharsets.UTF_8);
+
+		ResourceFeed<Status> feed = converter.createResourceFeed(Status.class);
+		RecordingSubscriber<Status> subscriber = new RecordingSubscriber<>();
+		feed.subscribe(subscriber);
+		subscriber.subscription.request(1);
+
+		int position = 0;
+		while (position < data.length) {
+			if (!feed.isReadyForInput()) {
+				// Parsing is suspended until more resources are requested
+				assertEquals(1, subscriber.received.size());
+				subscriber.subscription.request(Long.MAX_VALUE);
+				continue;
+			}
+
+			int length = Math.min(7, data.length - position);
+			feed.feed(ByteBuffer.wrap(data, position, length));
+			position += length;
+		}
+		feed.endOfInput();
+
+		assertTrue(subscriber.completed);
+		assertNull(subscriber.error);
+		assertEquals(3, subscriber.received.size());
+
+		// Related resources hold only identifiers when published, included resources are applied on completion
+		assertNull(subscriber.namesOnReceive.get(0));
+		Status first = subscriber.received.get(0);
+		assertEquals("first", first.getContent());
+		assertEquals("john", first.getUser().getName());
+		assertSame(first.getUser(), subscriber.received.get(1).getUser());
+
+		JSONAPIDocument<List<Status>> document = feed.getDocument();
+		assertEquals(3, document.getMeta().get("total"));
+		assertSame(first, document.get().get(0));
+	}
+
+	@Test
+	public void testResourceFeedError() {
+		ResourceFeed<Status> feed = converter.createResourceFeed(Status.class);
+		RecordingSubscriber<Status> subscriber = new RecordingSubscriber<>();
+		feed.subscribe(subscriber);
+		subscriber.subscription.request(10);
+
+		byte[] data = "{\"data\": [{\"type\": \"statuses\", \"id\": \"1\"}, 42]}".getBytes(StandardCharsets.UTF_8);
+		feed.feed(data, 0, data.length);
+		feed.endOfInput();
+
+		assertEquals(1, subscriber.received.size());
+		assertFalse(subscriber.completed);
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+		assertNull(feed.getDocument());
+
+		// Only one subscriber is supported
+		RecordingSubscriber<Status> other = new RecordingSubscriber<>();
+		feed.subscribe(other);
+		assertTrue(other.error instanceof IllegalStateException);
+	}
+
+	@Test
+	public void testResourceFeedDoesNotResolveRelationships() throws IOException {
+		final List<Thread> resolverThreads = new ArrayList<>();
+		converter.setGlobalResolver(new RelationshipResolver() {
+			@Override
+			public byte[] resolve(String relationshipURL) {
+				resolverThreads.add(Thread.currentThread());
+				try {
+					return IOUtils.getResourceAsString("user-liz.json").getBytes();
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		});
+
+		// Same resource resolves its user when read using the blocking API
+		JsonNode resource = new ObjectMapper().readTree(IOUtils.getResource("status.json")).get("data");
+		byte[] data = ("{\"data\": [" + resource + "]}").getBytes(StandardCharsets.UTF_8);
+		assertEquals("liz", converter.readDocumentCollection(data, Status.class).get().get(0).getUser().getName());
+		resolverThreads.clear();
+
+		ResourceFeed<Status> feed = converter.createResourceFeed(Status.class);
+		RecordingSubscriber<Status> subscriber = new RecordingSubscriber<>();
+		feed.subscribe(subscriber);
+		subscriber.subscription.request(Long.MAX_VALUE);
+
+		feed.feed(data, 0, data.length);
+		feed.endOfInput();
+
+		assertTrue(subscriber.completed);
+		assertEquals(Collections.<Thread>emptyList(), resolverThreads);
+		assertEquals("userid", feed.getDocument().get().get(0).getUser().getId());
+		assertNull(feed.getDocument().get().get(0).getUser().getName());
+	}
+
+	@Test
+	public void testResourceFeedSignalsOutsideLock() {
+		byte[] data = ("{\"data\": [{\"type\": \"statuses\", \"id\": \"1\"}, " +
+				"{\"type\": \"statuses\", \"id\": \"2\"}, {\"type\": \"statuses\", \"id\": \"3\"}]}")
+				.getBytes(StandardCharsets.UTF_8);
+
+		final ResourceFeed<Status> feed = converter.createResourceFeed(Status.class);
+		final List<Boolean> locked = new ArrayList<>();
+		final RecordingSubscriber<Status> subscriber = new RecordingSubscriber<Status>() {
+			@Override
+			public void onNext(Status resource) {
+				super.onNext(resource);
+				locked.add(Thread.holdsLock(feed));
+
+				// Demand signaled from another thread while onNext is running must not block
+				final Subscription current = super.subscription;
+				Thread requester = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						current.request(1);
+					}
+				});
+				requester.start();
+
+				try {
+					requester.join(5000);
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+				assertFalse(requester.isAlive());
+			}
+		};
+		feed.subscribe(subscriber);
+		subscriber.subscription.request(1);
+
+		// JSON is parsed from the buffer directly, buffer is consumed
+		ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+		buffer.put(data).flip();
+		feed.feed(buffer);
+		assertFalse(buffer.hasRemaining());
+
+		feed.endOfInput();
+
+		assertEquals(3, subscriber.received.size());
+		assertEquals("3", subscriber.received.get(2).getId());
+		assertEquals(Arrays.asList(false, false, false), locked);
+		assertTrue(subscriber.completed);
+		assertNull(subscriber.error);
+	}
+
+	@Test
+	public void testWarmUp() throws IOException {
+		ResourceConverter underTest = new ResourceConverter(Status.class);
+
+		assertTrue(underTest.warmUp() >= 0);
+
+		// Relationship types are registered, so they are warmed up as well
+		assertTrue(underTest.isRegisteredType(User.class));
+
+		Status status = underTest.readDocument(IOUtils.getResource("status.json"), Status.class).get();
+		assertEquals("john", status.getUser().getName());
+	}
+
+	@Test
+	public void testConcurrentTypeRegistration() throws Exception {
+		final int readers = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+
+		try {
+			for (int round = 0; round < 200; round++) {
+				final ConverterConfiguration configuration = new ConverterConfiguration(Status.class);
+				final CountDownLatch start = new CountDownLatch(1);
+				final CountDownLatch done = new CountDownLatch(readers + 1);
+				final AtomicInteger failures = new AtomicInteger();
+
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+							configuration.registerType(Article.class);
+						} catch (Exception e) {
+							failures.incrementAndGet();
+						} finally {
+							done.countDown();
+						}
+					}
+				});
+
+				for (int i = 0; i < readers; i++) {
+					executor.execute(new Runnable() {
+						@Override
+						public void run() {
+							try {
+								start.await();
+
+								boolean registered = false;
+								while (!registered) {
+									registered = configuration.isRegisteredType(Article.class);
+
+									// Article and its relationship types are published together
+									if (registered && (configuration.getTypeClass("comments") != Comment.class ||
+											configuration.getIdField(Author.class) == null ||
+											configuration.getRelationshipType(Article.class, "author") != Author.class)) {
+										failures.incrementAndGet();
+									}
+
+									if (configuration.getTypeClass("users") != User.class) {
+										failures.incrementAndGet();
+									}
+								}
+							} catch (Exception e) {
+								failures.incrementAndGet();
+							} finally {
+								done.countDown();
+							}
+						}
+					});
+				}
+
+				start.countDown();
+				assertTrue(done.await(10, TimeUnit.SECONDS));
+				assertEquals(0, failures.get());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testRegisterTypeWhileConverting() throws Exception {
+		final ResourceConverter underTest = new ResourceConverter(Status.class, User.class);
+		final byte[] users = IOUtils.getResourceAsString("users.json").getBytes();
+		final byte[] articles = ("{\"data\": [{\"type\": \"articles\", \"id\": \"1\", \"relationships\": " +
+				"{\"author\": {\"data\": {\"type\": \"people\", \"id\": \"9\"}}}}], " +
+				"\"included\": [{\"type\": \"people\", \"id\": \"9\", \"attributes\": {\"firstName\": \"Dan\"}}]}")
+				.getBytes();
+		final Class<?>[] types = {Article.class, Engineer.class, Car.class, Dealership.class, City.class};
+		final int threads = 4;
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(threads + 1);
+		final AtomicInteger failures = new AtomicInteger();
+
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						for (Class<?> type : types) {
+							underTest.registerType(type);
+							Thread.yield();
+						}
+					} catch (Exception e) {
+						failures.incrementAndGet();
+					} finally {
+						done.countDown();
+					}
+				}
+			});
+
+			for (int i = 0; i < threads; i++) {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							start.await();
+							for (int j = 0; j < 500; j++) {
+								if (underTest.readDocumentCollection(users, User.class).get().size() != 2) {
+									failures.incrementAndGet();
+								}
+
+								if (underTest.isRegisteredType(Article.class) &&
+										underTest.readDocumentCollection(articles, Article.class).get().get(0)
+												.getAuthor() == null) {
+									failures.incrementAndGet();
+								}
+							}
+						} catch (Exception e) {
+							failures.incrementAndGet();
+						} finally {
+							done.countDown();
+						}
+					}
+				});
+			}
+
+			start.countDown();
+			assertTrue(done.await(30, TimeUnit.SECONDS));
+			assertEquals(0, failures.get());
+
+			for (Class<?> type : types) {
+				assertTrue(underTest.isRegisteredType(type));
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static class RecordingSubscriber<T extends Status> implements Subscriber<T> {
+		private final List<T> received = new ArrayList<>();
+		private final List<String> namesOnReceive = new ArrayList<>();
+		private Subscription subscription;
+		private boolean completed;
+		private Throwable error;
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(T resource) {
+			received.add(resource);
+			namesOnReceive.add(resource.getUser() != null ? resource.getUser().getName() : null);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+
+	private static class CountingExecutor implements Executor {
+		private final Executor executor;
+		private final AtomicInteger count;
+
+		CountingExecutor(Executor executor, AtomicInteger count) {
+			this.executor = executor;
+			this.count = count;
+		}
+
+		@Override
+		public void execute(Runnable command) {
+			count.incrementAndGet();
+			executor.execute(command);
+		}
+	}
+
 	/**
 	 * Simple global RelationshipResolver implementation that maintains a count of responses for each
 	 * relationship url.
@@ -1,10 +1,20 @@
 package com.github.jasminb.jsonapi;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
 import com.github.jasminb.jsonapi.models.Article;
 import com.github.jasminb.jsonapi.models.Author;
+import com.github.jasminb.jsonapi.models.Comment;
+import com.github.jasminb.jsonapi.models.RecursingNode;
 import com.github.jasminb.jsonapi.models.SimpleMeta;
 import com.github.jasminb.jsonapi.models.Status;
 import com.github.jasminb.jsonapi.models.User;
@@ -13,10 +23,25 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Testing functionality of JSON API converter's serialization methods..
@@ -28,7 +53,7 @@ public class SerializationTest {
 
 	@Before
 	public void setup() {
-		converter = new ResourceConverter(Status.class, User.class, Article.class, Author.class);
+		converter = new ResourceConverter(Status.class, User.class, Article.class, Author.class, Comment.class);
 		converter.enableSerializationOption(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
 	}
 
@@ -303,6 +328,657 @@ public class SerializationTest {
 		Assert.assertFalse(new String(serialized).contains("\"jsonapi\":{\"version\":\"1.1\"}"));
 	}
 
+	@Test
+	public void testIncludePaths() throws DocumentSerializationException, IOException {
+		Article article = createArticleGraph();
+
+		SerializationSettings settings = new SerializationSettings.Builder()
+				.includePath("comments.author")
+				.build();
+
+		JsonNode included = new ObjectMapper().readTree(converter.writeDocument(new JSONAPIDocument<>(article),
+				settings)).get(JSONAPISpecConstants.INCLUDED);
+
+		Assert.assertEquals(2, included.size());
+		Assert.assertEquals(new HashSet<>(Arrays.asList("comments:comment", "people:commenter")),
+				getIdentifiers(included));
+	}
+
+	@Test
+	public void testIncludePathsWithMultiplePaths() throws DocumentSerializationException, IOException {
+		Article article = createArticleGraph();
+
+		SerializationSettings settings = new SerializationSettings.Builder()
+				.includePath("author,comments")
+				.build();
+
+		JsonNode included = new ObjectMapper().readTree(converter.writeDocument(new JSONAPIDocument<>(article),
+				settings)).get(JSONAPISpecConstants.INCLUDED);
+
+		Assert.assertEquals(new HashSet<>(Arrays.asList("comments:comment", "people:author")),
+				getIdentifiers(included));
+	}
+
+	@Test
+	public void testIncludePathsReachedTroughDifferentPaths() throws DocumentSerializationException, IOException {
+		Article article = createArticleGraph();
+		article.getComments().get(0).setAuthor(article.getAuthor());
+
+		SerializationSettings settings = new SerializationSettings.Builder()
+				.includePath("author")
+				.includePath("comments.author.articles")
+				.build();
+
+		JsonNode included = new ObjectMapper().readTree(converter.writeDocument(new JSONAPIDocument<>(article),
+				settings)).get(JSONAPISpecConstants.INCLUDED);
+
+		Assert.assertEquals(new HashSet<>(Arrays.asList("comments:comment", "people:author", "articles:other")),
+				getIdentifiers(included));
+	}
+
+	@Test
+	public void testIncludePathsCompilation() {
+		IncludePaths paths = IncludePaths.compile("author, comments.author");
+
+		Assert.assertSame(paths, IncludePaths.compile("author, comments.author"));
+		Assert.assertTrue(paths.contains("author"));
+		Assert.assertTrue(paths.get("author").isEmpty());
+		Assert.assertTrue(paths.get("comments").contains("author"));
+		Assert.assertFalse(paths.get("comments").contains("comments"));
+		Assert.assertTrue(IncludePaths.compile("").isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidIncludePath() {
+		IncludePaths.compile("comments..author");
+	}
+
+	@Test
+	public void testMaxRelationshipLinkage() throws DocumentSerializationException, IOException {
+		Article article = createArticleGraph();
+		Comment comment = new Comment();
+		comment.setId("second-comment");
+		article.getComments().add(comment);
+
+		SerializationSettings settings = new SerializationSettings.Builder()
+				.maxRelationshipLinkage(1)
+				.build();
+
+		JsonNode result = new ObjectMapper().readTree(converter.writeDocument(new JSONAPIDocument<>(article),
+				settings));
+		JsonNode relationships = result.get(JSONAPISpecConstants.DATA).get(JSONAPISpecConstants.RELATIONSHIPS);
+
+		Assert.assertFalse(relationships.get("comments").has(JSONAPISpecConstants.DATA));
+		Assert.assertEquals(2, relationships.get("comments").get(JSONAPISpecConstants.META).get("count").asInt());
+		Assert.assertTrue(relationships.get("author").has(JSONAPISpecConstants.DATA));
+		Assert.assertFalse(getIdentifiers(result.get(JSONAPISpecConstants.INCLUDED)).contains("comments:comment"));
+	}
+
+	@Test
+	public void testMaxIncludedResources() throws DocumentSerializationException, IOException {
+		Article article = createArticleGraph();
+		article.getAuthor().setArticles(null);
+
+		SerializationSettings settings = new SerializationSettings.Builder()
+				.maxIncludedResources(1)
+				.build();
+
+		JsonNode result = new ObjectMapper().readTree(converter.writeDocument(new JSONAPIDocument<>(article),
+				settings));
+		JsonNode relationships = result.get(JSONAPISpecConstants.DATA).get(JSONAPISpecConstants.RELATIONSHIPS);
+
+		Assert.assertEquals(Collections.singleton("people:author"),
+				getIdentifiers(result.get(JSONAPISpecConstants.INCLUDED)));
+		Assert.assertFalse(relationships.get("comments").has(JSONAPISpecConstants.DATA));
+		Assert.assertEquals(1, relationships.get("comments").get(JSONAPISpecConstants.META).get("count").asInt());
+
+		// Converted back document must still be readable
+		JSONAPIDocument<Article> convertedBack = converter.readDocument(converter.writeDocument(
+				new JSONAPIDocument<>(article), settings), Article.class);
+		Assert.assertEquals("author", convertedBack.get().getAuthor().getFirstName());
+		Assert.assertNull(convertedBack.get().getComments());
+	}
+
+	@Test
+	public void testMaxOutputBytes() throws DocumentSerializationException, IOException {
+		Article article = createArticleGraph();
+
+		SerializationSettings settings = new SerializationSettings.Builder()
+				.maxOutputBytes(1L)
+				.build();
+
+		JsonNode result = new ObjectMapper().readTree(converter.writeDocument(new JSONAPIDocument<>(article),
+				settings));
+
+		// Primary resource relationships are included, once its size is recorded budget is exhausted
+		Assert.assertEquals(new HashSet<>(Arrays.asList("comments:comment", "people:author")),
+				getIdentifiers(result.get(JSONAPISpecConstants.INCLUDED)));
+
+		for (JsonNode included : result.get(JSONAPISpecConstants.INCLUDED)) {
+			for (JsonNode relationship : included.get(JSONAPISpecConstants.RELATIONSHIPS)) {
+				Assert.assertFalse(relationship.has(JSONAPISpecConstants.DATA));
+				Assert.assertEquals(1, relationship.get(JSONAPISpecConstants.META).get("count").asInt());
+			}
+		}
+	}
+
+	@Test
+	public void testLongRelationshipChain() throws DocumentSerializationException {
+		ResourceConverter converter = new ResourceConverter(RecursingNode.class);
+		converter.enableSerializationOption(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
+
+		int chainLength = 10000;
+		RecursingNode root = null;
+
+		for (int i = chainLength; i > 0; i--) {
+			RecursingNode node = new RecursingNode();
+			node.setId(String.valueOf(i));
+			node.setParent(root);
+			root = node;
+		}
+
+		// Cycle back to the first node
+		RecursingNode last = root;
+		while (last.getParent() != null) {
+			last = last.getParent();
+		}
+		last.setParent(root);
+
+		JSONAPIDocument<RecursingNode> convertedBack = converter.readDocument(
+				converter.writeDocument(new JSONAPIDocument<>(root)), RecursingNode.class);
+
+		RecursingNode node = convertedBack.get();
+		for (int i = 1; i <= chainLength; i++) {
+			Assert.assertEquals(String.valueOf(i), node.getId());
+			node = node.getParent();
+		}
+		Assert.assertSame(convertedBack.get(), node);
+	}
+
+	@Test
+	public void testAttributesFollowMapperConfiguration() throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		ResourceConverter converter = new ResourceConverter(mapper, Status.class, User.class);
+
+		Status status = new Status();
+		status.setId("id");
+		status.setContent("content");
+
+		JsonNode attributes = mapper.readTree(converter.writeDocument(new JSONAPIDocument<>(status)))
+				.get(JSONAPISpecConstants.DATA).get(JSONAPISpecConstants.ATTRIBUTES);
+		Assert.assertEquals("content", attributes.get("content").asText());
+
+		// Modules registered after the converter was created are used for attributes
+		SimpleModule module = new SimpleModule();
+		module.addSerializer(String.class, new StdSerializer<String>(String.class) {
+			@Override
+			public void serialize(String value, JsonGenerator generator, SerializerProvider provider)
+					throws IOException {
+				generator.writeString(value.toUpperCase());
+			}
+		});
+		mapper.registerModule(module);
+
+		attributes = mapper.readTree(converter.writeDocument(new JSONAPIDocument<>(status)))
+				.get(JSONAPISpecConstants.DATA).get(JSONAPISpecConstants.ATTRIBUTES);
+		Assert.assertEquals("CONTENT", attributes.get("content").asText());
+
+		// Relationships are not serialized as attributes, and mapper's own serializers still include them
+		Assert.assertFalse(attributes.has("user"));
+
+		User user = new User();
+		user.setId("user");
+		status.setUser(user);
+		Assert.assertTrue(mapper.valueToTree(status).has("user"));
+	}
+
+	@Test
+	public void testStreamingCollectionWrite() throws DocumentSerializationException, IOException {
+		final User user = new User();
+		user.setId("user");
+		user.setName("name");
+
+		final int count = 100;
+		Iterator<Status> statuses = new Iterator<Status>() {
+			private int index;
+
+			@Override
+			public boolean hasNext() {
+				return index < count;
+			}
+
+			@Override
+			public Status next() {
+				Status status = new Status();
+				status.setId(String.valueOf(index++));
+				status.setContent("content");
+				status.setUser(user);
+				return status;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+
+		final boolean[] closed = new boolean[1];
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+			@Override
+			public void close() throws IOException {
+				closed[0] = true;
+				super.close();
+			}
+		};
+
+		JSONAPIDocument<Object> document = new JSONAPIDocument<>((Object) null);
+		document.addMeta("total", count);
+
+		converter.writeDocumentCollection(statuses, document, null, outputStream);
+
+		Assert.assertFalse(closed[0]);
+
+		JSONAPIDocument<List<Status>> convertedBack = converter.readDocumentCollection(outputStream.toByteArray(),
+				Status.class);
+
+		Assert.assertEquals(count, convertedBack.get().size());
+		Assert.assertEquals(count, ((Number) convertedBack.getMeta().get("total")).intValue());
+		Assert.assertEquals("name", convertedBack.get().get(count - 1).getUser().getName());
+		Assert.assertEquals(1, new ObjectMapper().readTree(outputStream.toByteArray())
+				.get(JSONAPISpecConstants.INCLUDED).size());
+	}
+
+	@Test
+	public void testStreamingCollectionWriteMatchesInMemoryWrite() throws DocumentSerializationException {
+		List<Article> articles = new ArrayList<>();
+		articles.add(createArticleGraph());
+		articles.add(createArticleGraph());
+		articles.get(1).setId("second");
+
+		JSONAPIDocument<List<Article>> document = new JSONAPIDocument<>(articles);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		converter.writeDocumentCollection(document, null, outputStream);
+
+		Assert.assertArrayEquals(converter.writeDocumentCollection(document), outputStream.toByteArray());
+		Assert.assertTrue(new String(outputStream.toByteArray()).startsWith("{\"data\":[{"));
+	}
+
+	@Test
+	public void testIncludedSpillToDisk() throws DocumentSerializationException, IOException {
+		List<Article> articles = new ArrayList<>();
+		articles.add(createArticleGraph());
+		articles.add(createArticleGraph());
+		articles.get(1).setId("second");
+		articles.get(1).getComments().get(0).setId("second-comment");
+
+		JSONAPIDocument<List<Article>> document = new JSONAPIDocument<>(articles);
+		byte[] expected = converter.writeDocumentCollection(document);
+
+		File spillDirectory = Files.createTempDirectory("jsonapi-spill").toFile();
+
+		try {
+			for (int threshold : new int[] {0, 1, 3}) {
+				SerializationSettings settings = new SerializationSettings.Builder()
+						.includedSpillThreshold(threshold)
+						.includedSpillDirectory(spillDirectory)
+						.build();
+
+				Assert.assertArrayEquals(expected, converter.writeDocumentCollection(document, settings));
+
+				// File target is written using file channel
+				File target = new File(spillDirectory, "target.json");
+				try (FileOutputStream outputStream = new FileOutputStream(target)) {
+					converter.writeDocumentCollection(document, settings, outputStream);
+				}
+				Assert.assertArrayEquals(expected, Files.readAllBytes(target.toPath()));
+				Assert.assertTrue(target.delete());
+
+				// Temporary files are removed
+				Assert.assertEquals(0, spillDirectory.list().length);
+			}
+		} finally {
+			spillDirectory.delete();
+		}
+	}
+
+	@Test
+	public void testFragmentCache() throws DocumentSerializationException {
+		Article article = createArticleGraph();
+		JSONAPIDocument<Article> document = new JSONAPIDocument<>(article);
+		byte[] expected = converter.writeDocument(document);
+
+		ResourceFragmentCache cache = new ResourceFragmentCache(100, 1024 * 1024);
+		converter.setFragmentCache(cache);
+
+		Assert.assertArrayEquals(expected, converter.writeDocument(document));
+		Assert.assertEquals(5, cache.size());
+
+		// Cached fragments are used, included section is still populated
+		Assert.assertArrayEquals(expected, converter.writeDocument(document));
+
+		// Settings affecting representation are cached separately
+		SerializationSettings settings = new SerializationSettings.Builder().serializeLinks(false).build();
+		converter.setFragmentCache(null);
+		byte[] expectedWithSettings = converter.writeDocument(document, settings);
+		converter.setFragmentCache(cache);
+		Assert.assertArrayEquals(expectedWithSettings, converter.writeDocument(document, settings));
+
+		// Without version accessor, changes are visible only after eviction
+		article.setTitle("changed");
+		Assert.assertArrayEquals(expected, converter.writeDocument(document));
+
+		cache.evict("articles", "article");
+		Assert.assertFalse(Arrays.equals(expected, converter.writeDocument(document)));
+
+		cache.evictAll();
+		Assert.assertEquals(0, cache.size());
+		Assert.assertEquals(0, cache.getSizeInBytes());
+	}
+
+	@Test
+	public void testFragmentCacheWithIndentedOutput() throws DocumentSerializationException, IOException {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		mapper.enable(com.fasterxml.jackson.databind.SerializationFeature.INDENT_OUTPUT);
+
+		ResourceConverter converter = new ResourceConverter(mapper, Article.class, Author.class, Comment.class);
+		JSONAPIDocument<Article> document = new JSONAPIDocument<>(createArticleGraph());
+		byte[] expected = converter.writeDocument(document);
+
+		ByteArrayOutputStream expectedStream = new ByteArrayOutputStream();
+		converter.writeDocumentCollection(new JSONAPIDocument<>(Collections.singletonList(document.get())), null,
+				expectedStream);
+
+		ResourceFragmentCache cache = new ResourceFragmentCache(100, 1024 * 1024);
+		converter.setFragmentCache(cache);
+
+		for (int i = 0; i < 2; i++) {
+			Assert.assertArrayEquals(expected, converter.writeDocument(document));
+
+			ByteArrayOutputStream stream = new ByteArrayOutputStream();
+			converter.writeDocumentCollection(new JSONAPIDocument<>(Collections.singletonList(document.get())), null,
+					stream);
+			Assert.assertArrayEquals(expectedStream.toByteArray(), stream.toByteArray());
+		}
+
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testFragmentCacheVersionAndLimits() throws DocumentSerializationException, IOException {
+		final Map<String, Integer> versions = new HashMap<>();
+		ResourceFragmentCache cache = new ResourceFragmentCache(2, 1024 * 1024,
+				new ResourceFragmentCache.VersionAccessor() {
+					@Override
+					public Object getVersion(Object resource) {
+						return resource instanceof Article ? versions.get(((Article) resource).getId()) : null;
+					}
+				});
+		converter.setFragmentCache(cache);
+
+		Article article = new Article();
+		article.setId("article");
+		article.setTitle("title");
+		versions.put("article", 1);
+
+		converter.writeDocument(new JSONAPIDocument<>(article));
+		Assert.assertEquals(1, cache.size());
+
+		article.setTitle("changed");
+		versions.put("article", 2);
+
+		JsonNode node = new ObjectMapper().readTree(converter.writeDocument(new JSONAPIDocument<>(article)));
+		Assert.assertEquals("changed", node.get("data").get("attributes").get("title").asText());
+
+		// Least recently used resources are evicted
+		for (int i = 0; i < 3; i++) {
+			Article other = new Article();
+			other.setId("other" + i);
+			versions.put(other.getId(), 1);
+			converter.writeDocument(new JSONAPIDocument<>(other));
+		}
+		Assert.assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testDocumentDigest() throws Exception {
+		JSONAPIDocument<Article> document = new JSONAPIDocument<>(createArticleGraph());
+		byte[] expected = MessageDigest.getInstance("SHA-256").digest(converter.writeDocument(document));
+
+		Assert.assertArrayEquals(expected,
+				converter.digestDocument(document, null, MessageDigest.getInstance("SHA-256")));
+
+		// Digest computed while writing
+		MessageDigest digest = MessageDigest.getInstance("SHA-256");
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		converter.writeDocument(document, null, new DigestOutputStream(outputStream, digest));
+
+		Assert.assertArrayEquals(converter.writeDocument(document), outputStream.toByteArray());
+		Assert.assertArrayEquals(expected, digest.digest());
+
+		JSONAPIDocument<List<Article>> collection = new JSONAPIDocument<>(Collections.singletonList(
+				createArticleGraph()));
+		Assert.assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(
+				converter.writeDocumentCollection(collection)),
+				converter.digestDocumentCollection(collection, null, MessageDigest.getInstance("SHA-256")));
+	}
+
+	@Test
+	public void testSortIncluded() throws DocumentSerializationException, IOException {
+		List<Article> articles = new ArrayList<>();
+		articles.add(createArticleGraph());
+		articles.add(createArticleGraph());
+		articles.get(1).setId("second");
+		articles.get(1).getComments().get(0).setId("second-comment");
+
+		JSONAPIDocument<List<Article>> document = new JSONAPIDocument<>(articles);
+		SerializationSettings settings = new SerializationSettings.Builder().sortIncluded(true).build();
+
+		byte[] sorted = converter.writeDocumentCollection(document, settings);
+		List<String> identifiers = new ArrayList<>(getIdentifiers(new ObjectMapper().readTree(sorted).get("included")));
+
+		// Ordered by resource id, then type
+		Assert.assertEquals(Arrays.asList("people:author", "comments:comment", "people:commenter", "articles:other",
+				"comments:second-comment"), identifiers);
+
+		// Spilled resources are sorted together with in-memory ones
+		SerializationSettings spillSettings = new SerializationSettings.Builder()
+				.sortIncluded(true)
+				.includedSpillThreshold(2)
+				.build();
+		Assert.assertArrayEquals(sorted, converter.writeDocumentCollection(document, spillSettings));
+
+		JsonNode single = new ObjectMapper().readTree(converter.writeDocument(
+				new JSONAPIDocument<>(createArticleGraph()), settings));
+		Assert.assertEquals(Arrays.asList("people:author", "comments:comment", "people:commenter", "articles:other"),
+				new ArrayList<>(getIdentifiers(single.get("included"))));
+	}
+
+	@Test
+	public void testWriteDocumentChanges() throws DocumentSerializationException, IOException {
+		Status status = new Status();
+		status.setId("sid");
+		status.setContent("content");
+		status.setLikeCount(1);
+		status.setCommentCount(2);
+
+		User user = new User();
+		user.setId("uid");
+		status.setUser(user);
+
+		ResourceSnapshot baseline = converter.snapshot(status);
+
+		// Unchanged resource has only its identifier
+		JsonNode unchanged = new ObjectMapper().readTree(converter.writeDocumentChanges(
+				new JSONAPIDocument<>(status), baseline)).get("data");
+		Assert.assertEquals("statuses", unchanged.get("type").asText());
+		Assert.assertEquals("sid", unchanged.get("id").asText());
+		Assert.assertFalse(unchanged.has("attributes"));
+		Assert.assertFalse(unchanged.has("relationships"));
+
+		User other = new User();
+		other.setId("other");
+
+		status.setLikeCount(5);
+		status.setContent(null);
+		status.setUser(other);
+
+		JsonNode changed = new ObjectMapper().readTree(converter.writeDocumentChanges(
+				new JSONAPIDocument<>(status), baseline)).get("data");
+
+		JsonNode attributes = changed.get("attributes");
+		Assert.assertEquals(2, attributes.size());
+		Assert.assertEquals(5, attributes.get("likeCount").asInt());
+		Assert.assertTrue(attributes.get("content").isNull());
+
+		JsonNode relationships = changed.get("relationships");
+		Assert.assertEquals(1, relationships.size());
+		Assert.assertEquals("other", relationships.get("user").get("data").get("id").asText());
+		Assert.assertFalse(new ObjectMapper().readTree(converter.writeDocumentChanges(
+				new JSONAPIDocument<>(status), baseline)).has("included"));
+
+		// Snapshot of another resource is rejected
+		Status another = new Status();
+		another.setId("another");
+
+		try {
+			converter.writeDocumentChanges(new JSONAPIDocument<>(another), baseline);
+			Assert.fail("Expected serialization to fail");
+		} catch (DocumentSerializationException e) {
+			Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testParallelSerialization() throws Exception {
+		List<Article> articles = new ArrayList<>();
+		Author shared = new Author();
+		shared.setId("shared");
+		shared.setFirstName("shared");
+
+		for (int i = 0; i < 50; i++) {
+			Article article = createArticleGraph();
+			article.setId("article-" + i);
+			article.getComments().get(0).setId("comment-" + (i % 10));
+
+			// Later primary resources are reachable from earlier ones
+			if (i % 3 == 0) {
+				article.getAuthor().setArticles(new ArrayList<>(Collections.singletonList(articles.isEmpty() ?
+						article : articles.get(i / 2))));
+			}
+			if (i % 5 == 0) {
+				article.getComments().get(0).setAuthor(shared);
+			}
+			articles.add(article);
+		}
+
+		JSONAPIDocument<List<Article>> document = new JSONAPIDocument<>(articles);
+		byte[] sequential = converter.writeDocumentCollection(document);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			converter.setParallelSerialization(7, executor);
+			Assert.assertArrayEquals(sequential, converter.writeDocumentCollection(document));
+
+			SerializationSettings settings = new SerializationSettings.Builder().includeRelationship("author").build();
+			byte[] parallel = converter.writeDocumentCollection(document, settings);
+
+			converter.setParallelSerialization(0, null);
+			Assert.assertArrayEquals(converter.writeDocumentCollection(document, settings), parallel);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testBinaryFormats() throws Exception {
+		List<Article> articles = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Article article = createArticleGraph();
+			article.setId("article-" + i);
+			articles.add(article);
+		}
+
+		JSONAPIDocument<List<Article>> document = new JSONAPIDocument<>(articles);
+		JsonNode expected = new ObjectMapper().readTree(converter.writeDocumentCollection(document));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			for (ObjectMapper mapper : Arrays.asList(new ObjectMapper(new SmileFactory()),
+					new ObjectMapper(new CBORFactory()))) {
+				mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+				ResourceConverter binary = new ResourceConverter(mapper, Status.class, User.class, Article.class,
+						Author.class, Comment.class);
+				binary.enableSerializationOption(SerializationFeature.INCLUDE_RELATIONSHIP_ATTRIBUTES);
+
+				Assert.assertEquals(mapper.getFactory() instanceof SmileFactory ?
+						JSONAPISpecConstants.SMILE_MEDIA_TYPE : JSONAPISpecConstants.CBOR_MEDIA_TYPE,
+						binary.getMediaType());
+
+				byte[] data = binary.writeDocumentCollection(document);
+				Assert.assertEquals(expected, mapper.readTree(data));
+
+				// Fragments, parallel batches and spilled resources are not pre-encoded for binary formats
+				binary.setFragmentCache(new ResourceFragmentCache(100, 1024 * 1024));
+				binary.writeDocumentCollection(document);
+				binary.setParallelSerialization(5, executor);
+
+				SerializationSettings settings = new SerializationSettings.Builder().includedSpillThreshold(1).build();
+				Assert.assertEquals(expected, mapper.readTree(binary.writeDocumentCollection(document, settings)));
+
+				List<Article> read = binary.readDocumentCollection(data, Article.class).get();
+				Assert.assertEquals(20, read.size());
+				Assert.assertEquals("article-3", read.get(3).getId());
+				Assert.assertEquals("author", read.get(3).getAuthor().getFirstName());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Assert.assertEquals(JSONAPISpecConstants.MEDIA_TYPE, converter.getMediaType());
+	}
+
+	private Article createArticleGraph() {
+		Article other = new Article();
+		other.setId("other");
+		other.setTitle("other");
+
+		Author author = new Author();
+		author.setId("author");
+		author.setFirstName("author");
+		author.setArticles(new ArrayList<>(Collections.singletonList(other)));
+
+		Author commenter = new Author();
+		commenter.setId("commenter");
+		commenter.setFirstName("commenter");
+
+		Comment comment = new Comment();
+		comment.setId("comment");
+		comment.setBody("body");
+		comment.setAuthor(commenter);
+
+		Article article = new Article();
+		article.setId("article");
+		article.setTitle("title");
+		article.setAuthor(author);
+		article.setComments(new ArrayList<>(Collections.singletonList(comment)));
+
+		return article;
+	}
+
+	private Set<String> getIdentifiers(JsonNode resources) {
+		Set<String> result = new LinkedHashSet<>();
+
+		for (JsonNode resource : resources) {
+			result.add(resource.get(JSONAPISpecConstants.TYPE).asText() + ":" +
+					resource.get(JSONAPISpecConstants.ID).asText());
+		}
+
+		return result;
+	}
+
 	private JSONAPIDocument<User> createDocument(User user) {
 		JSONAPIDocument<User> document = new JSONAPIDocument<>(user);
 
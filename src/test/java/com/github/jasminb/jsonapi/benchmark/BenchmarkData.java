@@ -0,0 +1,112 @@
+package com.github.jasminb.jsonapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import com.github.jasminb.jsonapi.models.Reading;
+import com.github.jasminb.jsonapi.models.Sensor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Documents and converters shared by benchmarks.
+ */
+final class BenchmarkData {
+	private static final int READINGS_PER_SENSOR = 10;
+
+	private BenchmarkData() {
+		// Private CTOR
+	}
+
+	/**
+	 * Creates converter for benchmark resources.
+	 *
+	 * @param mapper {@link ObjectMapper} mapper
+	 * @return {@link ResourceConverter}
+	 */
+	static ResourceConverter converter(ObjectMapper mapper) {
+		return ResourceConverter.builder()
+				.types(Reading.class, Sensor.class)
+				.objectMapper(mapper)
+				.build();
+	}
+
+	/**
+	 * Creates readings, every sensor is shared by {@value #READINGS_PER_SENSOR} readings.
+	 *
+	 * @param count number of readings
+	 * @return {@link List} of readings
+	 */
+	static List<Reading> readings(int count) {
+		List<Reading> result = new ArrayList<>(count);
+		Sensor sensor = null;
+
+		for (int i = 0; i < count; i++) {
+			if (i % READINGS_PER_SENSOR == 0) {
+				sensor = new Sensor();
+				sensor.setId("sensor-" + i / READINGS_PER_SENSOR);
+				sensor.setModel("TH-" + i % 7);
+				sensor.setFirmware("1.4." + i % 3);
+			}
+
+			Reading reading = new Reading();
+			reading.setId("reading-" + i);
+			reading.setName("temperature");
+			reading.setUnit("celsius");
+			reading.setLocation("building " + i % 5 + ", floor " + i % 3);
+			reading.setNotes(i % 4 == 0 ? "calibrated" : "scheduled reading");
+			reading.setValue(20 + i % 100 / 10.0);
+			reading.setMinimum(18.25 + i % 10);
+			reading.setMaximum(24.75 + i % 10);
+			reading.setAverage(21.5 + i % 10);
+			reading.setTimestamp(1700000000000L + i * 60000L);
+			reading.setSequence(i);
+			reading.setQuality(i % 100);
+			reading.setValid(i % 9 != 0);
+			reading.setSensor(sensor);
+			result.add(reading);
+		}
+
+		return result;
+	}
+
+	/**
+	 * Creates JSON collection document holding readings equal to {@link #readings(int)}, with sensors included. Text
+	 * is built without Jackson, so that creating it does not warm up converter or mapper.
+	 *
+	 * @param count number of readings
+	 * @return document bytes
+	 */
+	static byte[] collectionJson(int count) {
+		StringBuilder data = new StringBuilder("{\"data\":[");
+		StringBuilder included = new StringBuilder();
+
+		for (Reading reading : readings(count)) {
+			if (reading.getSequence() > 0) {
+				data.append(',');
+			}
+
+			data.append(String.format(Locale.ROOT, "{\"type\":\"readings\",\"id\":\"%s\",\"attributes\":{" +
+							"\"name\":\"%s\",\"unit\":\"%s\",\"location\":\"%s\",\"notes\":\"%s\",\"value\":%s," +
+							"\"minimum\":%s,\"maximum\":%s,\"average\":%s,\"timestamp\":%d,\"sequence\":%d," +
+							"\"quality\":%d,\"valid\":%b},\"relationships\":{\"sensor\":{\"data\":" +
+							"{\"type\":\"sensors\",\"id\":\"%s\"}}}}",
+					reading.getId(), reading.getName(), reading.getUnit(), reading.getLocation(), reading.getNotes(),
+					reading.getValue(), reading.getMinimum(), reading.getMaximum(), reading.getAverage(),
+					reading.getTimestamp(), reading.getSequence(), reading.getQuality(), reading.isValid(),
+					reading.getSensor().getId()));
+
+			if (reading.getSequence() % READINGS_PER_SENSOR == 0) {
+				Sensor sensor = reading.getSensor();
+				included.append(included.length() > 0 ? "," : "").append(String.format(Locale.ROOT,
+						"{\"type\":\"sensors\",\"id\":\"%s\",\"attributes\":{\"model\":\"%s\",\"firmware\":\"%s\"}}",
+						sensor.getId(), sensor.getModel(), sensor.getFirmware()));
+			}
+		}
+
+		return data.append("],\"included\":[").append(included).append("]}").toString()
+				.getBytes(StandardCharsets.UTF_8);
+	}
+}
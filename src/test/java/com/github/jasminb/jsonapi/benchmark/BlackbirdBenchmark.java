@@ -0,0 +1,64 @@
+package com.github.jasminb.jsonapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import com.github.jasminb.jsonapi.models.Reading;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of reading and writing a collection of attribute heavy resources, with reflective property
+ * access and with accessors generated by Jackson Blackbird module registered on the mapper.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class BlackbirdBenchmark {
+
+	@Param({"false", "true"})
+	public boolean blackbird;
+
+	private ResourceConverter converter;
+	private byte[] document;
+	private List<Reading> readings;
+
+	@Setup
+	public void setUp() {
+		ObjectMapper mapper = new ObjectMapper();
+		if (blackbird) {
+			mapper.registerModule(new BlackbirdModule());
+		}
+
+		converter = BenchmarkData.converter(mapper);
+		document = BenchmarkData.collectionJson(1000);
+		readings = BenchmarkData.readings(1000);
+	}
+
+	@Benchmark
+	public JSONAPIDocument<List<Reading>> read() {
+		return converter.readDocumentCollection(document, Reading.class);
+	}
+
+	@Benchmark
+	public byte[] write() throws DocumentSerializationException {
+		return converter.writeDocumentCollection(new JSONAPIDocument<>(readings));
+	}
+}
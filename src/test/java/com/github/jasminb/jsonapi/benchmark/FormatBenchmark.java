@@ -0,0 +1,79 @@
+package com.github.jasminb.jsonapi.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import com.github.jasminb.jsonapi.models.Reading;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares JSON, Smile and CBOR encoding of the same collection document: time needed to read and write it is
+ * measured, document size is printed when the benchmark is set up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(3)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+
+	@Param({"json", "smile", "cbor"})
+	public String format;
+
+	private ResourceConverter converter;
+	private byte[] document;
+	private List<Reading> readings;
+
+	@Setup
+	public void setUp() throws DocumentSerializationException {
+		JsonFactory factory;
+		switch (format) {
+			case "smile":
+				factory = new SmileFactory();
+				break;
+			case "cbor":
+				factory = new CBORFactory();
+				break;
+			default:
+				factory = new JsonFactory();
+		}
+
+		ObjectMapper mapper = new ObjectMapper(factory);
+		mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+		converter = BenchmarkData.converter(mapper);
+		readings = BenchmarkData.readings(1000);
+		document = converter.writeDocumentCollection(new JSONAPIDocument<>(readings));
+
+		System.out.println(format + " document: " + document.length + " bytes");
+	}
+
+	@Benchmark
+	public JSONAPIDocument<List<Reading>> read() {
+		return converter.readDocumentCollection(document, Reading.class);
+	}
+
+	@Benchmark
+	public byte[] write() throws DocumentSerializationException {
+		return converter.writeDocumentCollection(new JSONAPIDocument<>(readings));
+	}
+}
@@ -0,0 +1,63 @@
+package com.github.jasminb.jsonapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.ResourceConverter;
+import com.github.jasminb.jsonapi.exceptions.DocumentSerializationException;
+import com.github.jasminb.jsonapi.models.Reading;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures latency of the first document read and written by a new converter, in a fresh JVM, with and without
+ * calling {@link ResourceConverter#warmUp()} upfront. Converter creation and warm-up are not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@State(Scope.Benchmark)
+public class WarmUpBenchmark {
+
+	@Param({"false", "true"})
+	public boolean warmUp;
+
+	private ResourceConverter converter;
+	private byte[] document;
+	private List<Reading> readings;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		converter = BenchmarkData.converter(new ObjectMapper());
+		document = BenchmarkData.collectionJson(10);
+		readings = BenchmarkData.readings(10);
+
+		if (warmUp) {
+			converter.warmUp();
+		}
+	}
+
+	@Benchmark
+	public JSONAPIDocument<List<Reading>> firstRead() {
+		return converter.readDocumentCollection(document, Reading.class);
+	}
+
+	@Benchmark
+	public byte[] firstWrite() throws DocumentSerializationException {
+		return converter.writeDocumentCollection(new JSONAPIDocument<>(readings));
+	}
+}
@@ -0,0 +1,39 @@
+package com.github.jasminb.jsonapi.models;
+
+import com.github.jasminb.jsonapi.annotations.Id;
+import com.github.jasminb.jsonapi.annotations.Type;
+
+/**
+ * Resource related to {@link Reading}, used by benchmarks.
+ */
+@Type("sensors")
+public class Sensor {
+	@Id
+	private String id;
+	private String model;
+	private String firmware;
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getModel() {
+		return model;
+	}
+
+	public void setModel(String model) {
+		this.model = model;
+	}
+
+	public String getFirmware() {
+		return firmware;
+	}
+
+	public void setFirmware(String firmware) {
+		this.firmware = firmware;
+	}
+}
@@ -1,7 +1,10 @@
 package com.github.jasminb.jsonapi.retrofit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.github.jasminb.jsonapi.JSONAPIDocument;
+import com.github.jasminb.jsonapi.JSONAPISpecConstants;
 import com.github.jasminb.jsonapi.ResourceConverter;
 import com.github.jasminb.jsonapi.models.errors.Error;
 import com.github.jasminb.jsonapi.ErrorUtils;
@@ -11,6 +14,7 @@ import com.github.jasminb.jsonapi.models.errors.Errors;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -20,6 +24,7 @@ import retrofit2.Retrofit;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -186,4 +191,94 @@ public class RetrofitTest {
 		Assert.assertEquals(user.getName(), serverSide.get().iterator().next().getName());
 
 	}
+
+	@Test
+	public void testSmileRequestAndResponse() throws Exception {
+		ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+		ResourceConverter smileConverter = new ResourceConverter(smileMapper, User.class);
+
+		SimpleService smileService = new Retrofit.Builder()
+				.baseUrl(server.url("/").toString())
+				.addConverterFactory(new JSONAPIConverterFactory(smileConverter))
+				.build()
+				.create(SimpleService.class);
+
+		User liz = converter.readDocument(IOUtils.getResource("user-liz.json"), User.class).get();
+
+		server.enqueue(new MockResponse()
+				.setResponseCode(201)
+				.setHeader("Content-Type", JSONAPISpecConstants.SMILE_MEDIA_TYPE)
+				.setBody(new Buffer().write(smileConverter.writeObject(liz))));
+
+		User user = new User();
+		user.setId("id");
+		user.setName("name");
+
+		User response = smileService.createUser(user).execute().body();
+		Assert.assertEquals("liz", response.getName());
+
+		RecordedRequest request = server.takeRequest();
+		Assert.assertEquals(JSONAPISpecConstants.SMILE_MEDIA_TYPE, request.getHeader("Content-Type"));
+
+		User serverSide = smileConverter.readDocument(request.getBody().readByteArray(), User.class).get();
+		Assert.assertEquals("name", serverSide.getName());
+	}
+
+	@Test
+	public void testCborResponseFormat() throws Exception {
+		ResourceConverter cborConverter = new ResourceConverter(new ObjectMapper(new CBORFactory()), User.class);
+
+		// JSON by default, CBOR requests and responses
+		JSONAPIConverterFactory factory = new JSONAPIConverterFactory(converter, cborConverter);
+		factory.addResponseFormat(cborConverter);
+
+		SimpleService cborService = new Retrofit.Builder()
+				.baseUrl(server.url("/").toString())
+				.addConverterFactory(factory)
+				.build()
+				.create(SimpleService.class);
+
+		User liz = converter.readDocument(IOUtils.getResource("user-liz.json"), User.class).get();
+
+		server.enqueue(new MockResponse()
+				.setResponseCode(201)
+				.setHeader("Content-Type", JSONAPISpecConstants.CBOR_MEDIA_TYPE)
+				.setBody(new Buffer().write(cborConverter.writeDocument(new JSONAPIDocument<>(liz)))));
+
+		User user = new User();
+		user.setId("id");
+		user.setName("name");
+
+		User response = cborService.createUser(user).execute().body();
+		Assert.assertEquals("liz", response.getName());
+
+		RecordedRequest request = server.takeRequest();
+		Assert.assertEquals(JSONAPISpecConstants.CBOR_MEDIA_TYPE, request.getHeader("Content-Type"));
+
+		User serverSide = cborConverter.readDocument(request.getBody().readByteArray(), User.class).get();
+		Assert.assertEquals("name", serverSide.getName());
+
+		// Documents are read using the format of the response
+		server.enqueue(new MockResponse()
+				.setResponseCode(201)
+				.setHeader("Content-Type", JSONAPISpecConstants.CBOR_MEDIA_TYPE + "; charset=binary")
+				.setBody(new Buffer().write(cborConverter.writeDocumentCollection(
+						new JSONAPIDocument<>(Collections.singletonList(liz))))));
+
+		JSONAPIDocument<List<User>> users = cborService.createMultipleUsers(
+				new JSONAPIDocument<>(Collections.singletonList(user))).execute().body();
+		Assert.assertEquals("liz", users.get().get(0).getName());
+
+		List<User> requested = cborConverter.readDocumentCollection(server.takeRequest().getBody().readByteArray(),
+				User.class).get();
+		Assert.assertEquals("name", requested.get(0).getName());
+
+		// Other content types are read using the default converter
+		server.enqueue(new MockResponse()
+				.setResponseCode(200)
+				.setHeader("Content-Type", JSONAPISpecConstants.MEDIA_TYPE)
+				.setBody(IOUtils.getResourceAsString("user-liz.json")));
+
+		Assert.assertEquals("liz", cborService.getExampleResource().execute().body().getName());
+	}
 }